@@ -0,0 +1,349 @@
+package org.example;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * An append-only journal of account changes backed by a memory-mapped file.
+ * Set it as the {@link AccountListener} of the accounts to journal: every change is appended before it is
+ * applied, so a change that cannot be journaled is never made, and the mutating call returns only once the
+ * change is on disk. The force runs after the account locks are released, so concurrent writers share
+ * group commits: one {@code force()} makes every change appended before it durable instead of one per change.
+ * Changes that belong together, such as both legs of a transfer or a whole batch, are appended as one
+ * group and made durable with a single force; reading and replay only ever see complete groups.
+ * <p>
+ * Record layout: {@code int length, int checksum, byte operation, byte last, long amountCents,
+ * long balanceCents, short numberLength, byte[] accountNumber}. The length counts the bytes after the
+ * checksum, the checksum is the CRC-32C of those bytes, and {@code last} is 1 on the final record of a group.
+ * A {@link AccountOperation#CLOSE} record moves no money, so its amount field holds the time of closing.
+ * A zero length, or any record that fails these checks, marks the end of the journal.
+ */
+public class AccountJournal implements AccountListener, Closeable {
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+    private static final int FIXED_RECORD_BYTES = Byte.BYTES + Byte.BYTES + Long.BYTES + Long.BYTES + Short.BYTES;
+    private static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+    private static final AccountOperation[] OPERATIONS = AccountOperation.values();
+
+    private final FileChannel channel;
+    private final long segmentBytes;
+    private final Object appendLock = new Object();
+    private final Object syncLock = new Object();
+
+    private MappedByteBuffer segment;
+    private long segmentStart;
+    private long appended;
+    private volatile long durable;
+    private long syncCount;
+
+    /**
+     * Opens a journal, appending after any records already in the file
+     * @param file the journal file
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public AccountJournal(Path file) throws IOException {
+        this(file, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Opens a journal, appending after any records already in the file
+     * @param file the journal file
+     * @param segmentBytes how much of the file to map at a time
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public AccountJournal(Path file, long segmentBytes) throws IOException {
+        if (segmentBytes < HEADER_BYTES + FIXED_RECORD_BYTES || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size out of range: " + segmentBytes);
+        }
+        this.segmentBytes = segmentBytes;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long end = scan(file, null);
+        // Drop a torn tail so its stale bytes can never be read back behind newer records
+        channel.truncate(end);
+        this.segmentStart = end;
+        this.segment = channel.map(FileChannel.MapMode.READ_WRITE, end, segmentBytes);
+        this.appended = end;
+        this.durable = end;
+    }
+
+    /**
+     * Appends the change before it is applied
+     */
+    @Override
+    public void onChange(BankAccount account, AccountOperation operation, long amountCents, long balanceCents) {
+        append(List.of(entry(account, operation, amountCents, balanceCents)));
+    }
+
+    /**
+     * Appends the changes as one group before they are applied
+     */
+    @Override
+    public void onChanges(List<Change> changes) {
+        List<Entry> group = new ArrayList<>(changes.size());
+        for (Change change : changes) {
+            group.add(entry(change.account(), change.operation(), change.amountCents(), change.balanceCents()));
+        }
+        append(group);
+    }
+
+    /**
+     * Waits until everything appended so far, including the caller's own changes, is durable
+     */
+    @Override
+    public void afterCommit() {
+        sync(appendedPosition());
+    }
+
+    private static Entry entry(BankAccount account, AccountOperation operation, long amountCents, long balanceCents) {
+        return new Entry(account.getAccountNumber(), operation, amountCents, balanceCents,
+                operation == AccountOperation.CLOSE ? account.getClosedAtMillis() : 0L);
+    }
+
+    /**
+     * Appends a record without waiting for it to be durable
+     * @param accountNumber the account that changed
+     * @param operation the kind of change
+     * @param amountCents the amount moved in cents
+     * @param balanceCents the balance in cents after the change
+     * @return the journal position just past the record, to pass to {@link #sync(long)}
+     */
+    public long append(String accountNumber, AccountOperation operation, long amountCents, long balanceCents) {
+        return append(List.of(new Entry(accountNumber, operation, amountCents, balanceCents)));
+    }
+
+    /**
+     * Appends records as one group without waiting for them to be durable.
+     * The records are written back to back, and a reader sees either all of them or none.
+     * @param group the records, in order
+     * @return the journal position just past the last record, to pass to {@link #sync(long)}
+     * @throws IllegalArgumentException if group is empty or an account number is too long
+     */
+    public long append(List<Entry> group) {
+        if (group.isEmpty()) {
+            throw new IllegalArgumentException("Group cannot be empty");
+        }
+        byte[][] numbers = new byte[group.size()][];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = group.get(i).accountNumber().getBytes(StandardCharsets.UTF_8);
+            if (numbers[i].length > Short.MAX_VALUE || HEADER_BYTES + FIXED_RECORD_BYTES + numbers[i].length > segmentBytes) {
+                throw new IllegalArgumentException("Account number too long to journal");
+            }
+        }
+        synchronized (appendLock) {
+            for (int i = 0; i < numbers.length; i++) {
+                put(group.get(i), numbers[i], i == numbers.length - 1);
+            }
+            return appended;
+        }
+    }
+
+    /**
+     * Writes one record at the end of the journal, the length last so a reader never sees a partial record
+     */
+    private void put(Entry entry, byte[] number, boolean last) {
+        int length = FIXED_RECORD_BYTES + number.length;
+        int offset = (int) (appended - segmentStart);
+        if (offset + HEADER_BYTES + length > segmentBytes) {
+            nextSegment();
+            offset = 0;
+        }
+        int body = offset + HEADER_BYTES;
+        segment.put(body, (byte) entry.operation().ordinal());
+        segment.put(body + 1, (byte) (last ? 1 : 0));
+        segment.putLong(body + 2, entry.operation() == AccountOperation.CLOSE ? entry.closedAtMillis() : entry.amountCents());
+        segment.putLong(body + 10, entry.balanceCents());
+        segment.putShort(body + 18, (short) number.length);
+        segment.put(body + 20, number);
+        CRC32C checksum = new CRC32C();
+        checksum.update(segment.slice(body, length));
+        segment.putInt(offset + Integer.BYTES, (int) checksum.getValue());
+        segment.putInt(offset, length);
+        appended += HEADER_BYTES + length;
+    }
+
+    /**
+     * Waits until every record up to the given position is durable.
+     * The first waiter forces the file on behalf of everyone who appended before it;
+     * the others find their records already covered and return without forcing again.
+     * @param position a position returned by {@link #append}
+     */
+    public void sync(long position) {
+        if (durable >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durable >= position) {
+                return;
+            }
+            MappedByteBuffer current;
+            long target;
+            synchronized (appendLock) {
+                current = segment;
+                target = appended;
+            }
+            current.force();
+            syncCount++;
+            durable = target;
+        }
+    }
+
+    /**
+     * Gets the number of forces performed so far
+     * @return the number of group commits
+     */
+    public long getSyncCount() {
+        synchronized (syncLock) {
+            return syncCount;
+        }
+    }
+
+    /**
+     * Forces outstanding records and closes the file
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        sync(appendedPosition());
+        channel.close();
+    }
+
+    private long appendedPosition() {
+        synchronized (appendLock) {
+            return appended;
+        }
+    }
+
+    /**
+     * Reads every record of the complete groups in a journal file, oldest first
+     * @param file the journal file
+     * @return the records
+     * @throws IOException if the file cannot be read
+     */
+    public static List<Entry> read(Path file) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        scan(file, entries);
+        return entries;
+    }
+
+    /**
+     * Restores the journaled balances and closures into a registry.
+     * Accounts missing from the registry are created; existing accounts take the last journaled balance.
+     * @param file the journal file
+     * @param registry the registry to restore into
+     * @return the number of records replayed
+     * @throws IOException if the file cannot be read
+     */
+    public static int replay(Path file, AccountRegistry registry) throws IOException {
+        List<Entry> entries = read(file);
+        for (Entry entry : entries) {
+            BankAccount account = registry.find(entry.accountNumber());
+            if (account == null) {
+                account = BankAccount.ofCents(entry.accountNumber(), entry.balanceCents());
+                registry.register(account);
+            }
+            account.setBalanceCents(entry.balanceCents());
+            if (entry.operation() == AccountOperation.CLOSE) {
+                account.setClosedAtMillis(entry.closedAtMillis());
+            }
+        }
+        return entries.size();
+    }
+
+    private void nextSegment() {
+        try {
+            segment.force();
+            segmentStart = appended;
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, segmentStart, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot extend journal", e);
+        }
+    }
+
+    /**
+     * Reads records sequentially up to the end marker or the first record that is torn or fails its checks.
+     * Records are collected group by group, so a group cut short at the end of the log is left out.
+     * @param entries where to collect the records, or null to only find the end
+     * @return the position just past the last complete group
+     */
+    private static long scan(Path file, List<Entry> entries) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        long position = 0;
+        long groupEnd = 0;
+        List<Entry> group = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                int length = in.readInt();
+                if (length < FIXED_RECORD_BYTES || length > FIXED_RECORD_BYTES + Short.MAX_VALUE) {
+                    return groupEnd;
+                }
+                int expected = in.readInt();
+                byte[] record = new byte[length];
+                in.readFully(record);
+                CRC32C checksum = new CRC32C();
+                checksum.update(record);
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                int operation = buffer.get();
+                byte last = buffer.get();
+                long amountCents = buffer.getLong();
+                long balanceCents = buffer.getLong();
+                int numberLength = buffer.getShort();
+                if ((int) checksum.getValue() != expected || operation < 0 || operation >= OPERATIONS.length
+                        || (last & ~1) != 0 || length != FIXED_RECORD_BYTES + numberLength) {
+                    return groupEnd;
+                }
+                String accountNumber = new String(record, FIXED_RECORD_BYTES, numberLength, StandardCharsets.UTF_8);
+                group.add(OPERATIONS[operation] == AccountOperation.CLOSE
+                        ? new Entry(accountNumber, AccountOperation.CLOSE, 0L, balanceCents, amountCents)
+                        : new Entry(accountNumber, OPERATIONS[operation], amountCents, balanceCents));
+                position += HEADER_BYTES + length;
+                if (last == 1) {
+                    if (entries != null) {
+                        entries.addAll(group);
+                    }
+                    group.clear();
+                    groupEnd = position;
+                }
+            }
+        } catch (EOFException e) {
+            // A record cut short at the end of the file was never acknowledged; ignore it and its group
+            return groupEnd;
+        }
+    }
+
+    /**
+     * One journaled change
+     * @param accountNumber the account that changed
+     * @param operation the kind of change
+     * @param amountCents the amount moved in cents, or 0 for {@link AccountOperation#CLOSE}
+     * @param balanceCents the balance in cents after the change
+     * @param closedAtMillis the time of closing in milliseconds since the epoch for {@link AccountOperation#CLOSE}, otherwise 0
+     */
+    public record Entry(String accountNumber, AccountOperation operation, long amountCents, long balanceCents, long closedAtMillis) {
+
+        /**
+         * Creates an entry that records no closing time
+         * @param accountNumber the account that changed
+         * @param operation the kind of change
+         * @param amountCents the amount moved in cents
+         * @param balanceCents the balance in cents after the change
+         */
+        public Entry(String accountNumber, AccountOperation operation, long amountCents, long balanceCents) {
+            this(accountNumber, operation, amountCents, balanceCents, 0L);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.example;
+
+import java.util.List;
+
+/**
+ * Receives every change applied to a {@link BankAccount}.
+ * The listener runs on the mutating thread, holding the account's lock, just before the change is applied,
+ * and is given the balance the change will produce. If it throws, the change is not applied and the
+ * exception reaches the caller, so a journal that writes ahead never misses a change that happened.
+ * <p>
+ * Changes that only make sense together, such as both legs of a transfer or every operation of a batch,
+ * arrive in one {@link #onChanges(List)} call before any of them is applied.
+ * Once the changes are applied and the locks released, {@link #afterCommit()} runs before the mutating
+ * call returns; that is where an implementation should block (for example until a change is durable),
+ * so it delays only its own caller's acknowledgement and not other writers waiting for the locks.
+ */
+@FunctionalInterface
+public interface AccountListener {
+
+    /**
+     * Called before a change is applied
+     * @param account the account that changed
+     * @param operation the kind of change
+     * @param amountCents the amount moved in cents, or 0 for {@link AccountOperation#CLOSE}
+     * @param balanceCents the balance in cents the change will produce
+     */
+    void onChange(BankAccount account, AccountOperation operation, long amountCents, long balanceCents);
+
+    /**
+     * Called once before several changes that belong together are applied.
+     * The default delivers them one at a time through {@link #onChange}.
+     * @param changes the changes for accounts with this listener, in the order they will be applied
+     */
+    default void onChanges(List<Change> changes) {
+        for (Change change : changes) {
+            onChange(change.account(), change.operation(), change.amountCents(), change.balanceCents());
+        }
+    }
+
+    /**
+     * Called after changes reported to this listener have been applied and the mutating thread has
+     * released the account locks, before the mutating call returns. The default does nothing.
+     */
+    default void afterCommit() {
+    }
+
+    /**
+     * Combines this listener with another that runs after it. A group of changes still reaches each of
+     * them as one call when several accounts share one of the two listeners.
+     * @param next the listener to call after this one
+     * @return a listener that calls both
+     * @throws IllegalArgumentException if next is null
+     */
+    default AccountListener andThen(AccountListener next) {
+        if (next == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        return new ListenerChain(this, next);
+    }
+
+    /**
+     * One change within a group
+     * @param account the account that changed
+     * @param operation the kind of change
+     * @param amountCents the amount moved in cents
+     * @param balanceCents the balance in cents the change produces
+     */
+    record Change(BankAccount account, AccountOperation operation, long amountCents, long balanceCents) {
+    }
+}
@@ -0,0 +1,223 @@
+package org.example;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counts and times the deposits, withdrawals and transfers of the accounts it is set on.
+ * Counters are striped {@link LongAdder}s per operation and outcome, so threads updating
+ * different accounts do not contend on one cache line. Latencies go into fixed-size histograms
+ * with one bucket per power of two nanoseconds. One instance may be shared by any number of accounts.
+ * <p>
+ * Set it with {@link BankAccount#setMetrics(AccountMetrics)}. An account without metrics only pays
+ * for a null check. Read values through {@link #snapshot()} or over JMX after {@link #register(String)}.
+ */
+public class AccountMetrics implements AccountMetricsMXBean {
+    private static final AccountOperation[] OPERATIONS = AccountOperation.values();
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] counts = adders(OPERATIONS.length * STATUSES.length);
+    private final LongAdder[] latencies = adders(OPERATIONS.length * BUCKETS);
+
+    /**
+     * Records one operation
+     * @param operation the operation; transfers are recorded as {@link AccountOperation#TRANSFER_OUT}
+     * @param status the outcome
+     * @param startNanos the {@link System#nanoTime()} reading taken when the operation began
+     * @return the outcome, so callers can record and return in one step
+     */
+    public TransactionStatus record(AccountOperation operation, TransactionStatus status, long startNanos) {
+        return recordElapsed(operation, status, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records one operation that was timed by the caller
+     * @param elapsedNanos how long the operation took
+     */
+    TransactionStatus recordElapsed(AccountOperation operation, TransactionStatus status, long elapsedNanos) {
+        counts[operation.ordinal() * STATUSES.length + status.ordinal()].increment();
+        latencies[operation.ordinal() * BUCKETS + bucket(elapsedNanos)].increment();
+        return status;
+    }
+
+    /**
+     * Copies the current counters and histograms
+     * @return the copy
+     */
+    public Snapshot snapshot() {
+        long[] countValues = new long[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            countValues[i] = counts[i].sum();
+        }
+        long[] latencyValues = new long[latencies.length];
+        for (int i = 0; i < latencies.length; i++) {
+            latencyValues[i] = latencies[i].sum();
+        }
+        return new Snapshot(countValues, latencyValues);
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server
+     * @param name the value of the {@code name} key in the object name
+     * @return the object name registered
+     * @throws IllegalStateException if the name is taken or invalid
+     */
+    public ObjectName register(String name) {
+        try {
+            ObjectName objectName = new ObjectName("org.example:type=AccountMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register metrics as " + name, e);
+        }
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder count : counts) {
+            count.reset();
+        }
+        for (LongAdder latency : latencies) {
+            latency.reset();
+        }
+    }
+
+    @Override
+    public long getDepositCount() {
+        return snapshot().total(AccountOperation.DEPOSIT);
+    }
+
+    @Override
+    public long getWithdrawalCount() {
+        return snapshot().total(AccountOperation.WITHDRAWAL);
+    }
+
+    @Override
+    public long getTransferCount() {
+        return snapshot().total(AccountOperation.TRANSFER_OUT);
+    }
+
+    @Override
+    public long getDeclinedCount() {
+        Snapshot snapshot = snapshot();
+        long declined = 0;
+        for (AccountOperation operation : OPERATIONS) {
+            declined += snapshot.total(operation) - snapshot.count(operation, TransactionStatus.SUCCESS);
+        }
+        return declined;
+    }
+
+    @Override
+    public long getDepositP50Nanos() {
+        return snapshot().percentileNanos(AccountOperation.DEPOSIT, 50);
+    }
+
+    @Override
+    public long getDepositP99Nanos() {
+        return snapshot().percentileNanos(AccountOperation.DEPOSIT, 99);
+    }
+
+    @Override
+    public long getWithdrawalP50Nanos() {
+        return snapshot().percentileNanos(AccountOperation.WITHDRAWAL, 50);
+    }
+
+    @Override
+    public long getWithdrawalP99Nanos() {
+        return snapshot().percentileNanos(AccountOperation.WITHDRAWAL, 99);
+    }
+
+    @Override
+    public long getTransferP50Nanos() {
+        return snapshot().percentileNanos(AccountOperation.TRANSFER_OUT, 50);
+    }
+
+    @Override
+    public long getTransferP99Nanos() {
+        return snapshot().percentileNanos(AccountOperation.TRANSFER_OUT, 99);
+    }
+
+    /**
+     * Maps a latency to its bucket: bucket {@code b} holds latencies below {@code 2^b} nanoseconds
+     */
+    private static int bucket(long nanos) {
+        return nanos <= 0 ? 0 : Math.min(BUCKETS - 1, BUCKETS - Long.numberOfLeadingZeros(nanos));
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Counters and histograms copied at one point in time
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long[] latencies;
+
+        private Snapshot(long[] counts, long[] latencies) {
+            this.counts = counts;
+            this.latencies = latencies;
+        }
+
+        /**
+         * Gets how many times an operation ended with an outcome
+         * @param operation the operation
+         * @param status the outcome
+         * @return the count
+         */
+        public long count(AccountOperation operation, TransactionStatus status) {
+            return counts[operation.ordinal() * STATUSES.length + status.ordinal()];
+        }
+
+        /**
+         * Gets how many times an operation ran, whatever its outcome
+         * @param operation the operation
+         * @return the count
+         */
+        public long total(AccountOperation operation) {
+            long total = 0;
+            for (int i = 0; i < STATUSES.length; i++) {
+                total += counts[operation.ordinal() * STATUSES.length + i];
+            }
+            return total;
+        }
+
+        /**
+         * Gets a latency percentile of an operation
+         * @param operation the operation
+         * @param percentile the percentile, from 0 to 100
+         * @return the upper bound in nanoseconds of the bucket holding the percentile, or 0 if nothing was recorded
+         * @throws IllegalArgumentException if percentile is out of range
+         */
+        public long percentileNanos(AccountOperation operation, double percentile) {
+            if (!(percentile >= 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100");
+            }
+            int base = operation.ordinal() * BUCKETS;
+            long total = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                total += latencies[base + b];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+            long seen = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                seen += latencies[base + b];
+                if (seen >= rank) {
+                    return b == BUCKETS - 1 ? Long.MAX_VALUE : 1L << b;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+}
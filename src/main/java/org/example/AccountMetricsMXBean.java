@@ -0,0 +1,72 @@
+package org.example;
+
+/**
+ * JMX view of {@link AccountMetrics}. Latencies are upper bounds of power-of-two histogram buckets.
+ */
+public interface AccountMetricsMXBean {
+
+    /**
+     * Gets the number of deposits attempted
+     * @return the number of deposits, applied or declined
+     */
+    long getDepositCount();
+
+    /**
+     * Gets the number of withdrawals attempted
+     * @return the number of withdrawals, applied or declined
+     */
+    long getWithdrawalCount();
+
+    /**
+     * Gets the number of transfers attempted
+     * @return the number of transfers, applied or declined
+     */
+    long getTransferCount();
+
+    /**
+     * Gets the number of operations of any kind that were declined
+     * @return the number of declined operations
+     */
+    long getDeclinedCount();
+
+    /**
+     * Gets the median deposit latency
+     * @return the latency in nanoseconds
+     */
+    long getDepositP50Nanos();
+
+    /**
+     * Gets the 99th percentile deposit latency
+     * @return the latency in nanoseconds
+     */
+    long getDepositP99Nanos();
+
+    /**
+     * Gets the median withdrawal latency
+     * @return the latency in nanoseconds
+     */
+    long getWithdrawalP50Nanos();
+
+    /**
+     * Gets the 99th percentile withdrawal latency
+     * @return the latency in nanoseconds
+     */
+    long getWithdrawalP99Nanos();
+
+    /**
+     * Gets the median transfer latency
+     * @return the latency in nanoseconds
+     */
+    long getTransferP50Nanos();
+
+    /**
+     * Gets the 99th percentile transfer latency
+     * @return the latency in nanoseconds
+     */
+    long getTransferP99Nanos();
+
+    /**
+     * Clears every counter and histogram
+     */
+    void reset();
+}
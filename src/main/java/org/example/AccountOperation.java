@@ -0,0 +1,17 @@
+package org.example;
+
+/**
+ * Kinds of change an account can go through.
+ */
+public enum AccountOperation {
+    /** Money was deposited */
+    DEPOSIT,
+    /** Money was withdrawn */
+    WITHDRAWAL,
+    /** Money left the account as part of a transfer */
+    TRANSFER_OUT,
+    /** Money entered the account as part of a transfer */
+    TRANSFER_IN,
+    /** The account was closed */
+    CLOSE
+}
@@ -0,0 +1,350 @@
+package org.example;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Locates {@link BankAccount} instances by account number.
+ * The index is an open-addressing hash table with linear probing that keeps each slot's hash
+ * in a parallel int array, so a lookup usually touches one hash and one account.
+ * Lookups never lock and may run concurrently with registrations and compaction; registrations are serialized.
+ * Iteration walks the index as it was when the iterator was created, minus accounts removed since.
+ * <p>
+ * {@link #compact(Instant)} removes accounts closed before a cutoff, leaving a tombstone in each freed slot
+ * so concurrent lookups keep probing past it. Once tombstones fill a quarter of the index, it is rebuilt
+ * without them into a table sized for the remaining accounts. The rebuild copies a batch of slots at a time
+ * while lookups keep using the old table; an account registered meanwhile goes into both tables, and the
+ * new table replaces the old one once every slot has been copied.
+ */
+public class AccountRegistry implements Iterable<BankAccount> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int COMPACTION_BATCH = 4_096;
+    private static final BankAccount TOMBSTONE = new BankAccount("TOMBSTONE");
+
+    private final Object compactionLock = new Object();
+    private volatile Table table;
+    private int size;
+    private int tombstones;
+    private Table rebuilding;
+    private int migrated;
+
+    /**
+     * Creates an empty registry
+     */
+    public AccountRegistry() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty registry sized for the expected number of accounts
+     * @param expectedAccounts the number of accounts to preallocate room for
+     */
+    public AccountRegistry(int expectedAccounts) {
+        if (expectedAccounts < 0) {
+            throw new IllegalArgumentException("Expected accounts cannot be negative");
+        }
+        table = new Table(capacityFor(expectedAccounts));
+    }
+
+    /**
+     * Registers an account under its account number
+     * @param account the account to register
+     * @throws IllegalArgumentException if account is null or its number is already registered
+     */
+    public synchronized void register(BankAccount account) {
+        if (account == null) {
+            throw new IllegalArgumentException("Account cannot be null");
+        }
+        String accountNumber = account.getAccountNumber();
+        int hash = hash(accountNumber);
+        if (table.find(accountNumber, hash) != null) {
+            throw new IllegalArgumentException("Account number already registered: " + accountNumber);
+        }
+        if ((size + tombstones + 1) * 2 > table.capacity()) {
+            // Grow if live accounts need it, otherwise rebuild at the same size to clear tombstones
+            table = table.resize((size + 1) * 2 > table.capacity() ? table.capacity() * 2 : table.capacity());
+            tombstones = 0;
+            // That cleared the tombstones a compaction may be rebuilding the index to drop, so it can stop
+            rebuilding = null;
+        }
+        Table current = table;
+        int slot = current.freeSlot(hash);
+        if (current.slots.get(slot) == TOMBSTONE) {
+            tombstones--;
+        }
+        current.put(slot, account, hash);
+        if (rebuilding != null) {
+            if ((size + 1) * 2 > rebuilding.capacity()) {
+                rebuilding = null;
+            } else if (slot < migrated) {
+                // The rebuild has already copied this slot, so it would miss the account
+                rebuilding.insert(account, hash);
+            }
+        }
+        size++;
+    }
+
+    /**
+     * Finds an account by its account number
+     * @param accountNumber the account number
+     * @return the account, or null if none is registered under that number
+     */
+    public BankAccount find(String accountNumber) {
+        if (accountNumber == null) {
+            return null;
+        }
+        return table.find(accountNumber, hash(accountNumber));
+    }
+
+    /**
+     * Removes every account closed before a cutoff.
+     * The index is swept, and rebuilt if needed, a batch of slots at a time, so registrations wait at most
+     * one batch; lookups and operations on live accounts never wait. Accounts closed while the sweep runs
+     * may be left for the next compaction. Compactions run one at a time.
+     * @param closedBefore the cutoff; accounts closed at or after it are kept
+     * @return the number of accounts removed
+     * @throws IllegalArgumentException if closedBefore is null
+     */
+    public int compact(Instant closedBefore) {
+        if (closedBefore == null) {
+            throw new IllegalArgumentException("Cutoff cannot be null");
+        }
+        synchronized (compactionLock) {
+            int removed = sweep(closedBefore);
+            rebuild();
+            return removed;
+        }
+    }
+
+    /**
+     * Replaces accounts closed before the cutoff with tombstones, a batch of slots at a time
+     */
+    private int sweep(Instant closedBefore) {
+        int removed = 0;
+        for (int start = 0; ; start += COMPACTION_BATCH) {
+            synchronized (this) {
+                Table current = table;
+                if (start > current.mask) {
+                    break;
+                }
+                int end = Math.min(start + COMPACTION_BATCH, current.capacity());
+                for (int i = start; i < end; i++) {
+                    BankAccount account = current.slots.get(i);
+                    if (account != null && account != TOMBSTONE && !account.isActive() && closedBefore(account, closedBefore)) {
+                        current.slots.set(i, TOMBSTONE);
+                        size--;
+                        tombstones++;
+                        removed++;
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Copies the live accounts into a table without tombstones, a batch of slots at a time, then swaps it in.
+     * A registration that has to grow the index meanwhile drops the tombstones itself, and the rebuild stops.
+     */
+    private void rebuild() {
+        Table source;
+        Table target;
+        synchronized (this) {
+            if (tombstones * 4L <= table.capacity()) {
+                return;
+            }
+            source = table;
+            target = new Table(capacityFor(size));
+            rebuilding = target;
+            migrated = 0;
+        }
+        for (int start = 0; ; start += COMPACTION_BATCH) {
+            synchronized (this) {
+                if (rebuilding != target) {
+                    return;
+                }
+                if (start > source.mask) {
+                    table = target;
+                    tombstones = 0;
+                    rebuilding = null;
+                    return;
+                }
+                int end = Math.min(start + COMPACTION_BATCH, source.capacity());
+                for (int i = start; i < end; i++) {
+                    BankAccount account = source.slots.get(i);
+                    if (account != null && account != TOMBSTONE) {
+                        target.insert(account, source.hashes[i]);
+                    }
+                }
+                migrated = end;
+            }
+        }
+    }
+
+    /**
+     * Removes every account closed longer ago than the retention period
+     * @param retention how long closed accounts are kept
+     * @return the number of accounts removed
+     * @throws IllegalArgumentException if retention is null
+     */
+    public int compact(Duration retention) {
+        if (retention == null) {
+            throw new IllegalArgumentException("Retention cannot be null");
+        }
+        return compact(Instant.now().minus(retention));
+    }
+
+    /**
+     * Gets the number of index slots, including free ones
+     * @return the capacity of the index
+     */
+    public synchronized int capacity() {
+        return table.capacity();
+    }
+
+    /**
+     * Gets the number of registered accounts
+     * @return the number of accounts
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Iterates over the registered accounts in index order
+     * @return an iterator over the accounts
+     */
+    @Override
+    public Iterator<BankAccount> iterator() {
+        Table snapshot = table;
+        return new Iterator<>() {
+            // The slot may turn into a tombstone at any time, so the account is read once and kept
+            private int slot;
+            private BankAccount next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public BankAccount next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                BankAccount account = next;
+                next = advance();
+                return account;
+            }
+
+            private BankAccount advance() {
+                while (slot <= snapshot.mask) {
+                    BankAccount account = snapshot.slots.get(slot++);
+                    if (account != null && account != TOMBSTONE) {
+                        return account;
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    private static int hash(String accountNumber) {
+        int h = accountNumber.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Reads the closing time under the account's lock, the same lock {@link TransferEngine} takes for the account
+     */
+    private static boolean closedBefore(BankAccount account, Instant cutoff) {
+        Lock lock = TransferEngine.lockFor(account);
+        lock.lock();
+        try {
+            Instant closedAt = account.getClosedAt();
+            return closedAt != null && closedAt.isBefore(cutoff);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int capacityFor(int accounts) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < accounts * 2L) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * One immutable-capacity generation of the index.
+     * A slot's hash is written before the slot itself is published, so a reader that sees
+     * the account also sees its hash.
+     */
+    private static final class Table {
+        private final AtomicReferenceArray<BankAccount> slots;
+        private final int[] hashes;
+        private final int mask;
+
+        Table(int capacity) {
+            slots = new AtomicReferenceArray<>(capacity);
+            hashes = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        BankAccount find(String accountNumber, int hash) {
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                BankAccount account = slots.get(i);
+                if (account == null) {
+                    return null;
+                }
+                if (account != TOMBSTONE && hashes[i] == hash && account.getAccountNumber().equals(accountNumber)) {
+                    return account;
+                }
+            }
+        }
+
+        /**
+         * Finds the first free slot, empty or a tombstone, in a hash's probe sequence
+         */
+        int freeSlot(int hash) {
+            int i = hash & mask;
+            BankAccount occupant;
+            while ((occupant = slots.get(i)) != null && occupant != TOMBSTONE) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        void put(int slot, BankAccount account, int hash) {
+            hashes[slot] = hash;
+            slots.set(slot, account);
+        }
+
+        /**
+         * Puts an account into the first free slot of its probe sequence
+         */
+        void insert(BankAccount account, int hash) {
+            put(freeSlot(hash), account, hash);
+        }
+
+        Table resize(int capacity) {
+            Table resized = new Table(capacity);
+            for (int i = 0; i <= mask; i++) {
+                BankAccount account = slots.get(i);
+                if (account != null && account != TOMBSTONE) {
+                    resized.insert(account, hashes[i]);
+                }
+            }
+            return resized;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package org.example;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Writes and loads compact binary snapshots of a whole account set.
+ * <p>
+ * File layout: {@code int magic, int version, long count}, then per account
+ * {@code long balanceCents, byte active, long closedAtMillis, short numberLength, byte[] accountNumber}.
+ * The closing time is 0 for active accounts. Version 1 files, which lack it, still load,
+ * with their closed accounts stamped as closed at load time.
+ * Loading memory-maps the file and decodes it in place instead of streaming it through buffers.
+ */
+public final class AccountSnapshot {
+    private static final int MAGIC = 0x41434354;
+    private static final int VERSION = 2;
+    private static final int VERSION_WITHOUT_CLOSED_AT = 1;
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES;
+    private static final int MAX_RECORD_BYTES = Long.BYTES + Byte.BYTES + Long.BYTES + Short.BYTES + Short.MAX_VALUE;
+    private static final long WINDOW_BYTES = 1L << 30;
+
+    private AccountSnapshot() {
+    }
+
+    /**
+     * Writes a snapshot of the accounts, as of one instant even while transfers run.
+     * The file is written next to the target and moved into place, so readers never see a partial snapshot.
+     * @param accounts the accounts to write
+     * @param file the snapshot file
+     * @return the number of accounts written
+     * @throws IOException if the file cannot be written
+     */
+    public static long write(Iterable<BankAccount> accounts, Path file) throws IOException {
+        return capture(accounts).writeTo(file);
+    }
+
+    /**
+     * Captures the accounts on the calling thread and writes the snapshot on the executor.
+     * Only the capture of numbers, balances and flags happens before this method returns,
+     * so the accounts can keep changing while the file is being written.
+     * @param accounts the accounts to write
+     * @param file the snapshot file
+     * @param executor the executor that writes the file
+     * @return a future completed with the number of accounts written
+     */
+    public static CompletableFuture<Long> writeInBackground(Iterable<BankAccount> accounts, Path file, Executor executor) {
+        Capture capture = capture(accounts);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return capture.writeTo(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Loads every account in a snapshot
+     * @param file the snapshot file
+     * @return the accounts, in the order they were written
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    public static List<BankAccount> load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Not an account snapshot: " + file);
+            }
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, WINDOW_BYTES));
+            if (window.getInt() != MAGIC) {
+                throw new IOException("Not an account snapshot: " + file);
+            }
+            int version = window.getInt();
+            if (version != VERSION && version != VERSION_WITHOUT_CLOSED_AT) {
+                throw new IOException("Unsupported account snapshot version " + version + ": " + file);
+            }
+            long count = window.getLong();
+            List<BankAccount> accounts = new ArrayList<>((int) Math.min(count, Integer.MAX_VALUE - 8));
+            long windowStart = 0;
+            for (long i = 0; i < count; i++) {
+                long position = windowStart + window.position();
+                if (window.remaining() < MAX_RECORD_BYTES && windowStart + window.limit() < size) {
+                    windowStart = position;
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(size - windowStart, WINDOW_BYTES));
+                }
+                long balanceCents = window.getLong();
+                boolean active = window.get() != 0;
+                long closedAtMillis = version == VERSION ? window.getLong() : System.currentTimeMillis();
+                byte[] number = new byte[window.getShort()];
+                window.get(number);
+                BankAccount account = BankAccount.ofCents(new String(number, StandardCharsets.UTF_8), balanceCents);
+                if (!active) {
+                    account.setClosedAtMillis(closedAtMillis);
+                }
+                accounts.add(account);
+            }
+            return accounts;
+        }
+    }
+
+    /**
+     * Loads every account in a snapshot into a registry
+     * @param file the snapshot file
+     * @param registry the registry to register the accounts in
+     * @return the number of accounts loaded
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    public static int load(Path file, AccountRegistry registry) throws IOException {
+        List<BankAccount> accounts = load(file);
+        for (BankAccount account : accounts) {
+            registry.register(account);
+        }
+        return accounts.size();
+    }
+
+    /**
+     * Copies the accounts while holding all their locks, taken in lock order, so the copy is a consistent cut:
+     * every transfer is either wholly in it or not in it at all, and the balances always add up
+     */
+    private static Capture capture(Iterable<BankAccount> accounts) {
+        List<BankAccount> listed = new ArrayList<>();
+        accounts.forEach(listed::add);
+        BankAccount[] ordered = listed.toArray(new BankAccount[0]);
+        Arrays.sort(ordered, Comparator.comparingLong(BankAccount::lockOrder));
+        Capture capture = new Capture();
+        int locked = 0;
+        try {
+            for (BankAccount account : ordered) {
+                account.lock().lock();
+                locked++;
+            }
+            for (BankAccount account : listed) {
+                capture.add(account);
+            }
+        } finally {
+            while (locked > 0) {
+                ordered[--locked].lock().unlock();
+            }
+        }
+        return capture;
+    }
+
+    /**
+     * Account state copied out of the live accounts, ready to be written
+     */
+    private static final class Capture {
+        private final List<byte[]> numbers = new ArrayList<>();
+        private long[] balances = new long[16];
+        private boolean[] active = new boolean[16];
+        private long[] closedAt = new long[16];
+
+        void add(BankAccount account) {
+            int i = numbers.size();
+            if (i == balances.length) {
+                balances = Arrays.copyOf(balances, i * 2);
+                active = Arrays.copyOf(active, i * 2);
+                closedAt = Arrays.copyOf(closedAt, i * 2);
+            }
+            byte[] number = account.getAccountNumber().getBytes(StandardCharsets.UTF_8);
+            if (number.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Account number too long to snapshot");
+            }
+            numbers.add(number);
+            balances[i] = account.getBalanceCents();
+            Instant closedAtTime = account.getClosedAt();
+            active[i] = closedAtTime == null;
+            closedAt[i] = closedAtTime == null ? 0L : closedAtTime.toEpochMilli();
+        }
+
+        long writeTo(Path file) throws IOException {
+            Path absolute = file.toAbsolutePath();
+            Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                     DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                             Channels.newOutputStream(channel), 1 << 16))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeLong(numbers.size());
+                    for (int i = 0; i < numbers.size(); i++) {
+                        byte[] number = numbers.get(i);
+                        out.writeLong(balances[i]);
+                        out.writeByte(active[i] ? 1 : 0);
+                        out.writeLong(closedAt[i]);
+                        out.writeShort(number.length);
+                        out.write(number);
+                    }
+                    out.flush();
+                    channel.force(true);
+                }
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return numbers.size();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package org.example;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A columnar store for very large numbers of accounts.
+ * Instead of one {@link BankAccount} object per account, balances, status flags and account numbers
+ * live in a few primitive arrays, so the number of heap objects stays constant as accounts are added.
+ * Accounts are addressed by the int handle returned from {@link #open(String, long)}.
+ * Like {@link BankAccount}, the store is not thread-safe.
+ */
+public class AccountStore {
+    static final byte ACTIVE = 1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private long[] balances;
+    private byte[] flags;
+    private int[] numberOffsets;
+    private byte[] numberBytes;
+    private int numberBytesUsed;
+    private int size;
+
+    /**
+     * Creates an empty store
+     */
+    public AccountStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty store sized for the expected number of accounts
+     * @param expectedAccounts the number of accounts to preallocate room for
+     */
+    public AccountStore(int expectedAccounts) {
+        if (expectedAccounts < 0) {
+            throw new IllegalArgumentException("Expected accounts cannot be negative");
+        }
+        int capacity = Math.min(Math.max(expectedAccounts, 1), MAX_ARRAY_LENGTH - 1);
+        balances = new long[capacity];
+        flags = new byte[capacity];
+        numberOffsets = new int[capacity + 1];
+        numberBytes = new byte[(int) Math.min(capacity * 8L, MAX_ARRAY_LENGTH)];
+    }
+
+    /**
+     * Opens a new active account
+     * @param accountNumber the account number
+     * @param initialBalanceCents the initial balance in cents
+     * @return the handle of the new account
+     * @throws IllegalArgumentException if account number is null or empty, or balance is negative
+     * @throws IllegalStateException if the store has no room left for the account or its number
+     */
+    public int open(String accountNumber, long initialBalanceCents) {
+        if (accountNumber == null || accountNumber.trim().isEmpty()) {
+            throw new IllegalArgumentException("Account number cannot be null or empty");
+        }
+        if (initialBalanceCents < 0) {
+            throw new IllegalArgumentException("Initial balance cannot be negative");
+        }
+        byte[] encoded = accountNumber.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(size + 1L, (long) numberBytesUsed + encoded.length);
+
+        int handle = size;
+        System.arraycopy(encoded, 0, numberBytes, numberBytesUsed, encoded.length);
+        numberBytesUsed += encoded.length;
+        numberOffsets[handle + 1] = numberBytesUsed;
+        balances[handle] = initialBalanceCents;
+        flags[handle] = ACTIVE;
+        size++;
+        return handle;
+    }
+
+    /**
+     * Deposits money into an account
+     * @param handle the account handle
+     * @param amountCents the amount to deposit in cents
+     * @throws IllegalArgumentException if amount is negative or zero
+     * @throws IllegalStateException if account is not active
+     * @throws ArithmeticException if the balance would overflow
+     */
+    public void depositCents(int handle, long amountCents) {
+        if (!isActive(handle)) {
+            throw new IllegalStateException("Cannot deposit to inactive account");
+        }
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Deposit amount must be positive");
+        }
+        balances[handle] = Money.add(balances[handle], amountCents);
+    }
+
+    /**
+     * Withdraws money from an account
+     * @param handle the account handle
+     * @param amountCents the amount to withdraw in cents
+     * @throws IllegalArgumentException if amount is negative or zero
+     * @throws IllegalStateException if insufficient funds or account is not active
+     */
+    public void withdrawCents(int handle, long amountCents) {
+        if (!isActive(handle)) {
+            throw new IllegalStateException("Cannot withdraw from inactive account");
+        }
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Withdrawal amount must be positive");
+        }
+        if (amountCents > balances[handle]) {
+            throw new IllegalStateException("Insufficient funds");
+        }
+        balances[handle] -= amountCents;
+    }
+
+    /**
+     * Transfers money between two accounts
+     * @param sourceHandle the account to transfer from
+     * @param targetHandle the account to transfer to
+     * @param amountCents the amount to transfer in cents
+     * @throws IllegalArgumentException if amount is invalid
+     * @throws IllegalStateException if insufficient funds or either account is inactive
+     * @throws ArithmeticException if the target balance would overflow
+     */
+    public void transferCents(int sourceHandle, int targetHandle, long amountCents) {
+        if (!isActive(sourceHandle)) {
+            throw new IllegalStateException("Cannot transfer from inactive account");
+        }
+        if (!isActive(targetHandle)) {
+            throw new IllegalStateException("Cannot transfer to inactive account");
+        }
+        if (sourceHandle != targetHandle) {
+            Money.add(balances[targetHandle], amountCents);
+        }
+        withdrawCents(sourceHandle, amountCents);
+        depositCents(targetHandle, amountCents);
+    }
+
+    /**
+     * Gets the balance of an account
+     * @param handle the account handle
+     * @return the balance in cents
+     */
+    public long getBalanceCents(int handle) {
+        Objects.checkIndex(handle, size);
+        return balances[handle];
+    }
+
+    /**
+     * Checks if an account is active
+     * @param handle the account handle
+     * @return true if active, false otherwise
+     */
+    public boolean isActive(int handle) {
+        Objects.checkIndex(handle, size);
+        return (flags[handle] & ACTIVE) != 0;
+    }
+
+    /**
+     * Closes an account
+     * @param handle the account handle
+     */
+    public void close(int handle) {
+        Objects.checkIndex(handle, size);
+        flags[handle] &= ~ACTIVE;
+    }
+
+    /**
+     * Gets the account number of an account
+     * @param handle the account handle
+     * @return the account number
+     */
+    public String getAccountNumber(int handle) {
+        Objects.checkIndex(handle, size);
+        int start = numberOffsets[handle];
+        return new String(numberBytes, start, numberOffsets[handle + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the number of accounts in the store
+     * @return the number of accounts
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gives bulk jobs in this package direct access to the balance column; only the first {@link #size()} entries are accounts
+     */
+    long[] balances() {
+        return balances;
+    }
+
+    /**
+     * Gives bulk jobs in this package direct access to the status column; only the first {@link #size()} entries are accounts
+     */
+    byte[] flags() {
+        return flags;
+    }
+
+    /**
+     * Grows the columns to hold the given totals, which are summed in long so a huge store fails instead of wrapping
+     */
+    private void ensureCapacity(long accounts, long bytes) {
+        if (accounts >= MAX_ARRAY_LENGTH) {
+            throw new IllegalStateException("Account store is full");
+        }
+        if (bytes > MAX_ARRAY_LENGTH) {
+            throw new IllegalStateException("Account store has no room for more account numbers");
+        }
+        if (accounts > balances.length) {
+            int capacity = (int) Math.min(Math.max(accounts, balances.length * 2L), MAX_ARRAY_LENGTH - 1);
+            balances = Arrays.copyOf(balances, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            numberOffsets = Arrays.copyOf(numberOffsets, capacity + 1);
+        }
+        if (bytes > numberBytes.length) {
+            numberBytes = Arrays.copyOf(numberBytes, (int) Math.min(Math.max(bytes, numberBytes.length * 2L), MAX_ARRAY_LENGTH));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Applies interest and maintenance fees to every active account of an {@link AccountStore} in one pass.
+ * The rate table is a list of balance tiers, each with an interest rate in basis points and a flat fee.
+ * An account earns the rate of the highest tier whose floor its balance reaches, then pays that tier's fee,
+ * which is capped so it never takes the balance below zero. Closed accounts are skipped.
+ * <p>
+ * The job walks the store's balance and status columns directly, splitting them into ranges
+ * that run in parallel on a {@link ForkJoinPool}; each range is a sequential scan over two arrays.
+ * The store must not be modified while the job runs.
+ */
+public class AccrualJob {
+    private static final long BASIS_POINTS = 10_000L;
+    private static final int SPLIT_THRESHOLD = 1 << 14;
+
+    private long[] floors = new long[4];
+    private int[] rates = new int[4];
+    private long[] fees = new long[4];
+    private int tierCount;
+
+    /**
+     * Adds a balance tier to the rate table. Tiers must be added in ascending order of floor, starting at zero.
+     * @param floorCents the lowest balance in cents the tier applies to
+     * @param interestBasisPoints the interest rate in hundredths of a percent
+     * @param feeCents the flat fee in cents
+     * @return this job
+     * @throws IllegalArgumentException if the floor is out of order or the rate or fee is negative
+     */
+    public AccrualJob tier(long floorCents, int interestBasisPoints, long feeCents) {
+        if (tierCount == 0 ? floorCents != 0 : floorCents <= floors[tierCount - 1]) {
+            throw new IllegalArgumentException("Tier floors must start at zero and ascend");
+        }
+        if (interestBasisPoints < 0) {
+            throw new IllegalArgumentException("Interest rate cannot be negative");
+        }
+        if (feeCents < 0) {
+            throw new IllegalArgumentException("Fee cannot be negative");
+        }
+        if (tierCount == floors.length) {
+            floors = Arrays.copyOf(floors, tierCount * 2);
+            rates = Arrays.copyOf(rates, tierCount * 2);
+            fees = Arrays.copyOf(fees, tierCount * 2);
+        }
+        floors[tierCount] = floorCents;
+        rates[tierCount] = interestBasisPoints;
+        fees[tierCount] = feeCents;
+        tierCount++;
+        return this;
+    }
+
+    /**
+     * Runs the job on the common fork-join pool
+     * @param store the accounts to accrue
+     * @return the totals of the run
+     * @throws IllegalStateException if no tier has been added
+     */
+    public Result run(AccountStore store) {
+        return run(store, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs the job
+     * @param store the accounts to accrue
+     * @param pool the pool to run the ranges on
+     * @return the totals of the run
+     * @throws IllegalStateException if no tier has been added
+     */
+    public Result run(AccountStore store, ForkJoinPool pool) {
+        if (tierCount == 0) {
+            throw new IllegalStateException("No rate tiers defined");
+        }
+        long start = System.nanoTime();
+        Range range = new Range(store.balances(), store.flags(), 0, store.size(),
+                Arrays.copyOf(floors, tierCount), Arrays.copyOf(rates, tierCount), Arrays.copyOf(fees, tierCount));
+        long[] totals = pool.invoke(range);
+        return new Result(totals[0], totals[1], totals[2], totals[3], totals[4], System.nanoTime() - start);
+    }
+
+    /**
+     * Accrues one range of accounts, splitting it while it is large
+     */
+    private static final class Range extends RecursiveTask<long[]> {
+        private final long[] balances;
+        private final byte[] flags;
+        private final int from;
+        private final int to;
+        private final long[] floors;
+        private final int[] rates;
+        private final long[] fees;
+
+        Range(long[] balances, byte[] flags, int from, int to, long[] floors, int[] rates, long[] fees) {
+            this.balances = balances;
+            this.flags = flags;
+            this.from = from;
+            this.to = to;
+            this.floors = floors;
+            this.rates = rates;
+            this.fees = fees;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                Range left = new Range(balances, flags, from, mid, floors, rates, fees);
+                left.fork();
+                long[] right = new Range(balances, flags, mid, to, floors, rates, fees).compute();
+                long[] totals = left.join();
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += right[i];
+                }
+                return totals;
+            }
+
+            long accrued = 0;
+            long skipped = 0;
+            long overflowed = 0;
+            long interestTotal = 0;
+            long feeTotal = 0;
+            int topTier = floors.length - 1;
+            for (int i = from; i < to; i++) {
+                if ((flags[i] & AccountStore.ACTIVE) == 0) {
+                    skipped++;
+                    continue;
+                }
+                long balance = balances[i];
+                int tier = topTier;
+                while (balance < floors[tier]) {
+                    tier--;
+                }
+                // Split the balance so the remainder's product stays small; the whole part's product is
+                // checked with multiplyHigh, since both factors are non-negative it fits only if the high half is 0
+                long rate = rates[tier];
+                long quotient = balance / BASIS_POINTS;
+                long wholeInterest = quotient * rate;
+                long partInterest = balance % BASIS_POINTS * rate / BASIS_POINTS;
+                if (Math.multiplyHigh(quotient, rate) != 0 || wholeInterest < 0
+                        || wholeInterest > Long.MAX_VALUE - balance - partInterest) {
+                    overflowed++;
+                    continue;
+                }
+                long interest = wholeInterest + partInterest;
+                long credited = balance + interest;
+                long fee = Math.min(fees[tier], credited);
+                balances[i] = credited - fee;
+                accrued++;
+                interestTotal += interest;
+                feeTotal += fee;
+            }
+            return new long[] {accrued, skipped, overflowed, interestTotal, feeTotal};
+        }
+    }
+
+    /**
+     * The totals of one run
+     * @param accountsAccrued the number of active accounts updated
+     * @param accountsSkipped the number of closed accounts left alone
+     * @param accountsOverflowed the number of accounts left alone because interest would overflow their balance
+     * @param interestCents the total interest paid in cents
+     * @param feesCents the total fees charged in cents
+     * @param elapsedNanos the wall-clock duration of the run
+     */
+    public record Result(long accountsAccrued, long accountsSkipped, long accountsOverflowed,
+                         long interestCents, long feesCents, long elapsedNanos) {
+
+        /**
+         * Gets the throughput of the run over every account visited
+         * @return accounts per second
+         */
+        public double accountsPerSecond() {
+            return (accountsAccrued + accountsSkipped + accountsOverflowed) * 1e9 / Math.max(elapsedNanos, 1L);
+        }
+    }
+}
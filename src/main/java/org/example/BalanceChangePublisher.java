@@ -0,0 +1,265 @@
+package org.example;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes the changes of every account it listens to as a {@link Flow.Publisher}.
+ * Set it as the {@link AccountListener} of the accounts to watch. The mutating thread only hands the change
+ * to each subscriber's buffer; delivery happens on the executor, as fast as each subscriber requests it.
+ * <p>
+ * A subscriber's buffer holds at most one pending change per account: a newer change replaces the pending one,
+ * so a slow subscriber sees the latest balance of each account rather than every step in between.
+ * Closures are never replaced, because no change can follow one. The buffer holds changes for at most
+ * {@code bufferCapacity} accounts; past that, the oldest pending change other than a closure is dropped and counted.
+ * Closures are never dropped: a subscriber whose buffer is full of them fails rather than miss one.
+ */
+public class BalanceChangePublisher implements AccountListener, Flow.Publisher<BalanceChangePublisher.Change>, AutoCloseable {
+    private final Executor executor;
+    private final int bufferCapacity;
+    private final List<ChangeSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * Creates a publisher that delivers on the common fork-join pool
+     * @param bufferCapacity the most accounts with a pending change each subscriber buffers
+     */
+    public BalanceChangePublisher(int bufferCapacity) {
+        this(ForkJoinPool.commonPool(), bufferCapacity);
+    }
+
+    /**
+     * Creates a publisher
+     * @param executor the executor that delivers changes to subscribers
+     * @param bufferCapacity the most accounts with a pending change each subscriber buffers
+     * @throws IllegalArgumentException if executor is null or capacity is not positive
+     */
+    public BalanceChangePublisher(Executor executor, int bufferCapacity) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        if (bufferCapacity <= 0) {
+            throw new IllegalArgumentException("Buffer capacity must be positive");
+        }
+        this.executor = executor;
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    /**
+     * Subscribes to every change published from now on
+     * @param subscriber the subscriber
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super Change> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber cannot be null");
+        }
+        ChangeSubscription subscription = new ChangeSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscriptions.add(subscription);
+        if (closed) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * Buffers the change for every subscriber without waiting for any of them
+     */
+    @Override
+    public void onChange(BankAccount account, AccountOperation operation, long amountCents, long balanceCents) {
+        if (closed || subscriptions.isEmpty()) {
+            return;
+        }
+        Change change = new Change(account.getAccountNumber(), operation, amountCents, balanceCents);
+        for (ChangeSubscription subscription : subscriptions) {
+            subscription.offer(change);
+        }
+    }
+
+    /**
+     * Gets the number of subscribers that have not cancelled
+     * @return the number of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Gets the number of changes dropped because a subscriber's buffer was full, across all subscribers
+     * @return the number of dropped changes
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Stops publishing; each subscriber completes once it has received the changes already buffered for it
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (ChangeSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * One published change
+     * @param accountNumber the account that changed
+     * @param operation the kind of change
+     * @param amountCents the amount moved in cents, or 0 for {@link AccountOperation#CLOSE}
+     * @param balanceCents the balance in cents after the change
+     */
+    public record Change(String accountNumber, AccountOperation operation, long amountCents, long balanceCents) {
+    }
+
+    /**
+     * The buffer and demand of one subscriber. Changes are delivered by a drain task on the executor,
+     * and at most one drain task per subscriber runs at a time.
+     */
+    private final class ChangeSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super Change> subscriber;
+        private final LinkedHashMap<String, Change> pending = new LinkedHashMap<>();
+        private final AtomicInteger drainRequests = new AtomicInteger();
+        private long demand;
+        private boolean cancelled;
+        private boolean completing;
+        private boolean done;
+        private RuntimeException failure;
+
+        ChangeSubscription(Flow.Subscriber<? super Change> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void offer(Change change) {
+            synchronized (this) {
+                if (cancelled || completing) {
+                    return;
+                }
+                Change previous = pending.get(change.accountNumber());
+                if (previous == null && pending.size() == bufferCapacity && !evictOldestBalanceChange()) {
+                    if (change.operation() != AccountOperation.CLOSE) {
+                        dropped.increment();
+                        return;
+                    }
+                    failure = new IllegalStateException("Buffer full of pending closures");
+                }
+                if (previous == null || previous.operation() != AccountOperation.CLOSE) {
+                    pending.put(change.accountNumber(), change);
+                }
+            }
+            drain();
+        }
+
+        /**
+         * Drops the oldest pending change that is not a closure, so a subscriber never misses one
+         * @return false if every pending change is a closure
+         */
+        private boolean evictOldestBalanceChange() {
+            for (Iterator<Change> oldest = pending.values().iterator(); oldest.hasNext(); ) {
+                if (oldest.next().operation() != AccountOperation.CLOSE) {
+                    oldest.remove();
+                    dropped.increment();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void complete() {
+            synchronized (this) {
+                completing = true;
+            }
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (n <= 0) {
+                    failure = new IllegalArgumentException("Requested count must be positive: " + n);
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                pending.clear();
+            }
+            subscriptions.remove(this);
+        }
+
+        private void drain() {
+            if (drainRequests.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                deliver();
+                missed = drainRequests.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Hands buffered changes to the subscriber while it has demand. The lock is released before
+         * every call into the subscriber, so a slow subscriber never holds up the mutating threads.
+         */
+        private void deliver() {
+            while (true) {
+                Change next = null;
+                Throwable error = null;
+                synchronized (this) {
+                    if (cancelled || done) {
+                        return;
+                    }
+                    if (failure != null) {
+                        error = failure;
+                    } else if (demand > 0 && !pending.isEmpty()) {
+                        Iterator<Change> oldest = pending.values().iterator();
+                        next = oldest.next();
+                        oldest.remove();
+                        demand--;
+                    } else if (!completing || !pending.isEmpty()) {
+                        return;
+                    }
+                }
+                if (next != null) {
+                    try {
+                        subscriber.onNext(next);
+                        continue;
+                    } catch (RuntimeException e) {
+                        error = e;
+                    }
+                }
+                synchronized (this) {
+                    done = true;
+                    pending.clear();
+                }
+                subscriptions.remove(this);
+                if (error != null) {
+                    subscriber.onError(error);
+                } else {
+                    subscriber.onComplete();
+                }
+                return;
+            }
+        }
+    }
+}
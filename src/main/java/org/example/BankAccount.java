@@ -1,13 +1,29 @@
 package org.example;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * A simple bank account class for demonstrating stateful testing.
  * Shows how to test methods that modify object state.
  */
 public class BankAccount {
-    private double balance;
+    private static final AtomicLong LOCK_ORDER = new AtomicLong();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long lockOrder = LOCK_ORDER.getAndIncrement();
+    private long balanceCents;
     private final String accountNumber;
     private boolean isActive;
+    private long closedAtMillis;
+    private AccountListener listener;
+    private VelocityLimit velocityLimit;
+    private AccountMetrics metrics;
 
     /**
      * Creates a new bank account with zero balance
@@ -18,7 +34,7 @@ public class BankAccount {
             throw new IllegalArgumentException("Account number cannot be null or empty");
         }
         this.accountNumber = accountNumber;
-        this.balance = 0.0;
+        this.balanceCents = 0L;
         this.isActive = true;
     }
 
@@ -32,42 +48,203 @@ public class BankAccount {
         if (initialBalance < 0) {
             throw new IllegalArgumentException("Initial balance cannot be negative");
         }
-        this.balance = initialBalance;
+        this.balanceCents = Money.toCents(initialBalance);
+    }
+
+    /**
+     * Creates a new bank account with an initial balance in cents
+     * @param accountNumber the account number
+     * @param initialBalanceCents the initial balance in cents
+     * @return the new account
+     */
+    public static BankAccount ofCents(String accountNumber, long initialBalanceCents) {
+        BankAccount account = new BankAccount(accountNumber);
+        if (initialBalanceCents < 0) {
+            throw new IllegalArgumentException("Initial balance cannot be negative");
+        }
+        account.balanceCents = initialBalanceCents;
+        return account;
     }
 
     /**
      * Deposits money into the account
-     * @param amount the amount to deposit
-     * @throws IllegalArgumentException if amount is negative or zero
+     * @param amount the amount to deposit, rounded to the nearest cent
+     * @throws IllegalArgumentException if amount is negative, zero, or rounds to zero cents
      * @throws IllegalStateException if account is not active
+     * @throws ArithmeticException if the amount does not fit in cents or the balance would overflow
      */
     public void deposit(double amount) {
-        if (!isActive) {
-            throw new IllegalStateException("Cannot deposit to inactive account");
+        TransactionStatus status = tryDeposit(amount);
+        if (status != TransactionStatus.SUCCESS) {
+            throw rejection(status, "Cannot deposit to inactive account", "Deposit amount must be positive");
         }
-        if (amount <= 0) {
-            throw new IllegalArgumentException("Deposit amount must be positive");
+    }
+
+    /**
+     * Deposits money into the account
+     * @param amountCents the amount to deposit in cents
+     * @throws IllegalArgumentException if amount is negative or zero
+     * @throws IllegalStateException if account is not active
+     * @throws ArithmeticException if the balance would overflow
+     */
+    public void depositCents(long amountCents) {
+        TransactionStatus status = tryDepositCents(amountCents);
+        if (status != TransactionStatus.SUCCESS) {
+            throw rejection(status, "Cannot deposit to inactive account", "Deposit amount must be positive");
+        }
+    }
+
+    /**
+     * Deposits money into the account without throwing on rejection
+     * @param amount the amount to deposit, rounded to the nearest cent; NaN is an invalid amount and
+     *               an amount too large to hold in cents is reported as an overflow
+     * @return the outcome of the deposit
+     */
+    public TransactionStatus tryDeposit(double amount) {
+        AccountMetrics metrics = this.metrics;
+        long start = metrics == null ? 0L : System.nanoTime();
+        TransactionStatus rejection = amountRejection(amount, TransactionStatus.OVERFLOW);
+        TransactionStatus status = applyDeposit(rejection == null ? Money.toCents(amount) : 0L, rejection);
+        if (status == TransactionStatus.SUCCESS) {
+            afterCommit();
+        }
+        return metrics == null ? status : metrics.record(AccountOperation.DEPOSIT, status, start);
+    }
+
+    /**
+     * Deposits money into the account without throwing on rejection
+     * @param amountCents the amount to deposit in cents
+     * @return the outcome of the deposit
+     */
+    public TransactionStatus tryDepositCents(long amountCents) {
+        AccountMetrics metrics = this.metrics;
+        long start = metrics == null ? 0L : System.nanoTime();
+        TransactionStatus status = applyDeposit(amountCents, null);
+        if (status == TransactionStatus.SUCCESS) {
+            afterCommit();
+        }
+        return metrics == null ? status : metrics.record(AccountOperation.DEPOSIT, status, start);
+    }
+
+    /**
+     * Checks and applies a deposit under this account's lock, so it cannot interleave with closing
+     * @param rejection the outcome for an amount already found invalid, reported once the account is known active
+     */
+    private TransactionStatus applyDeposit(long amountCents, TransactionStatus rejection) {
+        lock.lock();
+        try {
+            if (!isActive) {
+                return TransactionStatus.INACTIVE_ACCOUNT;
+            }
+            if (rejection != null) {
+                return rejection;
+            }
+            if (amountCents <= 0) {
+                return TransactionStatus.INVALID_AMOUNT;
+            }
+            if (balanceCents > Long.MAX_VALUE - amountCents) {
+                return TransactionStatus.OVERFLOW;
+            }
+            long balance = balanceCents + amountCents;
+            fireChange(this, AccountOperation.DEPOSIT, amountCents, balance);
+            balanceCents = balance;
+            return TransactionStatus.SUCCESS;
+        } finally {
+            lock.unlock();
         }
-        balance += amount;
     }
 
     /**
      * Withdraws money from the account
-     * @param amount the amount to withdraw
-     * @throws IllegalArgumentException if amount is negative or zero
-     * @throws IllegalStateException if insufficient funds or account is not active
+     * @param amount the amount to withdraw, rounded to the nearest cent
+     * @throws IllegalArgumentException if amount is negative, zero, or rounds to zero cents
+     * @throws IllegalStateException if insufficient funds, account is not active or the velocity limit is exceeded
      */
     public void withdraw(double amount) {
-        if (!isActive) {
-            throw new IllegalStateException("Cannot withdraw from inactive account");
+        TransactionStatus status = tryWithdraw(amount);
+        if (status != TransactionStatus.SUCCESS) {
+            throw rejection(status, "Cannot withdraw from inactive account", "Withdrawal amount must be positive");
         }
-        if (amount <= 0) {
-            throw new IllegalArgumentException("Withdrawal amount must be positive");
+    }
+
+    /**
+     * Withdraws money from the account
+     * @param amountCents the amount to withdraw in cents
+     * @throws IllegalArgumentException if amount is negative or zero
+     * @throws IllegalStateException if insufficient funds, account is not active or the velocity limit is exceeded
+     */
+    public void withdrawCents(long amountCents) {
+        TransactionStatus status = tryWithdrawCents(amountCents);
+        if (status != TransactionStatus.SUCCESS) {
+            throw rejection(status, "Cannot withdraw from inactive account", "Withdrawal amount must be positive");
         }
-        if (amount > balance) {
-            throw new IllegalStateException("Insufficient funds");
+    }
+
+    /**
+     * Withdraws money from the account without throwing on rejection
+     * @param amount the amount to withdraw, rounded to the nearest cent; NaN is an invalid amount and
+     *               an amount too large to hold in cents is more than any balance, so it is insufficient funds
+     * @return the outcome of the withdrawal
+     */
+    public TransactionStatus tryWithdraw(double amount) {
+        AccountMetrics metrics = this.metrics;
+        long start = metrics == null ? 0L : System.nanoTime();
+        TransactionStatus rejection = amountRejection(amount, TransactionStatus.INSUFFICIENT_FUNDS);
+        TransactionStatus status = applyWithdrawal(rejection == null ? Money.toCents(amount) : 0L, rejection);
+        if (status == TransactionStatus.SUCCESS) {
+            afterCommit();
+        }
+        return metrics == null ? status : metrics.record(AccountOperation.WITHDRAWAL, status, start);
+    }
+
+    /**
+     * Withdraws money from the account without throwing on rejection
+     * @param amountCents the amount to withdraw in cents
+     * @return the outcome of the withdrawal
+     */
+    public TransactionStatus tryWithdrawCents(long amountCents) {
+        AccountMetrics metrics = this.metrics;
+        long start = metrics == null ? 0L : System.nanoTime();
+        TransactionStatus status = applyWithdrawal(amountCents, null);
+        if (status == TransactionStatus.SUCCESS) {
+            afterCommit();
+        }
+        return metrics == null ? status : metrics.record(AccountOperation.WITHDRAWAL, status, start);
+    }
+
+    private TransactionStatus applyWithdrawal(long amountCents, TransactionStatus rejection) {
+        lock.lock();
+        try {
+            if (!isActive) {
+                return TransactionStatus.INACTIVE_ACCOUNT;
+            }
+            if (rejection != null) {
+                return rejection;
+            }
+            if (amountCents <= 0) {
+                return TransactionStatus.INVALID_AMOUNT;
+            }
+            if (amountCents > balanceCents) {
+                return TransactionStatus.INSUFFICIENT_FUNDS;
+            }
+            VelocityLimit limit = velocityLimit;
+            long bucket = limit == null ? 0L : limit.acquire(amountCents);
+            if (bucket < 0) {
+                return TransactionStatus.LIMIT_EXCEEDED;
+            }
+            try {
+                fireChange(this, AccountOperation.WITHDRAWAL, amountCents, balanceCents - amountCents);
+            } catch (RuntimeException e) {
+                if (limit != null) {
+                    limit.release(amountCents, bucket);
+                }
+                throw e;
+            }
+            balanceCents -= amountCents;
+            return TransactionStatus.SUCCESS;
+        } finally {
+            lock.unlock();
         }
-        balance -= amount;
     }
 
     /**
@@ -75,7 +252,37 @@ public class BankAccount {
      * @return the current balance
      */
     public double getBalance() {
-        return balance;
+        return Money.toAmount(balanceCents);
+    }
+
+    /**
+     * Gets the current balance in cents
+     * @return the current balance in cents
+     */
+    public long getBalanceCents() {
+        return balanceCents;
+    }
+
+    /**
+     * Overwrites the balance after a batch has validated it
+     * @param balanceCents the new balance in cents
+     */
+    void setBalanceCents(long balanceCents) {
+        this.balanceCents = balanceCents;
+    }
+
+    /**
+     * Gets the lock that guards this account when it is shared between threads
+     */
+    ReentrantLock lock() {
+        return lock;
+    }
+
+    /**
+     * Gets this account's place in the global lock order: unique, and fixed for the life of the account
+     */
+    long lockOrder() {
+        return lockOrder;
     }
 
     /**
@@ -94,36 +301,342 @@ public class BankAccount {
         return isActive;
     }
 
+    /**
+     * Gets when the account was closed
+     * @return the time of closing, or null if the account is active
+     */
+    public Instant getClosedAt() {
+        return isActive ? null : Instant.ofEpochMilli(closedAtMillis);
+    }
+
+    /**
+     * Gets the time of closing in milliseconds since the epoch. Listeners told about a
+     * {@link AccountOperation#CLOSE} can read it before the account is marked inactive.
+     */
+    long getClosedAtMillis() {
+        return closedAtMillis;
+    }
+
+    /**
+     * Marks the account closed at a recorded time, as restoring it from a snapshot or journal requires.
+     * Listeners are not told, since the closing was reported when it first happened.
+     * @param closedAtMillis the time of closing in milliseconds since the epoch
+     */
+    void setClosedAtMillis(long closedAtMillis) {
+        this.isActive = false;
+        this.closedAtMillis = closedAtMillis;
+    }
+
     /**
      * Closes the account
      */
     public void closeAccount() {
-        isActive = false;
+        lock.lock();
+        try {
+            if (!isActive) {
+                return;
+            }
+            // The time is set first so listeners can record it; it stays hidden until the account is inactive
+            closedAtMillis = System.currentTimeMillis();
+            fireChange(this, AccountOperation.CLOSE, 0L, balanceCents);
+            isActive = false;
+        } finally {
+            lock.unlock();
+        }
+        afterCommit();
+    }
+
+    /**
+     * Sets the listener that receives every change applied to this account
+     * @param listener the listener, or null to stop notifications
+     */
+    public void setListener(AccountListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the listener that receives every change applied to this account
+     * @return the listener, or null if none is set
+     */
+    public AccountListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Sets the limit that caps withdrawals and outgoing transfers from this account
+     * @param velocityLimit the limit, or null to remove it
+     */
+    public void setVelocityLimit(VelocityLimit velocityLimit) {
+        this.velocityLimit = velocityLimit;
+    }
+
+    /**
+     * Gets the limit that caps withdrawals and outgoing transfers from this account
+     * @return the limit, or null if none is set
+     */
+    public VelocityLimit getVelocityLimit() {
+        return velocityLimit;
+    }
+
+    /**
+     * Sets the metrics that count and time this account's deposits, withdrawals and transfers
+     * @param metrics the metrics, or null to stop measuring
+     */
+    public void setMetrics(AccountMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets the metrics that count and time this account's deposits, withdrawals and transfers
+     * @return the metrics, or null if none are set
+     */
+    public AccountMetrics getMetrics() {
+        return metrics;
     }
 
     /**
      * Nice to have
      * Transfers money to another account
      * @param targetAccount the account to transfer to
-     * @param amount the amount to transfer
-     * @throws IllegalArgumentException if target account is null or amount is invalid
-     * @throws IllegalStateException if insufficient funds or either account is inactive
+     * @param amount the amount to transfer, rounded to the nearest cent
+     * @throws IllegalArgumentException if target account is null or amount is not positive or rounds to zero cents
+     * @throws IllegalStateException if insufficient funds, either account is inactive or the velocity limit is exceeded
+     * @throws ArithmeticException if the target balance would overflow
      */
     public void transfer(BankAccount targetAccount, double amount) {
+        TransactionStatus status = tryTransfer(targetAccount, amount);
+        if (status != TransactionStatus.SUCCESS) {
+            throw rejection(status, "Cannot transfer from inactive account", "Withdrawal amount must be positive");
+        }
+    }
+
+    /**
+     * Transfers money to another account
+     * @param targetAccount the account to transfer to
+     * @param amountCents the amount to transfer in cents
+     * @throws IllegalArgumentException if target account is null or amount is invalid
+     * @throws IllegalStateException if insufficient funds, either account is inactive or the velocity limit is exceeded
+     * @throws ArithmeticException if the target balance would overflow
+     */
+    public void transferCents(BankAccount targetAccount, long amountCents) {
+        TransactionStatus status = tryTransferCents(targetAccount, amountCents);
+        if (status != TransactionStatus.SUCCESS) {
+            throw rejection(status, "Cannot transfer from inactive account", "Withdrawal amount must be positive");
+        }
+    }
+
+    /**
+     * Transfers money to another account without throwing on rejection
+     * @param targetAccount the account to transfer to
+     * @param amount the amount to transfer, rounded to the nearest cent; NaN is an invalid amount and
+     *               an amount too large to hold in cents is more than any balance, so it is insufficient funds
+     * @return the outcome of the transfer
+     */
+    public TransactionStatus tryTransfer(BankAccount targetAccount, double amount) {
+        AccountMetrics metrics = this.metrics;
+        long start = metrics == null ? 0L : System.nanoTime();
+        TransactionStatus rejection = amountRejection(amount, TransactionStatus.INSUFFICIENT_FUNDS);
+        TransactionStatus status = applyTransfer(targetAccount, rejection == null ? Money.toCents(amount) : 0L, rejection);
+        if (status == TransactionStatus.SUCCESS) {
+            afterCommit(this, targetAccount);
+        }
+        return metrics == null ? status : metrics.record(AccountOperation.TRANSFER_OUT, status, start);
+    }
+
+    /**
+     * Transfers money to another account without throwing on rejection.
+     * Every check runs before either balance changes, so a rejected transfer leaves both untouched.
+     * @param targetAccount the account to transfer to
+     * @param amountCents the amount to transfer in cents
+     * @return the outcome of the transfer
+     */
+    public TransactionStatus tryTransferCents(BankAccount targetAccount, long amountCents) {
+        AccountMetrics metrics = this.metrics;
+        long start = metrics == null ? 0L : System.nanoTime();
+        TransactionStatus status = applyTransfer(targetAccount, amountCents, null);
+        if (status == TransactionStatus.SUCCESS) {
+            afterCommit(this, targetAccount);
+        }
+        return metrics == null ? status : metrics.record(AccountOperation.TRANSFER_OUT, status, start);
+    }
+
+    /**
+     * Checks and applies a transfer holding both accounts' locks, taken in lock order
+     */
+    private TransactionStatus applyTransfer(BankAccount targetAccount, long amountCents, TransactionStatus rejection) {
         if (targetAccount == null) {
-            throw new IllegalArgumentException("Target account cannot be null");
+            return TransactionStatus.INVALID_TARGET;
+        }
+        boolean thisFirst = lockOrder <= targetAccount.lockOrder;
+        ReentrantLock first = thisFirst ? lock : targetAccount.lock;
+        ReentrantLock second = thisFirst ? targetAccount.lock : lock;
+        first.lock();
+        second.lock();
+        try {
+            return applyTransferLocked(targetAccount, amountCents, rejection);
+        } finally {
+            second.unlock();
+            first.unlock();
         }
+    }
+
+    private TransactionStatus applyTransferLocked(BankAccount targetAccount, long amountCents, TransactionStatus rejection) {
         if (!this.isActive) {
-            throw new IllegalStateException("Cannot transfer from inactive account");
+            return TransactionStatus.INACTIVE_ACCOUNT;
         }
         if (!targetAccount.isActive()) {
-            throw new IllegalStateException("Cannot transfer to inactive account");
+            return TransactionStatus.INACTIVE_TARGET;
+        }
+        if (rejection != null) {
+            return rejection;
+        }
+        if (amountCents <= 0) {
+            return TransactionStatus.INVALID_AMOUNT;
+        }
+        if (amountCents > balanceCents) {
+            return TransactionStatus.INSUFFICIENT_FUNDS;
+        }
+        if (targetAccount != this && targetAccount.balanceCents > Long.MAX_VALUE - amountCents) {
+            return TransactionStatus.OVERFLOW;
+        }
+        VelocityLimit limit = velocityLimit;
+        long bucket = limit == null ? 0L : limit.acquire(amountCents);
+        if (bucket < 0) {
+            return TransactionStatus.LIMIT_EXCEEDED;
+        }
+        if (listener != null || targetAccount.listener != null) {
+            long sourceBalance = balanceCents - amountCents;
+            long targetBalance = (targetAccount == this ? sourceBalance : targetAccount.balanceCents) + amountCents;
+            try {
+                fireChanges(List.of(
+                        new AccountListener.Change(this, AccountOperation.TRANSFER_OUT, amountCents, sourceBalance),
+                        new AccountListener.Change(targetAccount, AccountOperation.TRANSFER_IN, amountCents, targetBalance)));
+            } catch (RuntimeException e) {
+                if (limit != null) {
+                    limit.release(amountCents, bucket);
+                }
+                throw e;
+            }
         }
 
         // Withdraw from this account
-        this.withdraw(amount);
+        this.balanceCents -= amountCents;
 
         // Deposit to target account
-        targetAccount.deposit(amount);
+        targetAccount.balanceCents += amountCents;
+        return TransactionStatus.SUCCESS;
+    }
+
+    /**
+     * Gets the outcome for an amount that cannot be applied at all: NaN or not positive is invalid,
+     * and an amount too large to hold in cents gets the given outcome
+     * @param tooLarge the outcome for an amount too large to hold in cents
+     * @return the rejection, or null if the amount converts to cents
+     */
+    private static TransactionStatus amountRejection(double amount, TransactionStatus tooLarge) {
+        if (!(amount > 0)) {
+            return TransactionStatus.INVALID_AMOUNT;
+        }
+        if (!Money.fitsInCents(amount)) {
+            return tooLarge;
+        }
+        return null;
+    }
+
+    /**
+     * Tells an account's listener, if any, about a change that is about to be applied
+     */
+    static void fireChange(BankAccount account, AccountOperation operation, long amountCents, long balanceCents) {
+        AccountListener listener = account.listener;
+        if (listener != null) {
+            listener.onChange(account, operation, amountCents, balanceCents);
+        }
+    }
+
+    /**
+     * Tells each listener, once, about the changes in a group that concern its accounts.
+     * Chained listeners are told one by one, so a listener shared by the accounts gets the group in one call.
+     */
+    static void fireChanges(List<AccountListener.Change> changes) {
+        Map<AccountListener, List<AccountListener.Change>> byListener = new IdentityHashMap<>();
+        List<AccountListener> listeners = new ArrayList<>();
+        for (AccountListener.Change change : changes) {
+            AccountListener listener = change.account().listener;
+            if (listener instanceof ListenerChain chain) {
+                for (AccountListener chained : chain.listeners()) {
+                    group(byListener, listeners, chained, change);
+                }
+            } else if (listener != null) {
+                group(byListener, listeners, listener, change);
+            }
+        }
+        for (AccountListener listener : listeners) {
+            listener.onChanges(byListener.get(listener));
+        }
+    }
+
+    private static void group(Map<AccountListener, List<AccountListener.Change>> byListener, List<AccountListener> listeners,
+                              AccountListener listener, AccountListener.Change change) {
+        byListener.computeIfAbsent(listener, key -> {
+            listeners.add(key);
+            return new ArrayList<>();
+        }).add(change);
+    }
+
+    /**
+     * Lets this account's listener finish a commit once the thread holds none of the account's locks.
+     * While an enclosing call such as {@link TransferEngine#commit(TransactionBatch)} still holds the lock,
+     * nothing happens here; that call finishes the commit after it unlocks.
+     */
+    void afterCommit() {
+        AccountListener listener = this.listener;
+        if (listener != null && !lock.isHeldByCurrentThread()) {
+            listener.afterCommit();
+        }
+    }
+
+    /**
+     * Lets the listeners of both sides of a transfer finish the commit, once each
+     */
+    private static void afterCommit(BankAccount source, BankAccount target) {
+        if (target.listener == source.listener) {
+            source.afterCommit();
+        } else {
+            afterCommit(List.of(source, target));
+        }
+    }
+
+    /**
+     * Lets the listeners of a group of accounts finish a commit, once each, looking inside chained listeners
+     */
+    static void afterCommit(List<BankAccount> accounts) {
+        Map<AccountListener, Boolean> finished = new IdentityHashMap<>();
+        for (BankAccount account : accounts) {
+            AccountListener listener = account.listener;
+            if (listener == null || account.lock.isHeldByCurrentThread()) {
+                continue;
+            }
+            for (AccountListener chained : listener instanceof ListenerChain chain ? chain.listeners() : List.of(listener)) {
+                if (finished.put(chained, Boolean.TRUE) == null) {
+                    chained.afterCommit();
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps a rejected outcome to the exception the throwing methods have always raised
+     */
+    private static RuntimeException rejection(TransactionStatus status, String inactiveMessage, String amountMessage) {
+        return switch (status) {
+            case INVALID_AMOUNT -> new IllegalArgumentException(amountMessage);
+            case INVALID_TARGET -> new IllegalArgumentException("Target account cannot be null");
+            case INACTIVE_ACCOUNT -> new IllegalStateException(inactiveMessage);
+            case INACTIVE_TARGET -> new IllegalStateException("Cannot transfer to inactive account");
+            case INSUFFICIENT_FUNDS -> new IllegalStateException("Insufficient funds");
+            case OVERFLOW -> new ArithmeticException("Balance overflow");
+            case LIMIT_EXCEEDED -> new IllegalStateException("Velocity limit exceeded");
+            case SUCCESS -> new IllegalArgumentException("Not a rejection: " + status);
+        };
     }
 }
@@ -1,10 +1,19 @@
 package org.example;
 
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
 /**
  * A simple calculator class that performs basic arithmetic operations.
  * This class is used to demonstrate unit testing concepts.
+ * <p>
+ * The array and buffer variants apply an operation element by element over whole inputs. They run on the
+ * {@code jdk.incubator.vector} API when the JVM is started with {@code --add-modules jdk.incubator.vector},
+ * and on plain loops otherwise; both give the same results as the scalar methods.
  */
 public class Calculator {
+    private static final IntArrayKernel KERNEL = IntArrayKernel.best();
+    private static final int CHUNK = 4096;
 
     /**
      * Adds two numbers
@@ -52,6 +61,147 @@ public class Calculator {
         return result;
     }
 
+    /**
+     * Checks whether the array and buffer variants run on the Vector API
+     * @return true if they do, false if they fall back to plain loops
+     */
+    public static boolean isVectorized() {
+        return !(KERNEL instanceof ScalarIntArrayKernel);
+    }
+
+    /**
+     * Adds two arrays element by element
+     * @param a first numbers
+     * @param b second numbers
+     * @param result the array to write the sums to; may be a or b
+     * @throws IllegalArgumentException if any array is null or the lengths differ
+     */
+    public void add(int[] a, int[] b, int[] result) {
+        KERNEL.add(a, 0, b, 0, result, 0, checkLengths(a, b, result == null ? -1 : result.length));
+    }
+
+    /**
+     * Subtracts two arrays element by element
+     * @param a first numbers
+     * @param b numbers to subtract
+     * @param result the array to write the differences to; may be a or b
+     * @throws IllegalArgumentException if any array is null or the lengths differ
+     */
+    public void subtract(int[] a, int[] b, int[] result) {
+        KERNEL.subtract(a, 0, b, 0, result, 0, checkLengths(a, b, result == null ? -1 : result.length));
+    }
+
+    /**
+     * Multiplies two arrays element by element
+     * @param a first numbers
+     * @param b second numbers
+     * @param result the array to write the products to; may be a or b
+     * @throws IllegalArgumentException if any array is null or the lengths differ
+     */
+    public void multiply(int[] a, int[] b, int[] result) {
+        KERNEL.multiply(a, 0, b, 0, result, 0, checkLengths(a, b, result == null ? -1 : result.length));
+    }
+
+    /**
+     * Divides two arrays element by element
+     * @param a dividends
+     * @param b divisors
+     * @param result the array to write the quotients to
+     * @throws IllegalArgumentException if any array is null or the lengths differ
+     * @throws ArithmeticException if any divisor is zero, in which case result is left untouched
+     */
+    public void divide(int[] a, int[] b, double[] result) {
+        int length = checkLengths(a, b, result == null ? -1 : result.length);
+        if (KERNEL.containsZero(b, 0, length)) {
+            throw new ArithmeticException("Cannot divide by zero");
+        }
+        KERNEL.divide(a, 0, b, 0, result, 0, length);
+    }
+
+    /**
+     * Adds the remaining elements of two buffers element by element, advancing all three positions
+     * @param a first numbers
+     * @param b second numbers
+     * @param result the buffer to write the sums to
+     * @throws IllegalArgumentException if any buffer is null or the remaining counts differ
+     */
+    public void add(IntBuffer a, IntBuffer b, IntBuffer result) {
+        apply(a, b, result, KERNEL::add);
+    }
+
+    /**
+     * Subtracts the remaining elements of two buffers element by element, advancing all three positions
+     * @param a first numbers
+     * @param b numbers to subtract
+     * @param result the buffer to write the differences to
+     * @throws IllegalArgumentException if any buffer is null or the remaining counts differ
+     */
+    public void subtract(IntBuffer a, IntBuffer b, IntBuffer result) {
+        apply(a, b, result, KERNEL::subtract);
+    }
+
+    /**
+     * Multiplies the remaining elements of two buffers element by element, advancing all three positions
+     * @param a first numbers
+     * @param b second numbers
+     * @param result the buffer to write the products to
+     * @throws IllegalArgumentException if any buffer is null or the remaining counts differ
+     */
+    public void multiply(IntBuffer a, IntBuffer b, IntBuffer result) {
+        apply(a, b, result, KERNEL::multiply);
+    }
+
+    /**
+     * Divides the remaining elements of two buffers element by element, advancing all three positions
+     * @param a dividends
+     * @param b divisors
+     * @param result the buffer to write the quotients to
+     * @throws IllegalArgumentException if any buffer is null or the remaining counts differ
+     * @throws ArithmeticException if any divisor is zero, in which case no buffer is changed
+     */
+    public void divide(IntBuffer a, IntBuffer b, DoubleBuffer result) {
+        int length = checkLengths(a, b, result == null ? -1 : result.remaining());
+        if (a.hasArray() && b.hasArray() && result.hasArray()) {
+            if (KERNEL.containsZero(b.array(), b.arrayOffset() + b.position(), length)) {
+                throw new ArithmeticException("Cannot divide by zero");
+            }
+            KERNEL.divide(a.array(), a.arrayOffset() + a.position(), b.array(), b.arrayOffset() + b.position(),
+                    result.array(), result.arrayOffset() + result.position(), length);
+        } else {
+            int[] divisors = new int[Math.min(CHUNK, length)];
+            for (int done = 0; done < length; done += divisors.length) {
+                int n = Math.min(divisors.length, length - done);
+                b.get(b.position() + done, divisors, 0, n);
+                if (KERNEL.containsZero(divisors, 0, n)) {
+                    throw new ArithmeticException("Cannot divide by zero");
+                }
+            }
+            // Direct and read-only buffers are staged through arrays a chunk at a time
+            int[] dividends = new int[divisors.length];
+            double[] quotients = new double[divisors.length];
+            for (int done = 0; done < length; done += divisors.length) {
+                int n = Math.min(divisors.length, length - done);
+                a.get(a.position() + done, dividends, 0, n);
+                b.get(b.position() + done, divisors, 0, n);
+                KERNEL.divide(dividends, 0, divisors, 0, quotients, 0, n);
+                result.put(result.position() + done, quotients, 0, n);
+            }
+        }
+        a.position(a.position() + length);
+        b.position(b.position() + length);
+        result.position(result.position() + length);
+    }
+
+    /**
+     * Creates a divider for dividing many numbers by the same divisor
+     * @param b divisor
+     * @return a divider whose quotients match {@link #divide(int, int)}
+     * @throws ArithmeticException if b is zero
+     */
+    public Divider divider(int b) {
+        return new Divider(b);
+    }
+
     /**
      * Checks if a number is even
      * @param number the number to check
@@ -75,4 +225,86 @@ public class Calculator {
 
         return number;
     }
+
+    /**
+     * Checks which numbers of an array are even, without branching on them
+     * @param numbers the numbers to check
+     * @return a bitset whose bit i is set exactly when {@code isEven(numbers[i])}
+     * @throws IllegalArgumentException if numbers is null
+     */
+    public ParityBitSet isEven(int[] numbers) {
+        if (numbers == null) {
+            throw new IllegalArgumentException("Arrays cannot be null");
+        }
+        long[] words = new long[(numbers.length + 63) >>> 6];
+        KERNEL.evenBits(numbers, words);
+        return new ParityBitSet(words, numbers.length);
+    }
+
+    /**
+     * Returns the absolute values of an array, without branching on them
+     * @param numbers the numbers
+     * @param result the array to write the absolute values to; may be numbers
+     * @throws IllegalArgumentException if either array is null or the lengths differ
+     */
+    public void absolute(int[] numbers, int[] result) {
+        if (numbers == null || result == null) {
+            throw new IllegalArgumentException("Arrays cannot be null");
+        }
+        if (numbers.length != result.length) {
+            throw new IllegalArgumentException("Arrays must have the same length");
+        }
+        KERNEL.absolute(numbers, 0, result, 0, numbers.length);
+    }
+
+    private static void apply(IntBuffer a, IntBuffer b, IntBuffer result, BinaryKernel kernel) {
+        int length = checkLengths(a, b, result == null ? -1 : result.remaining());
+        if (a.hasArray() && b.hasArray() && result.hasArray()) {
+            kernel.apply(a.array(), a.arrayOffset() + a.position(), b.array(), b.arrayOffset() + b.position(),
+                    result.array(), result.arrayOffset() + result.position(), length);
+        } else {
+            // Direct and read-only buffers are staged through arrays a chunk at a time
+            int chunk = Math.min(CHUNK, length);
+            int[] left = new int[chunk];
+            int[] right = new int[chunk];
+            int[] out = new int[chunk];
+            for (int done = 0; done < length; done += chunk) {
+                int n = Math.min(chunk, length - done);
+                a.get(a.position() + done, left, 0, n);
+                b.get(b.position() + done, right, 0, n);
+                kernel.apply(left, 0, right, 0, out, 0, n);
+                result.put(result.position() + done, out, 0, n);
+            }
+        }
+        a.position(a.position() + length);
+        b.position(b.position() + length);
+        result.position(result.position() + length);
+    }
+
+    private static int checkLengths(int[] a, int[] b, int resultLength) {
+        if (a == null || b == null || resultLength < 0) {
+            throw new IllegalArgumentException("Arrays cannot be null");
+        }
+        if (a.length != b.length || a.length != resultLength) {
+            throw new IllegalArgumentException("Arrays must have the same length");
+        }
+        return a.length;
+    }
+
+    private static int checkLengths(IntBuffer a, IntBuffer b, int resultRemaining) {
+        if (a == null || b == null || resultRemaining < 0) {
+            throw new IllegalArgumentException("Buffers cannot be null");
+        }
+        if (a.remaining() != b.remaining() || a.remaining() != resultRemaining) {
+            throw new IllegalArgumentException("Buffers must have the same number of remaining elements");
+        }
+        return a.remaining();
+    }
+
+    /**
+     * One of the element-wise int operations of {@link IntArrayKernel}
+     */
+    private interface BinaryKernel {
+        void apply(int[] a, int aOffset, int[] b, int bOffset, int[] result, int resultOffset, int length);
+    }
 }
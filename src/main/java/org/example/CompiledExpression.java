@@ -0,0 +1,414 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A formula over int variables, parsed once into a tree of closures that apply {@link Calculator} semantics.
+ * Supports {@code + - * /}, unary minus, parentheses, {@code abs(...)}, integer literals and variable names.
+ * <p>
+ * As in {@link Calculator}, addition, subtraction and multiplication of ints wrap around, and division
+ * yields a double and throws on a zero divisor. Once a division has produced a double, the operations
+ * above it are carried out in double arithmetic. A zero divisor is reported when the division is evaluated,
+ * even when it is a constant. Subtrees without variables are folded at compile time,
+ * and operations on variables and literals are fused into a single closure, so evaluating
+ * {@code (a + b) * c / d} takes three closure calls instead of a walk over seven nodes.
+ * <p>
+ * {@link #compile(String)} caches compiled expressions by source text. Compiled expressions are immutable
+ * and may be evaluated from any number of threads.
+ */
+public final class CompiledExpression {
+    private static final Calculator CALCULATOR = new Calculator();
+    private static final int CACHE_LIMIT = 1024;
+    private static final ConcurrentHashMap<String, CompiledExpression> CACHE = new ConcurrentHashMap<>();
+
+    private final String source;
+    private final List<String> variables;
+    private final IntTerm intTerm;
+    private final DoubleTerm doubleTerm;
+
+    private CompiledExpression(String source, List<String> variables, Term term) {
+        this.source = source;
+        this.variables = Collections.unmodifiableList(variables);
+        this.intTerm = term.intTerm;
+        this.doubleTerm = term.doubleTerm();
+    }
+
+    /**
+     * Compiles a formula, or returns the cached result of compiling the same text before
+     * @param source the formula
+     * @return the compiled expression
+     * @throws IllegalArgumentException if source is null or not a valid formula
+     */
+    public static CompiledExpression compile(String source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Expression cannot be null");
+        }
+        CompiledExpression cached = CACHE.get(source);
+        if (cached != null) {
+            return cached;
+        }
+        CompiledExpression compiled = new Parser(source).parse();
+        if (CACHE.size() >= CACHE_LIMIT) {
+            // Formulas are few in practice; a flood of distinct ones just restarts the cache
+            CACHE.clear();
+        }
+        CompiledExpression raced = CACHE.putIfAbsent(source, compiled);
+        return raced == null ? compiled : raced;
+    }
+
+    /**
+     * Gets the source text of the formula
+     * @return the source text
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the variable names in order of first appearance, which is the order evaluate takes their values in
+     * @return the variable names
+     */
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * Checks whether the formula yields an int, i.e. contains no division
+     * @return true if {@link #evaluateInt(int...)} may be used
+     */
+    public boolean isIntegral() {
+        return intTerm != null;
+    }
+
+    /**
+     * Evaluates the formula
+     * @param values the variable values, in the order of {@link #getVariables()}
+     * @return the result
+     * @throws IllegalArgumentException if the number of values does not match the variables
+     * @throws ArithmeticException if a divisor is zero
+     */
+    public double evaluate(int... values) {
+        checkValues(values);
+        return doubleTerm.evaluate(values);
+    }
+
+    /**
+     * Evaluates a formula without division
+     * @param values the variable values, in the order of {@link #getVariables()}
+     * @return the result
+     * @throws IllegalArgumentException if the number of values does not match the variables
+     * @throws IllegalStateException if the formula contains a division
+     */
+    public int evaluateInt(int... values) {
+        if (intTerm == null) {
+            throw new IllegalStateException("Expression does not yield an int: " + source);
+        }
+        checkValues(values);
+        return intTerm.evaluate(values);
+    }
+
+    private void checkValues(int[] values) {
+        if (values == null || values.length != variables.size()) {
+            throw new IllegalArgumentException("Expected " + variables.size() + " values for " + variables);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    private interface IntTerm {
+        int evaluate(int[] values);
+    }
+
+    private interface DoubleTerm {
+        double evaluate(int[] values);
+    }
+
+    /**
+     * A compiled subtree. It is int-valued when intTerm is set and double-valued otherwise.
+     * A variable or literal also records its slot or value so the parent can fuse it into its own closure.
+     */
+    private static final class Term {
+        private static final int NONE = -1;
+
+        private final IntTerm intTerm;
+        private final DoubleTerm doubleTerm;
+        private final int slot;
+        private final Integer literal;
+
+        private Term(IntTerm intTerm, DoubleTerm doubleTerm, int slot, Integer literal) {
+            this.intTerm = intTerm;
+            this.doubleTerm = doubleTerm;
+            this.slot = slot;
+            this.literal = literal;
+        }
+
+        static Term ofInt(IntTerm term) {
+            return new Term(term, null, NONE, null);
+        }
+
+        static Term ofDouble(DoubleTerm term) {
+            return new Term(null, term, NONE, null);
+        }
+
+        static Term variable(int slot) {
+            return new Term(values -> values[slot], null, slot, null);
+        }
+
+        static Term literal(int value) {
+            return new Term(values -> value, null, NONE, value);
+        }
+
+        boolean isInt() {
+            return intTerm != null;
+        }
+
+        DoubleTerm doubleTerm() {
+            if (doubleTerm != null) {
+                return doubleTerm;
+            }
+            IntTerm term = intTerm;
+            return values -> term.evaluate(values);
+        }
+    }
+
+    /**
+     * Recursive-descent parser that builds the closure tree as it goes
+     */
+    private static final class Parser {
+        private final String source;
+        private final List<String> variables = new ArrayList<>();
+        private int position;
+
+        Parser(String source) {
+            this.source = source;
+        }
+
+        CompiledExpression parse() {
+            Term term = expression();
+            skipSpaces();
+            if (position < source.length()) {
+                throw unexpected();
+            }
+            return new CompiledExpression(source, variables, term);
+        }
+
+        private Term expression() {
+            Term left = product();
+            while (true) {
+                if (accept('+')) {
+                    left = binary('+', left, product());
+                } else if (accept('-')) {
+                    left = binary('-', left, product());
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        private Term product() {
+            Term left = unary();
+            while (true) {
+                if (accept('*')) {
+                    left = binary('*', left, unary());
+                } else if (accept('/')) {
+                    left = binary('/', left, unary());
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        private Term unary() {
+            if (accept('-')) {
+                skipSpaces();
+                // A negated literal is read as one number so the smallest int can be written
+                if (position < source.length() && Character.isDigit(source.charAt(position))) {
+                    return number(true);
+                }
+                return binary('-', Term.literal(0), unary());
+            }
+            skipSpaces();
+            if (position == source.length()) {
+                throw new IllegalArgumentException("Unexpected end of expression: " + source);
+            }
+            char c = source.charAt(position);
+            if (accept('(')) {
+                Term inner = expression();
+                expect(')');
+                return inner;
+            }
+            if (Character.isDigit(c)) {
+                return number(false);
+            }
+            if (Character.isJavaIdentifierStart(c)) {
+                String name = identifier();
+                if (name.equals("abs") && accept('(')) {
+                    Term inner = expression();
+                    expect(')');
+                    return absolute(inner);
+                }
+                int slot = variables.indexOf(name);
+                if (slot < 0) {
+                    slot = variables.size();
+                    variables.add(name);
+                }
+                return Term.variable(slot);
+            }
+            throw unexpected();
+        }
+
+        private Term number(boolean negative) {
+            int start = position;
+            while (position < source.length() && Character.isDigit(source.charAt(position))) {
+                position++;
+            }
+            String digits = source.substring(start, position);
+            long value = digits.length() > 10 ? Long.MAX_VALUE : Long.parseLong(digits);
+            if (negative) {
+                value = -value;
+            }
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Number out of range at position " + start + ": " + source);
+            }
+            return Term.literal((int) value);
+        }
+
+        private String identifier() {
+            int start = position;
+            while (position < source.length() && Character.isJavaIdentifierPart(source.charAt(position))) {
+                position++;
+            }
+            return source.substring(start, position);
+        }
+
+        private boolean accept(char c) {
+            skipSpaces();
+            if (position < source.length() && source.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!accept(c)) {
+                throw unexpected();
+            }
+        }
+
+        private void skipSpaces() {
+            while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException unexpected() {
+            if (position >= source.length()) {
+                return new IllegalArgumentException("Unexpected end of expression: " + source);
+            }
+            return new IllegalArgumentException(
+                    "Unexpected '" + source.charAt(position) + "' at position " + position + ": " + source);
+        }
+    }
+
+    private static Term absolute(Term inner) {
+        if (inner.literal != null) {
+            return Term.literal(CALCULATOR.absolute(inner.literal));
+        }
+        if (inner.isInt()) {
+            IntTerm term = inner.intTerm;
+            return Term.ofInt(values -> CALCULATOR.absolute(term.evaluate(values)));
+        }
+        DoubleTerm term = inner.doubleTerm;
+        return Term.ofDouble(values -> Math.abs(term.evaluate(values)));
+    }
+
+    private static Term binary(char operator, Term left, Term right) {
+        if (operator == '/') {
+            return divide(left, right);
+        }
+        if (!left.isInt() || !right.isInt()) {
+            return doubleBinary(operator, left.doubleTerm(), right.doubleTerm());
+        }
+        if (left.literal != null && right.literal != null) {
+            return Term.literal(apply(operator, left.literal, right.literal));
+        }
+        // Fuse variable and literal operands so the common leaf cases cost one closure call
+        int leftSlot = left.slot;
+        int rightSlot = right.slot;
+        if (leftSlot != Term.NONE && rightSlot != Term.NONE) {
+            return Term.ofInt(switch (operator) {
+                case '+' -> values -> CALCULATOR.add(values[leftSlot], values[rightSlot]);
+                case '-' -> values -> CALCULATOR.subtract(values[leftSlot], values[rightSlot]);
+                default -> values -> CALCULATOR.multiply(values[leftSlot], values[rightSlot]);
+            });
+        }
+        if (leftSlot != Term.NONE && right.literal != null) {
+            int constant = right.literal;
+            return Term.ofInt(switch (operator) {
+                case '+' -> values -> CALCULATOR.add(values[leftSlot], constant);
+                case '-' -> values -> CALCULATOR.subtract(values[leftSlot], constant);
+                default -> values -> CALCULATOR.multiply(values[leftSlot], constant);
+            });
+        }
+        if (left.literal != null && rightSlot != Term.NONE) {
+            int constant = left.literal;
+            return Term.ofInt(switch (operator) {
+                case '+' -> values -> CALCULATOR.add(constant, values[rightSlot]);
+                case '-' -> values -> CALCULATOR.subtract(constant, values[rightSlot]);
+                default -> values -> CALCULATOR.multiply(constant, values[rightSlot]);
+            });
+        }
+        IntTerm l = left.intTerm;
+        IntTerm r = right.intTerm;
+        return Term.ofInt(switch (operator) {
+            case '+' -> values -> CALCULATOR.add(l.evaluate(values), r.evaluate(values));
+            case '-' -> values -> CALCULATOR.subtract(l.evaluate(values), r.evaluate(values));
+            default -> values -> CALCULATOR.multiply(l.evaluate(values), r.evaluate(values));
+        });
+    }
+
+    private static Term divide(Term left, Term right) {
+        if (left.isInt() && right.isInt()) {
+            // A constant zero divisor is left unfolded so it throws when evaluated, like any other zero divisor
+            if (left.literal != null && right.literal != null && right.literal != 0) {
+                double quotient = CALCULATOR.divide(left.literal, right.literal);
+                return Term.ofDouble(values -> quotient);
+            }
+            IntTerm l = left.intTerm;
+            IntTerm r = right.intTerm;
+            return Term.ofDouble(values -> CALCULATOR.divide(l.evaluate(values), r.evaluate(values)));
+        }
+        return doubleBinary('/', left.doubleTerm(), right.doubleTerm());
+    }
+
+    private static Term doubleBinary(char operator, DoubleTerm l, DoubleTerm r) {
+        return Term.ofDouble(switch (operator) {
+            case '+' -> values -> l.evaluate(values) + r.evaluate(values);
+            case '-' -> values -> l.evaluate(values) - r.evaluate(values);
+            case '*' -> values -> l.evaluate(values) * r.evaluate(values);
+            default -> values -> {
+                double dividend = l.evaluate(values);
+                double divisor = r.evaluate(values);
+                if (divisor == 0) {
+                    throw new ArithmeticException("Cannot divide by zero");
+                }
+                return dividend / divisor;
+            };
+        });
+    }
+
+    private static int apply(char operator, int a, int b) {
+        return switch (operator) {
+            case '+' -> CALCULATOR.add(a, b);
+            case '-' -> CALCULATOR.subtract(a, b);
+            default -> CALCULATOR.multiply(a, b);
+        };
+    }
+}
@@ -0,0 +1,145 @@
+package org.example;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe variant of {@link BankAccount} that can be shared across threads without external locking.
+ * Deposits go to a striped adder so concurrent deposits do not contend with each other,
+ * and withdrawals are applied with a compare-and-set loop so they can never overdraw the account.
+ * Both totals are kept in cents, like {@link BankAccount}, so they add up exactly.
+ */
+public class ConcurrentBankAccount {
+    private final String accountNumber;
+    private final LongAdder creditCents = new LongAdder();
+    private final AtomicLong debitCents = new AtomicLong();
+    private volatile boolean isActive;
+
+    /**
+     * Creates a new concurrent bank account with zero balance
+     * @param accountNumber the account number
+     */
+    public ConcurrentBankAccount(String accountNumber) {
+        if (accountNumber == null || accountNumber.trim().isEmpty()) {
+            throw new IllegalArgumentException("Account number cannot be null or empty");
+        }
+        this.accountNumber = accountNumber;
+        this.isActive = true;
+    }
+
+    /**
+     * Creates a new concurrent bank account with an initial balance
+     * @param accountNumber the account number
+     * @param initialBalance the initial balance
+     */
+    public ConcurrentBankAccount(String accountNumber, double initialBalance) {
+        this(accountNumber);
+        if (initialBalance < 0) {
+            throw new IllegalArgumentException("Initial balance cannot be negative");
+        }
+        creditCents.add(Money.toCents(initialBalance));
+    }
+
+    /**
+     * Deposits money into the account
+     * @param amount the amount to deposit
+     * @throws IllegalArgumentException if amount is negative or zero
+     * @throws IllegalStateException if account is not active
+     */
+    public void deposit(double amount) {
+        if (!isActive) {
+            throw new IllegalStateException("Cannot deposit to inactive account");
+        }
+        long amountCents = amount <= 0 ? 0L : Money.toCents(amount);
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Deposit amount must be positive");
+        }
+        creditCents.add(amountCents);
+    }
+
+    /**
+     * Withdraws money from the account.
+     * Credits only ever grow, so a stale read of them can only under-estimate the available funds;
+     * the compare-and-set on the debit total is what rules out overdrafts.
+     * @param amount the amount to withdraw
+     * @throws IllegalArgumentException if amount is negative or zero
+     * @throws IllegalStateException if insufficient funds or account is not active
+     */
+    public void withdraw(double amount) {
+        if (!isActive) {
+            throw new IllegalStateException("Cannot withdraw from inactive account");
+        }
+        long amountCents = amount <= 0 ? 0L : Money.toCents(amount);
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Withdrawal amount must be positive");
+        }
+        while (true) {
+            long debits = debitCents.get();
+            if (amountCents > creditCents.sum() - debits) {
+                throw new IllegalStateException("Insufficient funds");
+            }
+            if (debitCents.compareAndSet(debits, debits + amountCents)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the current balance
+     * @return the current balance
+     */
+    public double getBalance() {
+        return Money.toAmount(creditCents.sum() - debitCents.get());
+    }
+
+    /**
+     * Gets the account number
+     * @return the account number
+     */
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    /**
+     * Checks if the account is active
+     * @return true if active, false otherwise
+     */
+    public boolean isActive() {
+        return isActive;
+    }
+
+    /**
+     * Closes the account
+     */
+    public void closeAccount() {
+        isActive = false;
+    }
+
+    /**
+     * Transfers money to another account.
+     * If the target is closed after the funds have been withdrawn, the funds are credited back.
+     * @param targetAccount the account to transfer to
+     * @param amount the amount to transfer
+     * @throws IllegalArgumentException if target account is null or amount is invalid
+     * @throws IllegalStateException if insufficient funds or either account is inactive
+     */
+    public void transfer(ConcurrentBankAccount targetAccount, double amount) {
+        if (targetAccount == null) {
+            throw new IllegalArgumentException("Target account cannot be null");
+        }
+        if (!this.isActive) {
+            throw new IllegalStateException("Cannot transfer from inactive account");
+        }
+        if (!targetAccount.isActive()) {
+            throw new IllegalStateException("Cannot transfer to inactive account");
+        }
+
+        this.withdraw(amount);
+        try {
+            targetAccount.deposit(amount);
+        } catch (IllegalStateException e) {
+            creditCents.add(Money.toCents(amount));
+            throw new IllegalStateException("Cannot transfer to inactive account", e);
+        }
+    }
+}
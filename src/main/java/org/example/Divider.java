@@ -0,0 +1,78 @@
+package org.example;
+
+/**
+ * Divides many ints by one fixed divisor without a divide instruction per element.
+ * The reciprocal of the divisor is computed once; each quotient is then a multiplication followed by one
+ * fused multiply-add correction step, which makes it the correctly rounded quotient, so results are
+ * bit-for-bit those of {@link Calculator#divide(int, int)}. Powers of two need no correction at all.
+ * Create one with {@link Calculator#divider(int)}; a divider is immutable and may be shared between threads.
+ */
+public final class Divider {
+    private final int divisor;
+    private final double reciprocal;
+    private final boolean exact;
+
+    /**
+     * Creates a divider
+     * @param divisor the divisor
+     * @throws ArithmeticException if divisor is zero
+     */
+    public Divider(int divisor) {
+        if (divisor == 0) {
+            throw new ArithmeticException("Cannot divide by zero");
+        }
+        this.divisor = divisor;
+        this.reciprocal = 1.0 / divisor;
+        this.exact = Long.bitCount(Math.abs((long) divisor)) == 1;
+    }
+
+    /**
+     * Gets the divisor
+     * @return the divisor
+     */
+    public int getDivisor() {
+        return divisor;
+    }
+
+    /**
+     * Divides a number by the divisor
+     * @param dividend the dividend
+     * @return the same quotient as {@code divide(dividend, divisor)}
+     */
+    public double divide(int dividend) {
+        double quotient = dividend * reciprocal;
+        if (exact) {
+            return quotient;
+        }
+        return Math.fma(Math.fma(-quotient, divisor, dividend), reciprocal, quotient);
+    }
+
+    /**
+     * Divides an array by the divisor element by element
+     * @param dividends the dividends
+     * @param result the array to write the quotients to
+     * @throws IllegalArgumentException if either array is null or the lengths differ
+     */
+    public void divide(int[] dividends, double[] result) {
+        if (dividends == null || result == null) {
+            throw new IllegalArgumentException("Arrays cannot be null");
+        }
+        if (dividends.length != result.length) {
+            throw new IllegalArgumentException("Arrays must have the same length");
+        }
+        double r = reciprocal;
+        if (exact) {
+            for (int i = 0; i < dividends.length; i++) {
+                result[i] = dividends[i] * r;
+            }
+            return;
+        }
+        double d = divisor;
+        for (int i = 0; i < dividends.length; i++) {
+            double a = dividends[i];
+            double quotient = a * r;
+            // The remainder a - quotient * d is exact under fma, and one step with it rounds the quotient correctly
+            result[i] = Math.fma(Math.fma(-quotient, d, a), r, quotient);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An account ledger whose source of truth is an append-only list of events.
+ * Every open, deposit, withdrawal, transfer leg and closure is appended as a compact event in
+ * primitive columns. Current balances and status are projections updated as each event is appended,
+ * so reads are O(1). Every few events per account the projection is checkpointed, and a point-in-time
+ * query replays only the events between the nearest checkpoint and the requested sequence number.
+ * Accounts are addressed by the int handle returned from {@link #open(String, long)}.
+ * The ledger is not thread-safe.
+ */
+public class EventSourcedLedger {
+    private static final byte OPEN = 0;
+    private static final byte DEPOSIT = 1;
+    private static final byte WITHDRAWAL = 2;
+    private static final byte TRANSFER_OUT = 3;
+    private static final byte TRANSFER_IN = 4;
+    private static final byte CLOSE = 5;
+    private static final int DEFAULT_CHECKPOINT_INTERVAL = 64;
+
+    private final int checkpointInterval;
+
+    // Event log, one entry per event
+    private byte[] eventOperations = new byte[64];
+    private int[] eventAccounts = new int[64];
+    private long[] eventAmounts = new long[64];
+    private int[] eventPrevious = new int[64];
+    private int eventCount;
+
+    // Projections and checkpoints, one entry per account
+    private String[] numbers = new String[16];
+    private long[] balances = new long[16];
+    private boolean[] active = new boolean[16];
+    private int[] lastEvent = new int[16];
+    private int[] eventsSinceCheckpoint = new int[16];
+    private int[][] checkpointEvents = new int[16][];
+    private long[][] checkpointBalances = new long[16][];
+    private int[] checkpointCount = new int[16];
+    private int accountCount;
+
+    /**
+     * Creates an empty ledger
+     */
+    public EventSourcedLedger() {
+        this(DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Creates an empty ledger
+     * @param checkpointInterval how many events of one account may pass between two of its checkpoints
+     */
+    public EventSourcedLedger(int checkpointInterval) {
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive");
+        }
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Opens a new active account
+     * @param accountNumber the account number
+     * @param initialBalanceCents the initial balance in cents
+     * @return the handle of the new account
+     * @throws IllegalArgumentException if account number is null or empty, or balance is negative
+     */
+    public int open(String accountNumber, long initialBalanceCents) {
+        if (accountNumber == null || accountNumber.trim().isEmpty()) {
+            throw new IllegalArgumentException("Account number cannot be null or empty");
+        }
+        if (initialBalanceCents < 0) {
+            throw new IllegalArgumentException("Initial balance cannot be negative");
+        }
+        if (accountCount == balances.length) {
+            int capacity = accountCount * 2;
+            numbers = Arrays.copyOf(numbers, capacity);
+            balances = Arrays.copyOf(balances, capacity);
+            active = Arrays.copyOf(active, capacity);
+            lastEvent = Arrays.copyOf(lastEvent, capacity);
+            eventsSinceCheckpoint = Arrays.copyOf(eventsSinceCheckpoint, capacity);
+            checkpointEvents = Arrays.copyOf(checkpointEvents, capacity);
+            checkpointBalances = Arrays.copyOf(checkpointBalances, capacity);
+            checkpointCount = Arrays.copyOf(checkpointCount, capacity);
+        }
+        int account = accountCount++;
+        numbers[account] = accountNumber;
+        active[account] = true;
+        lastEvent[account] = -1;
+        checkpointEvents[account] = new int[4];
+        checkpointBalances[account] = new long[4];
+        append(OPEN, account, initialBalanceCents);
+        return account;
+    }
+
+    /**
+     * Deposits money into an account
+     * @param account the account handle
+     * @param amountCents the amount to deposit in cents
+     * @return the outcome of the deposit
+     */
+    public TransactionStatus tryDeposit(int account, long amountCents) {
+        Objects.checkIndex(account, accountCount);
+        if (!active[account]) {
+            return TransactionStatus.INACTIVE_ACCOUNT;
+        }
+        if (amountCents <= 0) {
+            return TransactionStatus.INVALID_AMOUNT;
+        }
+        if (balances[account] > Long.MAX_VALUE - amountCents) {
+            return TransactionStatus.OVERFLOW;
+        }
+        append(DEPOSIT, account, amountCents);
+        return TransactionStatus.SUCCESS;
+    }
+
+    /**
+     * Withdraws money from an account
+     * @param account the account handle
+     * @param amountCents the amount to withdraw in cents
+     * @return the outcome of the withdrawal
+     */
+    public TransactionStatus tryWithdraw(int account, long amountCents) {
+        Objects.checkIndex(account, accountCount);
+        if (!active[account]) {
+            return TransactionStatus.INACTIVE_ACCOUNT;
+        }
+        if (amountCents <= 0) {
+            return TransactionStatus.INVALID_AMOUNT;
+        }
+        if (amountCents > balances[account]) {
+            return TransactionStatus.INSUFFICIENT_FUNDS;
+        }
+        append(WITHDRAWAL, account, amountCents);
+        return TransactionStatus.SUCCESS;
+    }
+
+    /**
+     * Transfers money between two accounts
+     * @param source the account to transfer from
+     * @param target the account to transfer to
+     * @param amountCents the amount to transfer in cents
+     * @return the outcome of the transfer
+     */
+    public TransactionStatus tryTransfer(int source, int target, long amountCents) {
+        Objects.checkIndex(source, accountCount);
+        Objects.checkIndex(target, accountCount);
+        if (!active[source]) {
+            return TransactionStatus.INACTIVE_ACCOUNT;
+        }
+        if (!active[target]) {
+            return TransactionStatus.INACTIVE_TARGET;
+        }
+        if (amountCents <= 0) {
+            return TransactionStatus.INVALID_AMOUNT;
+        }
+        if (amountCents > balances[source]) {
+            return TransactionStatus.INSUFFICIENT_FUNDS;
+        }
+        if (source != target && balances[target] > Long.MAX_VALUE - amountCents) {
+            return TransactionStatus.OVERFLOW;
+        }
+        append(TRANSFER_OUT, source, amountCents);
+        append(TRANSFER_IN, target, amountCents);
+        return TransactionStatus.SUCCESS;
+    }
+
+    /**
+     * Closes an account
+     * @param account the account handle
+     */
+    public void close(int account) {
+        Objects.checkIndex(account, accountCount);
+        if (active[account]) {
+            append(CLOSE, account, 0L);
+        }
+    }
+
+    /**
+     * Gets the current balance of an account
+     * @param account the account handle
+     * @return the balance in cents
+     */
+    public long getBalanceCents(int account) {
+        Objects.checkIndex(account, accountCount);
+        return balances[account];
+    }
+
+    /**
+     * Checks if an account is currently active
+     * @param account the account handle
+     * @return true if active, false otherwise
+     */
+    public boolean isActive(int account) {
+        Objects.checkIndex(account, accountCount);
+        return active[account];
+    }
+
+    /**
+     * Gets the account number of an account
+     * @param account the account handle
+     * @return the account number
+     */
+    public String getAccountNumber(int account) {
+        Objects.checkIndex(account, accountCount);
+        return numbers[account];
+    }
+
+    /**
+     * Gets the number of events appended so far, which is the sequence number of the current state
+     * @return the number of events
+     */
+    public int getSequence() {
+        return eventCount;
+    }
+
+    /**
+     * Gets the balance an account had after the first {@code sequence} events
+     * @param account the account handle
+     * @param sequence a sequence number previously returned by {@link #getSequence()}
+     * @return the balance in cents at that point
+     * @throws IllegalArgumentException if the account was not open yet at that point
+     */
+    public long getBalanceCentsAt(int account, int sequence) {
+        Objects.checkIndex(account, accountCount);
+        if (sequence < 0 || sequence > eventCount) {
+            throw new IllegalArgumentException("Sequence out of range: " + sequence);
+        }
+        int[] events = checkpointEvents[account];
+        int checkpoint = lastCheckpointBefore(events, checkpointCount[account], sequence);
+        if (checkpoint < 0) {
+            throw new IllegalArgumentException("Account was not open at sequence " + sequence);
+        }
+
+        // Walk back from the next checkpoint (or the latest event) to this one, adding what came before sequence
+        int from = checkpointEvents[account][checkpoint];
+        int event = checkpoint + 1 < checkpointCount[account] ? events[checkpoint + 1] : lastEvent[account];
+        long balance = checkpointBalances[account][checkpoint];
+        while (event > from) {
+            if (event < sequence) {
+                balance += delta(event);
+            }
+            event = eventPrevious[event];
+        }
+        return balance;
+    }
+
+    private void append(byte operation, int account, long amountCents) {
+        if (eventCount == eventOperations.length) {
+            int capacity = eventCount * 2;
+            eventOperations = Arrays.copyOf(eventOperations, capacity);
+            eventAccounts = Arrays.copyOf(eventAccounts, capacity);
+            eventAmounts = Arrays.copyOf(eventAmounts, capacity);
+            eventPrevious = Arrays.copyOf(eventPrevious, capacity);
+        }
+        int event = eventCount++;
+        eventOperations[event] = operation;
+        eventAccounts[event] = account;
+        eventAmounts[event] = amountCents;
+        eventPrevious[event] = lastEvent[account];
+        lastEvent[account] = event;
+
+        if (operation == OPEN) {
+            balances[account] = amountCents;
+        } else if (operation == CLOSE) {
+            active[account] = false;
+        } else {
+            balances[account] += delta(event);
+        }
+
+        if (operation == OPEN || ++eventsSinceCheckpoint[account] >= checkpointInterval) {
+            checkpoint(account, event);
+        }
+    }
+
+    private void checkpoint(int account, int event) {
+        int count = checkpointCount[account];
+        if (count == checkpointEvents[account].length) {
+            checkpointEvents[account] = Arrays.copyOf(checkpointEvents[account], count * 2);
+            checkpointBalances[account] = Arrays.copyOf(checkpointBalances[account], count * 2);
+        }
+        checkpointEvents[account][count] = event;
+        checkpointBalances[account][count] = balances[account];
+        checkpointCount[account] = count + 1;
+        eventsSinceCheckpoint[account] = 0;
+    }
+
+    private long delta(int event) {
+        return switch (eventOperations[event]) {
+            case DEPOSIT, TRANSFER_IN -> eventAmounts[event];
+            case WITHDRAWAL, TRANSFER_OUT -> -eventAmounts[event];
+            default -> 0L;
+        };
+    }
+
+    /**
+     * Finds the last checkpoint taken at an event before the given sequence number
+     * @return the checkpoint index, or -1 if there is none
+     */
+    private static int lastCheckpointBefore(int[] events, int count, int sequence) {
+        int low = 0;
+        int high = count - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (events[mid] < sequence) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+}
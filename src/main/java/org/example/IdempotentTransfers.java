@@ -0,0 +1,187 @@
+package org.example;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs transfers through a {@link TransferEngine} at most once per idempotency key.
+ * A call with a key that has been seen before returns the first call's outcome without transferring again;
+ * a call that arrives while the first is still running waits for it. Declined outcomes are remembered too.
+ * A key is bound to the source, target and amount of its first call, and reusing it for a different transfer
+ * is rejected. Transfers run through {@link TransferEngine#tryTransferCents}, so velocity limits, listeners and
+ * metrics of the accounts apply.
+ * <p>
+ * Keys are kept in two generations of concurrent maps. New keys go into the current generation, and lookups
+ * also check the previous one. Once the current generation holds half the key limit or is half the retention
+ * time old, it becomes the previous one and the old previous generation is dropped whole. Memory therefore
+ * stays under the key limit, and a key is remembered for between half and all of the retention time.
+ */
+public class IdempotentTransfers {
+    private final TransferEngine engine;
+    private final long generationKeys;
+    private final long generationNanos;
+    private final LongSupplier clock;
+    private volatile Generation current;
+
+    /**
+     * Creates a deduplicating front for an engine that reads time from {@link System#nanoTime()}
+     * @param engine the engine that performs the transfers
+     * @param maxKeys the most keys to remember at once
+     * @param retention how long a key is remembered at most
+     */
+    public IdempotentTransfers(TransferEngine engine, int maxKeys, Duration retention) {
+        this(engine, maxKeys, retention, System::nanoTime);
+    }
+
+    /**
+     * Creates a deduplicating front for an engine
+     * @param engine the engine that performs the transfers
+     * @param maxKeys the most keys to remember at once
+     * @param retention how long a key is remembered at most
+     * @param clock the source of monotonic time in nanoseconds
+     * @throws IllegalArgumentException if any argument is null or maxKeys is less than two
+     */
+    public IdempotentTransfers(TransferEngine engine, int maxKeys, Duration retention, LongSupplier clock) {
+        if (engine == null || retention == null || clock == null) {
+            throw new IllegalArgumentException("Engine, retention and clock cannot be null");
+        }
+        if (maxKeys < 2) {
+            throw new IllegalArgumentException("Key limit must be at least 2");
+        }
+        this.engine = engine;
+        this.generationKeys = maxKeys / 2;
+        this.generationNanos = Math.max(retention.toNanos() / 2, 1L);
+        this.clock = clock;
+        this.current = new Generation(new ConcurrentHashMap<>(), null, clock.getAsLong());
+    }
+
+    /**
+     * Transfers money unless a transfer with the same key has already run
+     * @param idempotencyKey the key identifying this transfer across retries
+     * @param source the account to transfer from
+     * @param target the account to transfer to
+     * @param amountCents the amount to transfer in cents
+     * @return the outcome of the transfer that ran for this key
+     * @throws IllegalArgumentException if the key or either account is null, or the key was used for a different transfer
+     */
+    public TransactionStatus transfer(String idempotencyKey, BankAccount source, BankAccount target, long amountCents) {
+        if (idempotencyKey == null) {
+            throw new IllegalArgumentException("Idempotency key cannot be null");
+        }
+        if (source == null || target == null) {
+            throw new IllegalArgumentException("Accounts cannot be null");
+        }
+        Claim claim = new Claim(source.getAccountNumber(), target.getAccountNumber(), amountCents, new CompletableFuture<>());
+        Claim earlier = claim(idempotencyKey, claim);
+        if (earlier != null) {
+            if (!earlier.matches(claim)) {
+                throw new IllegalArgumentException("Idempotency key already used for a different transfer: " + idempotencyKey);
+            }
+            try {
+                return earlier.outcome().join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            TransactionStatus status = engine.tryTransferCents(source, target, amountCents);
+            claim.outcome().complete(status);
+            return status;
+        } catch (RuntimeException e) {
+            // Forget the key so a retry runs again instead of replaying the failure
+            Generation generation = current;
+            generation.keys.remove(idempotencyKey, claim);
+            if (generation.previous != null) {
+                generation.previous.keys.remove(idempotencyKey, claim);
+            }
+            claim.outcome().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the number of keys currently remembered, across both generations
+     * @return the number of keys
+     */
+    public long size() {
+        Generation generation = current;
+        Generation previous = generation.previous;
+        return generation.keys.mappingCount() + (previous == null ? 0 : previous.keys.mappingCount());
+    }
+
+    /**
+     * Claims a key for the caller
+     * @return null if the caller now owns the key and must run the transfer, otherwise the earlier claim's outcome
+     */
+    private Claim claim(String key, Claim claim) {
+        Generation generation = rotateIfDue();
+        Generation previous = generation.previous;
+        Claim earlier = previous == null ? null : previous.keys.get(key);
+        if (earlier == null) {
+            earlier = generation.keys.putIfAbsent(key, claim);
+        }
+        // A rotation between the lookup and the insert could hide the claim from callers that see only the
+        // newer generations, so follow the rotation until the claim sits in the current generation
+        while (earlier == null && current != generation) {
+            generation = current;
+            earlier = generation.keys.putIfAbsent(key, claim);
+        }
+        if (earlier != null && earlier != claim) {
+            // Anyone who found this caller's claim in an older generation gets the earlier outcome too
+            earlier.outcome().whenComplete((status, failure) -> {
+                if (failure == null) {
+                    claim.outcome().complete(status);
+                } else {
+                    claim.outcome().completeExceptionally(failure);
+                }
+            });
+            return earlier;
+        }
+        return null;
+    }
+
+    private Generation rotateIfDue() {
+        Generation generation = current;
+        long now = clock.getAsLong();
+        if (generation.keys.mappingCount() < generationKeys && now - generation.startedNanos < generationNanos) {
+            return generation;
+        }
+        synchronized (this) {
+            generation = current;
+            if (generation.keys.mappingCount() >= generationKeys || now - generation.startedNanos >= generationNanos) {
+                // Keys older than two generations are dropped by not linking the previous generation any further
+                Generation retired = new Generation(generation.keys, null, generation.startedNanos);
+                generation = new Generation(new ConcurrentHashMap<>(), retired, now);
+                current = generation;
+            }
+            return generation;
+        }
+    }
+
+    /**
+     * The transfer a key was first used for, and its outcome
+     */
+    private record Claim(String source, String target, long amountCents, CompletableFuture<TransactionStatus> outcome) {
+        boolean matches(Claim other) {
+            return source.equals(other.source) && target.equals(other.target) && amountCents == other.amountCents;
+        }
+    }
+
+    /**
+     * One generation of remembered keys
+     */
+    private static final class Generation {
+        private final ConcurrentHashMap<String, Claim> keys;
+        private final Generation previous;
+        private final long startedNanos;
+
+        Generation(ConcurrentHashMap<String, Claim> keys, Generation previous, long startedNanos) {
+            this.keys = keys;
+            this.previous = previous;
+            this.startedNanos = startedNanos;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Count, sum, minimum, maximum, mean and number of even values of a set of ints, as judged by
+ * {@link Calculator#isEven(int)}. The sum is kept in a {@code long} and throws rather than wrap around.
+ * <p>
+ * The factory methods aggregate arrays, streams and binary files of ints in parallel on the common fork-join pool.
+ * Arrays and files are split by a custom {@link java.util.Spliterator} into ranges that are read as
+ * {@link IntBuffer} windows; files are memory-mapped a window at a time, so they may be far larger than the heap.
+ * Each worker folds whole windows into its own aggregation with the running values held in locals, and the
+ * partial results are merged with {@link #combine(IntAggregation)}, so nothing is boxed.
+ * <p>
+ * An aggregation is a mutable accumulator and is not thread-safe.
+ */
+public final class IntAggregation implements IntConsumer {
+    private static final Calculator CALCULATOR = new Calculator();
+
+    private long count;
+    private long sum;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+    private long evenCount;
+
+    /**
+     * Aggregates an array in parallel
+     * @param values the values
+     * @return the aggregation
+     * @throws IllegalArgumentException if values is null
+     */
+    public static IntAggregation of(int[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Values cannot be null");
+        }
+        IntWindowSpliterator ints = new IntWindowSpliterator(
+                (from, length) -> IntBuffer.wrap(values, (int) from, length).slice(), 0, values.length);
+        return ForkJoinPool.commonPool().invoke(new Task(ints));
+    }
+
+    /**
+     * Aggregates a stream, in parallel if the stream is parallel
+     * @param values the values
+     * @return the aggregation
+     * @throws IllegalArgumentException if values is null
+     * @throws ArithmeticException if the sum overflows a long
+     */
+    public static IntAggregation of(IntStream values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Values cannot be null");
+        }
+        return values.collect(IntAggregation::new, IntAggregation::accept, IntAggregation::combine);
+    }
+
+    /**
+     * Aggregates a binary file of 4-byte ints in parallel
+     * @param file the file
+     * @param order the byte order the ints were written in; {@link java.io.DataOutputStream} writes big-endian
+     * @return the aggregation
+     * @throws IllegalArgumentException if an argument is null or the file size is not a multiple of 4 bytes
+     * @throws IOException if the file cannot be read
+     * @throws ArithmeticException if the sum overflows a long
+     */
+    public static IntAggregation ofFile(Path file, ByteOrder order) throws IOException {
+        if (file == null || order == null) {
+            throw new IllegalArgumentException("File and byte order cannot be null");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % Integer.BYTES != 0) {
+                throw new IllegalArgumentException("File size is not a multiple of " + Integer.BYTES + " bytes: " + size);
+            }
+            IntWindowSpliterator ints = new IntWindowSpliterator((from, length) -> channel
+                    .map(FileChannel.MapMode.READ_ONLY, from * Integer.BYTES, (long) length * Integer.BYTES)
+                    .order(order)
+                    .asIntBuffer(), 0, size / Integer.BYTES);
+            return ForkJoinPool.commonPool().invoke(new Task(ints));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Adds a value
+     * @param value the value
+     * @throws ArithmeticException if the sum overflows a long
+     */
+    @Override
+    public void accept(int value) {
+        long total = sum + value;
+        // Adding an int can only overflow past the end its sign points to
+        if ((value < 0) != (total < sum)) {
+            throw new ArithmeticException("Sum overflow");
+        }
+        sum = total;
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        // Written as an addition rather than a branch: on random data the branch would mispredict half the time
+        evenCount += CALCULATOR.isEven(value) ? 1 : 0;
+    }
+
+    /**
+     * Adds every int of a window, from index zero to its limit, keeping the running values in locals
+     */
+    void acceptAll(IntBuffer ints) {
+        int length = ints.limit();
+        // A window holds far fewer than 2^32 ints, so its partial sum cannot overflow
+        long partialSum = 0;
+        int low = min;
+        int high = max;
+        long even = 0;
+        for (int i = 0; i < length; i++) {
+            int value = ints.get(i);
+            partialSum += value;
+            low = Math.min(low, value);
+            high = Math.max(high, value);
+            even += CALCULATOR.isEven(value) ? 1 : 0;
+        }
+        addToSum(partialSum);
+        count += length;
+        min = low;
+        max = high;
+        evenCount += even;
+    }
+
+    /**
+     * Merges another aggregation into this one
+     * @param other the aggregation to merge
+     * @throws ArithmeticException if the sum overflows a long
+     */
+    public void combine(IntAggregation other) {
+        addToSum(other.sum);
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        evenCount += other.evenCount;
+    }
+
+    /**
+     * Gets the number of values
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the sum of the values
+     * @return the sum, or 0 if there are none
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Gets the smallest value
+     * @return the minimum, or {@link Integer#MAX_VALUE} if there are no values
+     */
+    public int getMin() {
+        return min;
+    }
+
+    /**
+     * Gets the largest value
+     * @return the maximum, or {@link Integer#MIN_VALUE} if there are no values
+     */
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the arithmetic mean of the values
+     * @return the mean, or 0 if there are no values
+     */
+    public double getMean() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * Gets the number of even values
+     * @return the count of values for which {@link Calculator#isEven(int)} holds
+     */
+    public long getEvenCount() {
+        return evenCount;
+    }
+
+    private void addToSum(long value) {
+        long total = sum + value;
+        if (((sum ^ total) & (value ^ total)) < 0) {
+            throw new ArithmeticException("Sum overflow");
+        }
+        sum = total;
+    }
+
+    /**
+     * Aggregates one part of a range, forking off halves while the range still splits
+     */
+    private static final class Task extends RecursiveTask<IntAggregation> {
+        private final IntWindowSpliterator ints;
+
+        Task(IntWindowSpliterator ints) {
+            this.ints = ints;
+        }
+
+        @Override
+        protected IntAggregation compute() {
+            IntWindowSpliterator prefix = ints.trySplit();
+            if (prefix == null) {
+                IntAggregation aggregation = new IntAggregation();
+                ints.aggregateRemaining(aggregation);
+                return aggregation;
+            }
+            Task first = new Task(prefix);
+            first.fork();
+            IntAggregation rest = compute();
+            IntAggregation result = first.join();
+            result.combine(rest);
+            return result;
+        }
+    }
+}
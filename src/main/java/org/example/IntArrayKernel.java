@@ -0,0 +1,42 @@
+package org.example;
+
+/**
+ * Element-wise arithmetic over int arrays, used by the bulk operations of {@link Calculator}.
+ * Each method reads {@code length} elements of both inputs from their offsets and writes the results from the result offset.
+ */
+interface IntArrayKernel {
+
+    void add(int[] a, int aOffset, int[] b, int bOffset, int[] result, int resultOffset, int length);
+
+    void subtract(int[] a, int aOffset, int[] b, int bOffset, int[] result, int resultOffset, int length);
+
+    void multiply(int[] a, int aOffset, int[] b, int bOffset, int[] result, int resultOffset, int length);
+
+    void divide(int[] a, int aOffset, int[] b, int bOffset, double[] result, int resultOffset, int length);
+
+    boolean containsZero(int[] a, int offset, int length);
+
+    void absolute(int[] a, int aOffset, int[] result, int resultOffset, int length);
+
+    /**
+     * Sets bit {@code i % 64} of {@code words[i / 64]} exactly when {@code values[i]} is even, clearing all other bits
+     */
+    void evenBits(int[] values, long[] words);
+
+    /**
+     * Picks the Vector API kernel when the {@code jdk.incubator.vector} module has been added to the runtime,
+     * and the scalar kernel otherwise
+     * @return the fastest kernel available
+     */
+    static IntArrayKernel best() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                // Loaded reflectively so that nothing links against the incubator module when it is absent
+                return (IntArrayKernel) Class.forName("org.example.VectorIntArrayKernel").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return new ScalarIntArrayKernel();
+            }
+        }
+        return new ScalarIntArrayKernel();
+    }
+}
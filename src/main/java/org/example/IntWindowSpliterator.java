@@ -0,0 +1,105 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.IntBuffer;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Splits a range of ints, held in an array or a file, for parallel traversal. The ints are read through
+ * {@link IntBuffer} windows of at most {@value #WINDOW_INTS} ints that each part obtains for itself, so a file
+ * is mapped one window per worker at a time, and splitting only halves index bounds.
+ * I/O failures are rethrown as {@link UncheckedIOException}.
+ */
+final class IntWindowSpliterator implements Spliterator.OfInt {
+    private static final int WINDOW_INTS = 1 << 24;
+    private static final long MIN_SPLIT_INTS = 1L << 16;
+
+    private final Windows windows;
+    private final long end;
+    private long index;
+    private IntBuffer window;
+    private long windowStart;
+
+    IntWindowSpliterator(Windows windows, long start, long end) {
+        this.windows = windows;
+        this.index = start;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+        if (index >= end) {
+            return false;
+        }
+        if (window == null || index < windowStart || index >= windowStart + window.limit()) {
+            moveWindow();
+        }
+        action.accept(window.get((int) (index - windowStart)));
+        index++;
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+        while (index < end) {
+            moveWindow();
+            IntBuffer ints = window;
+            for (int i = 0; i < ints.limit(); i++) {
+                action.accept(ints.get(i));
+            }
+            index = windowStart + ints.limit();
+        }
+    }
+
+    /**
+     * Adds every remaining int to an aggregation, a whole window per call
+     */
+    void aggregateRemaining(IntAggregation aggregation) {
+        while (index < end) {
+            moveWindow();
+            aggregation.acceptAll(window);
+            index = windowStart + window.limit();
+        }
+    }
+
+    @Override
+    public IntWindowSpliterator trySplit() {
+        long remaining = end - index;
+        if (remaining < MIN_SPLIT_INTS * 2) {
+            return null;
+        }
+        long middle = index + remaining / 2;
+        IntWindowSpliterator prefix = new IntWindowSpliterator(windows, index, middle);
+        index = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+    }
+
+    private void moveWindow() {
+        int length = (int) Math.min(WINDOW_INTS, end - index);
+        try {
+            window = windows.window(index, length);
+            windowStart = index;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Provides the ints of a range, indexed from zero
+     */
+    interface Windows {
+        IntBuffer window(long from, int length) throws IOException;
+    }
+}
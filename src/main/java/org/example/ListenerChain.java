@@ -0,0 +1,58 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Two listeners called one after the other, as built by {@link AccountListener#andThen}.
+ * A group of changes is delivered to the listeners inside a chain rather than to the chain itself,
+ * so a listener shared by several accounts, such as a journal, still receives a transfer or batch as
+ * one {@link AccountListener#onChanges} call when each account has chained it with a listener of its own.
+ */
+final class ListenerChain implements AccountListener {
+    private final AccountListener first;
+    private final AccountListener next;
+    private final List<AccountListener> listeners;
+
+    ListenerChain(AccountListener first, AccountListener next) {
+        this.first = first;
+        this.next = next;
+        List<AccountListener> all = new ArrayList<>();
+        addListeners(first, all);
+        addListeners(next, all);
+        this.listeners = List.copyOf(all);
+    }
+
+    /**
+     * Gets the listeners that are not chains themselves, in the order they are called
+     */
+    List<AccountListener> listeners() {
+        return listeners;
+    }
+
+    @Override
+    public void onChange(BankAccount account, AccountOperation operation, long amountCents, long balanceCents) {
+        first.onChange(account, operation, amountCents, balanceCents);
+        next.onChange(account, operation, amountCents, balanceCents);
+    }
+
+    @Override
+    public void onChanges(List<Change> changes) {
+        first.onChanges(changes);
+        next.onChanges(changes);
+    }
+
+    @Override
+    public void afterCommit() {
+        first.afterCommit();
+        next.afterCommit();
+    }
+
+    private static void addListeners(AccountListener listener, List<AccountListener> all) {
+        if (listener instanceof ListenerChain chain) {
+            all.addAll(chain.listeners);
+        } else {
+            all.add(listener);
+        }
+    }
+}
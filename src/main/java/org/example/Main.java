@@ -1,6 +1,22 @@
 package org.example;
 
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("serve")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : 7070;
+            TransactionService service = new TransactionService(new AccountRegistry());
+            System.out.println("Listening on port " + service.start(port));
+            Thread.currentThread().join();
+        } else if (args.length > 1 && args[0].equals("load")) {
+            int port = Integer.parseInt(args[1]);
+            int connections = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+            int requests = args.length > 3 ? Integer.parseInt(args[3]) : 100_000;
+            int pipelineDepth = args.length > 4 ? Integer.parseInt(args[4]) : 64;
+            TransactionLoadClient.Result result = new TransactionLoadClient("127.0.0.1", port).run(connections, requests, pipelineDepth);
+            System.out.printf("%,d requests, %,d errors, %,.0f requests/s%n",
+                    result.requests(), result.errors(), result.requestsPerSecond());
+        } else {
+            System.out.println("Usage: serve [port] | load port [connections] [requestsPerConnection] [pipelineDepth]");
+        }
     }
-}
\ No newline at end of file
+}
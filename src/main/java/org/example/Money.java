@@ -0,0 +1,63 @@
+package org.example;
+
+/**
+ * Conversions between decimal amounts and exact minor units (cents).
+ * Balances are kept as {@code long} cents so arithmetic is exact and allocation-free.
+ */
+public final class Money {
+    /**
+     * Number of minor units in one major unit
+     */
+    public static final int CENTS_PER_UNIT = 100;
+
+    private static final double MAX_AMOUNT = (double) Long.MAX_VALUE / CENTS_PER_UNIT;
+
+    private Money() {
+    }
+
+    /**
+     * Converts an amount to cents, rounding half up to the nearest cent
+     * @param amount the amount in major units
+     * @return the amount in cents
+     * @throws ArithmeticException if the amount is not finite or does not fit in a long
+     */
+    public static long toCents(double amount) {
+        if (!fitsInCents(amount)) {
+            throw new ArithmeticException("Amount out of range: " + amount);
+        }
+        return Math.round(amount * CENTS_PER_UNIT);
+    }
+
+    /**
+     * Checks whether an amount can be converted to cents
+     * @param amount the amount in major units
+     * @return true if {@link #toCents(double)} accepts the amount
+     */
+    public static boolean fitsInCents(double amount) {
+        return !Double.isNaN(amount) && Math.abs(amount) < MAX_AMOUNT;
+    }
+
+    /**
+     * Converts cents to an amount in major units
+     * @param cents the amount in cents
+     * @return the amount in major units
+     */
+    public static double toAmount(long cents) {
+        return (double) cents / CENTS_PER_UNIT;
+    }
+
+    /**
+     * Adds two cent amounts
+     * @param a first amount in cents
+     * @param b second amount in cents
+     * @return sum of a and b
+     * @throws ArithmeticException if the sum overflows
+     */
+    public static long add(long a, long b) {
+        long sum = a + b;
+        if (((a ^ sum) & (b ^ sum)) < 0) {
+            throw new ArithmeticException("Balance overflow");
+        }
+        return sum;
+    }
+}
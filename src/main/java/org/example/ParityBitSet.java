@@ -0,0 +1,141 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The parity of every element of an int array, packed 64 elements to a {@code long}: bit {@code i % 64}
+ * of word {@code i / 64} is set exactly when element {@code i} is even. A bitset is 32 times smaller than the
+ * array it describes and 8 times smaller than a {@code boolean[]}, and counts are a population count per word.
+ * Create one with {@link Calculator#isEven(int[])}.
+ */
+public final class ParityBitSet {
+    private final long[] words;
+    private final int size;
+
+    ParityBitSet(long[] words, int size) {
+        this.words = words;
+        this.size = size;
+    }
+
+    /**
+     * Gets the number of elements described
+     * @return the length of the classified array
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether an element is even
+     * @param index the position of the element
+     * @return true if the element is even
+     */
+    public boolean isEven(int index) {
+        Objects.checkIndex(index, size);
+        return (words[index >>> 6] & 1L << index) != 0;
+    }
+
+    /**
+     * Counts the even elements
+     * @return the number of even elements
+     */
+    public int countEven() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Counts the odd elements
+     * @return the number of odd elements
+     */
+    public int countOdd() {
+        return size - countEven();
+    }
+
+    /**
+     * Counts the even elements within a range
+     * @param from the first position, inclusive
+     * @param to the last position, exclusive
+     * @return the number of even elements in the range
+     */
+    public int countEven(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        if (from == to) {
+            return 0;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        // Shifts use the low six bits, so -1L << from clears the bits below from within its word
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            return Long.bitCount(words[first] & firstMask & lastMask);
+        }
+        int count = Long.bitCount(words[first] & firstMask);
+        for (int w = first + 1; w < last; w++) {
+            count += Long.bitCount(words[w]);
+        }
+        return count + Long.bitCount(words[last] & lastMask);
+    }
+
+    /**
+     * Finds the next even element
+     * @param from the position to start looking at
+     * @return the position of the first even element at or after from, or -1 if there is none
+     */
+    public int nextEven(int from) {
+        if (from < 0) {
+            throw new IndexOutOfBoundsException("Index cannot be negative: " + from);
+        }
+        if (from >= size) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = words[w] & -1L << from;
+        while (word == 0) {
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Copies the even elements of the classified array, in order, to the front of another array
+     * @param values the array this bitset was computed from
+     * @param result the array to copy to; needs room for {@link #countEven()} elements
+     * @return the number of elements copied
+     * @throws IllegalArgumentException if values does not match this bitset or result is too short
+     */
+    public int selectEven(int[] values, int[] result) {
+        if (values == null || values.length != size) {
+            throw new IllegalArgumentException("Values must be the array this bitset was computed from");
+        }
+        if (result == null || result.length < countEven()) {
+            throw new IllegalArgumentException("Result array is too short");
+        }
+        int count = 0;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            int base = w << 6;
+            while (word != 0) {
+                result[count++] = values[base + Long.numberOfTrailingZeros(word)];
+                word &= word - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Copies the packed words
+     * @return the words, element {@code i} being bit {@code i % 64} of word {@code i / 64}
+     */
+    public long[] toLongArray() {
+        return Arrays.copyOf(words, words.length);
+    }
+}
@@ -0,0 +1,80 @@
+package org.example;
+
+/**
+ * Plain loops, used when the Vector API is unavailable and for the tails the vector kernel leaves over.
+ * The JIT may still auto-vectorize some of them.
+ */
+class ScalarIntArrayKernel implements IntArrayKernel {
+
+    @Override
+    public void add(int[] a, int aOffset, int[] b, int bOffset, int[] result, int resultOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            result[resultOffset + i] = a[aOffset + i] + b[bOffset + i];
+        }
+    }
+
+    @Override
+    public void subtract(int[] a, int aOffset, int[] b, int bOffset, int[] result, int resultOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            result[resultOffset + i] = a[aOffset + i] - b[bOffset + i];
+        }
+    }
+
+    @Override
+    public void multiply(int[] a, int aOffset, int[] b, int bOffset, int[] result, int resultOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            result[resultOffset + i] = a[aOffset + i] * b[bOffset + i];
+        }
+    }
+
+    @Override
+    public void divide(int[] a, int aOffset, int[] b, int bOffset, double[] result, int resultOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            result[resultOffset + i] = (double) a[aOffset + i] / b[bOffset + i];
+        }
+    }
+
+    @Override
+    public boolean containsZero(int[] a, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[offset + i] == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void absolute(int[] a, int aOffset, int[] result, int resultOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            int value = a[aOffset + i];
+            // The sign mask flips and increments negatives without a branch; MIN_VALUE stays MIN_VALUE as with -number
+            int sign = value >> 31;
+            result[resultOffset + i] = (value ^ sign) - sign;
+        }
+    }
+
+    @Override
+    public void evenBits(int[] values, long[] words) {
+        int fullWords = values.length >>> 6;
+        for (int w = 0; w < fullWords; w++) {
+            int base = w << 6;
+            // Two independent 32-bit halves with fixed trip counts let the JIT unroll and overlap them
+            int low = 0;
+            int high = 0;
+            for (int j = 0; j < 32; j++) {
+                low |= (~values[base + j] & 1) << j;
+                high |= (~values[base + 32 + j] & 1) << j;
+            }
+            words[w] = (low & 0xFFFFFFFFL) | (long) high << 32;
+        }
+        if (fullWords < words.length) {
+            int base = fullWords << 6;
+            long bits = 0;
+            for (int j = 0; base + j < values.length; j++) {
+                bits |= (long) (~values[base + j] & 1) << j;
+            }
+            words[fullWords] = bits;
+        }
+    }
+}
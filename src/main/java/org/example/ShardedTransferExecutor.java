@@ -0,0 +1,448 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Executes account operations on single-threaded shards, so no account state is ever locked.
+ * Account {@code h} lives on shard {@code h % shards}; each shard thread owns its accounts' balances
+ * and drains a bounded queue of requests from callers, which blocks callers when the shard falls behind.
+ * <p>
+ * A transfer inside one shard is applied in one step. A transfer across shards is a reserve/commit exchange:
+ * the source shard debits the amount into a reservation, the target shard credits it (or refuses),
+ * and the source shard then either drops the reservation or refunds it. Money in flight is always held in
+ * exactly one reservation, so it is never lost or counted twice. Shard-to-shard messages use a separate
+ * unbounded queue so two busy shards can never block each other.
+ * <p>
+ * Returned futures are completed on a separate completion executor, never on a shard thread, so callbacks
+ * chained on them cannot stall or deadlock a shard. A request that throws fails its future and the shard
+ * carries on with the next one.
+ */
+public class ShardedTransferExecutor implements AutoCloseable {
+    private final Shard[] shards;
+    private volatile int accountCount;
+    private final LongAdder transfersInFlight = new LongAdder();
+    private final Executor completions;
+
+    /**
+     * Starts the shard threads, completing futures on the default asynchronous executor of {@link CompletableFuture}
+     * @param shardCount the number of shards
+     * @param queueCapacity the capacity of each shard's request queue
+     */
+    public ShardedTransferExecutor(int shardCount, int queueCapacity) {
+        this(shardCount, queueCapacity, new CompletableFuture<Void>().defaultExecutor());
+    }
+
+    /**
+     * Starts the shard threads
+     * @param shardCount the number of shards
+     * @param queueCapacity the capacity of each shard's request queue
+     * @param completionExecutor the executor that completes returned futures and so runs their callbacks
+     */
+    public ShardedTransferExecutor(int shardCount, int queueCapacity, Executor completionExecutor) {
+        if (completionExecutor == null) {
+            throw new IllegalArgumentException("Completion executor cannot be null");
+        }
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        completions = completionExecutor;
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, queueCapacity, transfersInFlight);
+        }
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+    }
+
+    /**
+     * Opens a new active account, waiting until its shard has set it up.
+     * Opens are serialized, so handles are handed out in order and each becomes valid only once its account exists.
+     * @param accountNumber the account number
+     * @param initialBalanceCents the initial balance in cents
+     * @return the handle of the new account
+     * @throws IllegalArgumentException if account number is null or empty, or balance is negative
+     */
+    public synchronized int open(String accountNumber, long initialBalanceCents) {
+        if (accountNumber == null || accountNumber.trim().isEmpty()) {
+            throw new IllegalArgumentException("Account number cannot be null or empty");
+        }
+        if (initialBalanceCents < 0) {
+            throw new IllegalArgumentException("Initial balance cannot be negative");
+        }
+        int account = accountCount;
+        Shard shard = shardOf(account);
+        CompletableFuture<Void> opened = new CompletableFuture<>();
+        shard.submit(() -> {
+            shard.open(local(account), initialBalanceCents);
+            opened.complete(null);
+        });
+        // Transfers from other shards reach this one ahead of queued requests, so the account must exist first
+        opened.join();
+        // Publish the handle only now, so no request can reach the shard ahead of the account
+        accountCount = account + 1;
+        return account;
+    }
+
+    /**
+     * Deposits money into an account
+     * @param account the account handle
+     * @param amountCents the amount to deposit in cents
+     * @return a future completed with the outcome once the owning shard has applied it
+     */
+    public CompletableFuture<TransactionStatus> deposit(int account, long amountCents) {
+        checkAccount(account);
+        Shard shard = shardOf(account);
+        return call(shard, () -> shard.deposit(local(account), amountCents));
+    }
+
+    /**
+     * Withdraws money from an account
+     * @param account the account handle
+     * @param amountCents the amount to withdraw in cents
+     * @return a future completed with the outcome once the owning shard has applied it
+     */
+    public CompletableFuture<TransactionStatus> withdraw(int account, long amountCents) {
+        checkAccount(account);
+        Shard shard = shardOf(account);
+        return call(shard, () -> shard.withdraw(local(account), amountCents));
+    }
+
+    /**
+     * Transfers money between two accounts
+     * @param source the account to transfer from
+     * @param target the account to transfer to
+     * @param amountCents the amount to transfer in cents
+     * @return a future completed with the outcome once both accounts have been updated
+     */
+    public CompletableFuture<TransactionStatus> transfer(int source, int target, long amountCents) {
+        checkAccount(source);
+        checkAccount(target);
+        Shard sourceShard = shardOf(source);
+        Shard targetShard = shardOf(target);
+        if (sourceShard == targetShard) {
+            return call(sourceShard, () -> sourceShard.transfer(local(source), local(target), amountCents));
+        }
+        CompletableFuture<TransactionStatus> result = new CompletableFuture<>();
+        // Counted from submission so no shard stops while a transfer it may still take part in is pending
+        transfersInFlight.increment();
+        Runnable abandon = transfersInFlight::decrement;
+        // Once the amount is reserved, a failed step must still hand it back to the source before letting go
+        Runnable refund = () -> sourceShard.send(() -> {
+            sourceShard.settle(local(source), amountCents, false);
+            transfersInFlight.decrement();
+        });
+        sourceShard.submit(guard(result, abandon, () -> {
+            TransactionStatus reserved = sourceShard.reserve(local(source), amountCents);
+            if (reserved != TransactionStatus.SUCCESS) {
+                transfersInFlight.decrement();
+                complete(result, reserved);
+                return;
+            }
+            targetShard.send(guard(result, refund, () -> {
+                TransactionStatus credited = targetShard.credit(local(target), amountCents);
+                sourceShard.send(guard(result, abandon, () -> {
+                    sourceShard.settle(local(source), amountCents, credited == TransactionStatus.SUCCESS);
+                    transfersInFlight.decrement();
+                    complete(result, credited);
+                }));
+            }));
+        }));
+        return result;
+    }
+
+    /**
+     * Closes an account
+     * @param account the account handle
+     * @return a future completed once the owning shard has closed it
+     */
+    public CompletableFuture<Void> closeAccount(int account) {
+        checkAccount(account);
+        Shard shard = shardOf(account);
+        return call(shard, () -> {
+            shard.active[local(account)] = false;
+            return null;
+        });
+    }
+
+    /**
+     * Reads the balance of an account, excluding money reserved for transfers in flight
+     * @param account the account handle
+     * @return a future completed with the balance in cents
+     */
+    public CompletableFuture<Long> getBalanceCents(int account) {
+        checkAccount(account);
+        Shard shard = shardOf(account);
+        return call(shard, () -> shard.balances[local(account)]);
+    }
+
+    /**
+     * Gets the number of shards
+     * @return the number of shards
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Lets every shard finish the work already queued, including cross-shard transfers in flight,
+     * then stops the shard threads. Callers must stop submitting work before closing.
+     * Closing keeps waiting if the caller is interrupted, and restores the interrupt once every shard has stopped.
+     */
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.running = false;
+            LockSupport.unpark(shard.thread);
+        }
+        boolean interrupted = false;
+        for (Shard shard : shards) {
+            while (shard.thread.isAlive()) {
+                try {
+                    shard.thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues a request on a shard and returns a future for its result
+     */
+    private <T> CompletableFuture<T> call(Shard shard, Supplier<T> request) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        shard.submit(guard(result, () -> { }, () -> complete(result, request.get())));
+        return result;
+    }
+
+    /**
+     * Wraps a step run on a shard so that if it throws, the cleanup runs and the future fails instead of hanging.
+     * The exception is rethrown for the shard to report.
+     */
+    private Runnable guard(CompletableFuture<?> result, Runnable cleanup, Runnable step) {
+        return () -> {
+            try {
+                step.run();
+            } catch (RuntimeException e) {
+                cleanup.run();
+                completions.execute(() -> result.completeExceptionally(e));
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Completes a future on the completion executor, so its callbacks never run on a shard thread
+     */
+    private <T> void complete(CompletableFuture<T> result, T value) {
+        result.completeAsync(() -> value, completions);
+    }
+
+    private Shard shardOf(int account) {
+        return shards[account % shards.length];
+    }
+
+    private int local(int account) {
+        return account / shards.length;
+    }
+
+    private void checkAccount(int account) {
+        if (account < 0 || account >= accountCount) {
+            throw new IndexOutOfBoundsException("Unknown account handle: " + account);
+        }
+    }
+
+    /**
+     * One single-threaded partition of the accounts. Its arrays are only touched by its own thread.
+     */
+    private static final class Shard implements Runnable {
+        private final BlockingQueue<Runnable> requests;
+        private final Queue<Runnable> messages = new ConcurrentLinkedQueue<>();
+        private final Thread thread;
+        private final LongAdder transfersInFlight;
+        private volatile boolean running = true;
+        private volatile boolean sleeping;
+
+        private long[] balances = new long[16];
+        private long[] reserved = new long[16];
+        private boolean[] active = new boolean[16];
+
+        Shard(int index, int queueCapacity, LongAdder transfersInFlight) {
+            this.transfersInFlight = transfersInFlight;
+            requests = new ArrayBlockingQueue<>(queueCapacity);
+            thread = new Thread(this, "transfer-shard-" + index);
+            thread.setDaemon(true);
+        }
+
+        /**
+         * Queues a request from a caller, blocking while the shard's queue is full
+         */
+        void submit(Runnable request) {
+            try {
+                requests.put(request);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while queueing request", e);
+            }
+            wake();
+        }
+
+        /**
+         * Queues a message from another shard; never blocks
+         */
+        void send(Runnable message) {
+            messages.add(message);
+            wake();
+        }
+
+        private void wake() {
+            if (sleeping) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Runnable task = messages.poll();
+                if (task == null) {
+                    task = requests.poll();
+                }
+                if (task != null) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        // The request's future has already failed; report it and keep serving the others
+                        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                    }
+                    continue;
+                }
+                // Once closing, the count only falls, so a zero sum cannot hide a pending transfer
+                if (!running && transfersInFlight.sum() == 0) {
+                    return;
+                }
+                sleeping = true;
+                if (messages.isEmpty() && requests.isEmpty()) {
+                    if (running) {
+                        LockSupport.park(this);
+                    } else {
+                        // Closing: wait for the other shards to finish the transfers this one takes part in
+                        LockSupport.parkNanos(this, 100_000L);
+                    }
+                }
+                sleeping = false;
+            }
+        }
+
+        void open(int local, long balanceCents) {
+            if (local >= balances.length) {
+                int capacity = Math.max(local + 1, balances.length * 2);
+                balances = Arrays.copyOf(balances, capacity);
+                reserved = Arrays.copyOf(reserved, capacity);
+                active = Arrays.copyOf(active, capacity);
+            }
+            balances[local] = balanceCents;
+            active[local] = true;
+        }
+
+        TransactionStatus deposit(int local, long amountCents) {
+            if (!active[local]) {
+                return TransactionStatus.INACTIVE_ACCOUNT;
+            }
+            if (amountCents <= 0) {
+                return TransactionStatus.INVALID_AMOUNT;
+            }
+            if (balances[local] > Long.MAX_VALUE - amountCents) {
+                return TransactionStatus.OVERFLOW;
+            }
+            balances[local] += amountCents;
+            return TransactionStatus.SUCCESS;
+        }
+
+        TransactionStatus withdraw(int local, long amountCents) {
+            if (!active[local]) {
+                return TransactionStatus.INACTIVE_ACCOUNT;
+            }
+            if (amountCents <= 0) {
+                return TransactionStatus.INVALID_AMOUNT;
+            }
+            if (amountCents > balances[local]) {
+                return TransactionStatus.INSUFFICIENT_FUNDS;
+            }
+            balances[local] -= amountCents;
+            return TransactionStatus.SUCCESS;
+        }
+
+        TransactionStatus transfer(int source, int target, long amountCents) {
+            if (!active[source]) {
+                return TransactionStatus.INACTIVE_ACCOUNT;
+            }
+            if (!active[target]) {
+                return TransactionStatus.INACTIVE_TARGET;
+            }
+            if (amountCents <= 0) {
+                return TransactionStatus.INVALID_AMOUNT;
+            }
+            if (amountCents > balances[source]) {
+                return TransactionStatus.INSUFFICIENT_FUNDS;
+            }
+            if (source != target && balances[target] > Long.MAX_VALUE - amountCents) {
+                return TransactionStatus.OVERFLOW;
+            }
+            balances[source] -= amountCents;
+            balances[target] += amountCents;
+            return TransactionStatus.SUCCESS;
+        }
+
+        /**
+         * First leg of a cross-shard transfer: moves the amount from the balance into a reservation
+         */
+        TransactionStatus reserve(int source, long amountCents) {
+            TransactionStatus status = withdraw(source, amountCents);
+            if (status == TransactionStatus.SUCCESS) {
+                reserved[source] += amountCents;
+            }
+            return status;
+        }
+
+        /**
+         * Second leg of a cross-shard transfer: credits the target or refuses
+         */
+        TransactionStatus credit(int target, long amountCents) {
+            if (!active[target]) {
+                return TransactionStatus.INACTIVE_TARGET;
+            }
+            if (balances[target] > Long.MAX_VALUE - amountCents) {
+                return TransactionStatus.OVERFLOW;
+            }
+            balances[target] += amountCents;
+            return TransactionStatus.SUCCESS;
+        }
+
+        /**
+         * Last leg of a cross-shard transfer: releases the reservation, refunding it if the target refused
+         */
+        void settle(int source, long amountCents, boolean committed) {
+            reserved[source] -= amountCents;
+            if (!committed) {
+                balances[source] += amountCents;
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package org.example;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A thread-safe variant of {@link BankAccount} for read-heavy workloads.
+ * Writers take a {@link StampedLock} write lock; balance and status reads are optimistic and take no lock,
+ * falling back to a read lock only when a write overlapped the read.
+ * {@link #getSnapshot()} returns the balance and status as one consistent pair.
+ */
+public class StampedBankAccount {
+    private static final Object TIE_LOCK = new Object();
+
+    private final String accountNumber;
+    private final StampedLock lock = new StampedLock();
+    private long balanceCents;
+    private boolean isActive;
+
+    /**
+     * Creates a new stamped bank account with zero balance
+     * @param accountNumber the account number
+     */
+    public StampedBankAccount(String accountNumber) {
+        if (accountNumber == null || accountNumber.trim().isEmpty()) {
+            throw new IllegalArgumentException("Account number cannot be null or empty");
+        }
+        this.accountNumber = accountNumber;
+        this.isActive = true;
+    }
+
+    /**
+     * Creates a new stamped bank account with an initial balance
+     * @param accountNumber the account number
+     * @param initialBalance the initial balance
+     */
+    public StampedBankAccount(String accountNumber, double initialBalance) {
+        this(accountNumber);
+        if (initialBalance < 0) {
+            throw new IllegalArgumentException("Initial balance cannot be negative");
+        }
+        this.balanceCents = Money.toCents(initialBalance);
+    }
+
+    /**
+     * Deposits money into the account
+     * @param amount the amount to deposit, rounded to the nearest cent
+     * @throws IllegalArgumentException if amount is negative, zero, NaN, or rounds to zero cents
+     * @throws IllegalStateException if account is not active
+     * @throws ArithmeticException if the amount does not fit in cents or the balance would overflow
+     */
+    public void deposit(double amount) {
+        long stamp = lock.writeLock();
+        try {
+            if (!isActive) {
+                throw new IllegalStateException("Cannot deposit to inactive account");
+            }
+            long amountCents = toCents(amount, "Deposit amount must be positive");
+            if (amountCents < 0) {
+                throw new ArithmeticException("Balance overflow");
+            }
+            balanceCents = Money.add(balanceCents, amountCents);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Withdraws money from the account
+     * @param amount the amount to withdraw, rounded to the nearest cent
+     * @throws IllegalArgumentException if amount is negative, zero, NaN, or rounds to zero cents
+     * @throws IllegalStateException if insufficient funds or account is not active
+     */
+    public void withdraw(double amount) {
+        long stamp = lock.writeLock();
+        try {
+            if (!isActive) {
+                throw new IllegalStateException("Cannot withdraw from inactive account");
+            }
+            long amountCents = toCents(amount, "Withdrawal amount must be positive");
+            if (amountCents < 0 || amountCents > balanceCents) {
+                throw new IllegalStateException("Insufficient funds");
+            }
+            balanceCents -= amountCents;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Transfers money to another account.
+     * Both write locks are held for the whole transfer, taken in a fixed order so opposing transfers cannot deadlock.
+     * @param targetAccount the account to transfer to
+     * @param amount the amount to transfer, rounded to the nearest cent
+     * @throws IllegalArgumentException if target account is null or amount is invalid
+     * @throws IllegalStateException if insufficient funds or either account is inactive
+     * @throws ArithmeticException if the target balance would overflow
+     */
+    public void transfer(StampedBankAccount targetAccount, double amount) {
+        if (targetAccount == null) {
+            throw new IllegalArgumentException("Target account cannot be null");
+        }
+        int order = lockOrder(this, targetAccount);
+        if (order == 0) {
+            // Same account number and identity hash: no natural order, so serialize such pairs
+            synchronized (TIE_LOCK) {
+                transferLocked(this, targetAccount, targetAccount, amount);
+            }
+        } else if (order < 0) {
+            transferLocked(this, targetAccount, targetAccount, amount);
+        } else {
+            transferLocked(targetAccount, this, targetAccount, amount);
+        }
+    }
+
+    /**
+     * Gets the current balance without locking
+     * @return the current balance
+     */
+    public double getBalance() {
+        return Money.toAmount(getBalanceCents());
+    }
+
+    /**
+     * Gets the current balance in cents without locking
+     * @return the current balance in cents
+     */
+    public long getBalanceCents() {
+        long stamp = lock.tryOptimisticRead();
+        long balance = balanceCents;
+        if (lock.validate(stamp)) {
+            return balance;
+        }
+        stamp = lock.readLock();
+        try {
+            return balanceCents;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Checks if the account is active without locking
+     * @return true if active, false otherwise
+     */
+    public boolean isActive() {
+        long stamp = lock.tryOptimisticRead();
+        boolean active = isActive;
+        if (lock.validate(stamp)) {
+            return active;
+        }
+        stamp = lock.readLock();
+        try {
+            return isActive;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Reads the balance and status together, as they were at one instant
+     * @return the balance and status
+     */
+    public Snapshot getSnapshot() {
+        long stamp = lock.tryOptimisticRead();
+        long balance = balanceCents;
+        boolean active = isActive;
+        if (lock.validate(stamp)) {
+            return new Snapshot(balance, active);
+        }
+        stamp = lock.readLock();
+        try {
+            return new Snapshot(balanceCents, isActive);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Gets the account number
+     * @return the account number
+     */
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    /**
+     * Closes the account
+     */
+    public void closeAccount() {
+        long stamp = lock.writeLock();
+        isActive = false;
+        lock.unlockWrite(stamp);
+    }
+
+    private void transferLocked(StampedBankAccount first, StampedBankAccount second, StampedBankAccount targetAccount, double amount) {
+        long firstStamp = first.lock.writeLock();
+        long secondStamp = second == first ? 0L : second.lock.writeLock();
+        try {
+            if (!this.isActive) {
+                throw new IllegalStateException("Cannot transfer from inactive account");
+            }
+            if (!targetAccount.isActive) {
+                throw new IllegalStateException("Cannot transfer to inactive account");
+            }
+            long amountCents = toCents(amount, "Withdrawal amount must be positive");
+            if (amountCents < 0 || amountCents > balanceCents) {
+                throw new IllegalStateException("Insufficient funds");
+            }
+            if (targetAccount != this) {
+                targetAccount.balanceCents = Money.add(targetAccount.balanceCents, amountCents);
+                balanceCents -= amountCents;
+            }
+        } finally {
+            if (second != first) {
+                second.lock.unlockWrite(secondStamp);
+            }
+            first.lock.unlockWrite(firstStamp);
+        }
+    }
+
+    /**
+     * Converts an amount to cents, rejecting it as {@link BankAccount} does when it is NaN or rounds to zero or less
+     * @return the amount in cents, or -1 if it is too large to hold in cents
+     */
+    private static long toCents(double amount, String invalidMessage) {
+        long amountCents = !(amount > 0) ? 0L : Money.fitsInCents(amount) ? Money.toCents(amount) : -1L;
+        if (amountCents == 0) {
+            throw new IllegalArgumentException(invalidMessage);
+        }
+        return amountCents;
+    }
+
+    private static int lockOrder(StampedBankAccount a, StampedBankAccount b) {
+        if (a == b) {
+            return -1;
+        }
+        int order = a.accountNumber.compareTo(b.accountNumber);
+        return order != 0 ? order : Integer.compare(System.identityHashCode(a), System.identityHashCode(b));
+    }
+
+    /**
+     * The balance and status of an account at one instant
+     * @param balanceCents the balance in cents
+     * @param active whether the account was active
+     */
+    public record Snapshot(long balanceCents, boolean active) {
+    }
+}
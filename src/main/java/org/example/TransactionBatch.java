@@ -0,0 +1,322 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A list of deposits, withdrawals and transfers over several accounts that is applied all-or-nothing.
+ * Operations are recorded into primitive columns; {@link #commit()} replays them once against
+ * a working copy of the balances and writes each touched account back only if every operation succeeds.
+ * Withdrawals and outgoing transfers count against the {@link VelocityLimit} of their account, and the
+ * limits taken are given back if the batch is rejected. Accounts with {@link AccountMetrics} record each
+ * committed operation, or the operation that rejected the batch, each timed on its own as it is applied.
+ * A batch is not thread-safe; use {@link TransferEngine#commit(TransactionBatch)} to commit
+ * while other threads work on the same accounts.
+ */
+public class TransactionBatch {
+    private static final byte DEPOSIT = 0;
+    private static final byte WITHDRAWAL = 1;
+    private static final byte TRANSFER = 2;
+
+    private final List<BankAccount> accounts = new ArrayList<>();
+    private final Map<BankAccount, Integer> accountIndex = new IdentityHashMap<>();
+    private byte[] operations = new byte[16];
+    private int[] sources = new int[16];
+    private int[] targets = new int[16];
+    private long[] amounts = new long[16];
+    private int size;
+    private int failedOperation = -1;
+
+    /**
+     * Adds a deposit to the batch
+     * @param account the account to deposit to
+     * @param amountCents the amount to deposit in cents
+     * @return this batch
+     * @throws IllegalArgumentException if account is null
+     */
+    public TransactionBatch deposit(BankAccount account, long amountCents) {
+        add(DEPOSIT, indexOf(account), -1, amountCents);
+        return this;
+    }
+
+    /**
+     * Adds a withdrawal to the batch
+     * @param account the account to withdraw from
+     * @param amountCents the amount to withdraw in cents
+     * @return this batch
+     * @throws IllegalArgumentException if account is null
+     */
+    public TransactionBatch withdraw(BankAccount account, long amountCents) {
+        add(WITHDRAWAL, indexOf(account), -1, amountCents);
+        return this;
+    }
+
+    /**
+     * Adds a transfer to the batch
+     * @param source the account to transfer from
+     * @param target the account to transfer to
+     * @param amountCents the amount to transfer in cents
+     * @return this batch
+     * @throws IllegalArgumentException if either account is null
+     */
+    public TransactionBatch transfer(BankAccount source, BankAccount target, long amountCents) {
+        add(TRANSFER, indexOf(source), indexOf(target), amountCents);
+        return this;
+    }
+
+    /**
+     * Gets the number of operations in the batch
+     * @return the number of operations
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the position of the operation that made the last commit fail
+     * @return the zero-based operation index, or -1 if the last commit succeeded or none has run
+     */
+    public int getFailedOperation() {
+        return failedOperation;
+    }
+
+    /**
+     * Validates and applies every operation in order, or none of them
+     * @return {@link TransactionStatus#SUCCESS}, or the status of the first operation that was rejected
+     */
+    public TransactionStatus commit() {
+        int accountCount = accounts.size();
+        long[] balances = new long[accountCount];
+        boolean[] active = new boolean[accountCount];
+        VelocityLimit[] limits = null;
+        AccountMetrics[] metrics = null;
+        boolean listened = false;
+        for (int i = 0; i < accountCount; i++) {
+            BankAccount account = accounts.get(i);
+            balances[i] = account.getBalanceCents();
+            active[i] = account.isActive();
+            listened |= account.getListener() != null;
+            VelocityLimit limit = account.getVelocityLimit();
+            if (limit != null) {
+                if (limits == null) {
+                    limits = new VelocityLimit[accountCount];
+                }
+                limits[i] = limit;
+            }
+            AccountMetrics accountMetrics = account.getMetrics();
+            if (accountMetrics != null) {
+                if (metrics == null) {
+                    metrics = new AccountMetrics[accountCount];
+                }
+                metrics[i] = accountMetrics;
+            }
+        }
+        long[] initialBalances = listened ? balances.clone() : null;
+        long[] acquired = limits == null ? null : new long[size];
+        long[] elapsed = metrics == null ? null : new long[size];
+
+        for (int op = 0; op < size; op++) {
+            long start = elapsed == null ? 0L : System.nanoTime();
+            TransactionStatus status = apply(op, balances, active);
+            if (status == TransactionStatus.SUCCESS && acquired != null) {
+                status = acquire(op, limits, acquired);
+            }
+            if (elapsed != null) {
+                elapsed[op] = System.nanoTime() - start;
+            }
+            if (status != TransactionStatus.SUCCESS) {
+                if (acquired != null) {
+                    release(op, limits, acquired);
+                }
+                if (metrics != null) {
+                    record(op, status, metrics, elapsed[op]);
+                }
+                failedOperation = op;
+                return status;
+            }
+        }
+
+        if (initialBalances != null) {
+            try {
+                fireChanges(initialBalances);
+            } catch (RuntimeException e) {
+                // A listener refused the batch before anything was written back, so it never happened
+                if (acquired != null) {
+                    release(size, limits, acquired);
+                }
+                throw e;
+            }
+        }
+        for (int i = 0; i < accountCount; i++) {
+            accounts.get(i).setBalanceCents(balances[i]);
+        }
+        if (metrics != null) {
+            for (int op = 0; op < size; op++) {
+                record(op, TransactionStatus.SUCCESS, metrics, elapsed[op]);
+            }
+        }
+        failedOperation = -1;
+        if (listened) {
+            BankAccount.afterCommit(accounts);
+        }
+        return TransactionStatus.SUCCESS;
+    }
+
+    /**
+     * Gets the distinct accounts the batch touches, in the order they were first added
+     */
+    List<BankAccount> accounts() {
+        return accounts;
+    }
+
+    private TransactionStatus apply(int op, long[] balances, boolean[] active) {
+        int source = sources[op];
+        long amount = amounts[op];
+        switch (operations[op]) {
+            case DEPOSIT:
+                if (!active[source]) {
+                    return TransactionStatus.INACTIVE_ACCOUNT;
+                }
+                if (amount <= 0) {
+                    return TransactionStatus.INVALID_AMOUNT;
+                }
+                if (balances[source] > Long.MAX_VALUE - amount) {
+                    return TransactionStatus.OVERFLOW;
+                }
+                balances[source] += amount;
+                return TransactionStatus.SUCCESS;
+            case WITHDRAWAL:
+                if (!active[source]) {
+                    return TransactionStatus.INACTIVE_ACCOUNT;
+                }
+                if (amount <= 0) {
+                    return TransactionStatus.INVALID_AMOUNT;
+                }
+                if (amount > balances[source]) {
+                    return TransactionStatus.INSUFFICIENT_FUNDS;
+                }
+                balances[source] -= amount;
+                return TransactionStatus.SUCCESS;
+            default:
+                int target = targets[op];
+                if (!active[source]) {
+                    return TransactionStatus.INACTIVE_ACCOUNT;
+                }
+                if (!active[target]) {
+                    return TransactionStatus.INACTIVE_TARGET;
+                }
+                if (amount <= 0) {
+                    return TransactionStatus.INVALID_AMOUNT;
+                }
+                if (amount > balances[source]) {
+                    return TransactionStatus.INSUFFICIENT_FUNDS;
+                }
+                if (target != source && balances[target] > Long.MAX_VALUE - amount) {
+                    return TransactionStatus.OVERFLOW;
+                }
+                balances[source] -= amount;
+                balances[target] += amount;
+                return TransactionStatus.SUCCESS;
+        }
+    }
+
+    /**
+     * Takes the velocity limit of the account an operation draws from, if it has one
+     */
+    private TransactionStatus acquire(int op, VelocityLimit[] limits, long[] acquired) {
+        VelocityLimit limit = operations[op] == DEPOSIT ? null : limits[sources[op]];
+        if (limit == null) {
+            acquired[op] = -1;
+            return TransactionStatus.SUCCESS;
+        }
+        acquired[op] = limit.acquire(amounts[op]);
+        return acquired[op] < 0 ? TransactionStatus.LIMIT_EXCEEDED : TransactionStatus.SUCCESS;
+    }
+
+    /**
+     * Gives back the limits taken by the operations before a rejected one
+     */
+    private void release(int failed, VelocityLimit[] limits, long[] acquired) {
+        for (int op = 0; op < failed; op++) {
+            if (acquired[op] >= 0) {
+                limits[sources[op]].release(amounts[op], acquired[op]);
+            }
+        }
+    }
+
+    /**
+     * Records an operation with the metrics of the account it draws from or deposits to, if it has any
+     */
+    private void record(int op, TransactionStatus status, AccountMetrics[] metrics, long elapsedNanos) {
+        AccountMetrics accountMetrics = metrics[sources[op]];
+        if (accountMetrics != null) {
+            AccountOperation operation = switch (operations[op]) {
+                case DEPOSIT -> AccountOperation.DEPOSIT;
+                case WITHDRAWAL -> AccountOperation.WITHDRAWAL;
+                default -> AccountOperation.TRANSFER_OUT;
+            };
+            accountMetrics.recordElapsed(operation, status, elapsedNanos);
+        }
+    }
+
+    /**
+     * Replays the validated operations so listeners see each change with the balance it will produce,
+     * all in one group so a journal records the batch as a unit before it is written back
+     */
+    private void fireChanges(long[] balances) {
+        List<AccountListener.Change> changes = new ArrayList<>(size);
+        for (int op = 0; op < size; op++) {
+            int source = sources[op];
+            long amount = amounts[op];
+            switch (operations[op]) {
+                case DEPOSIT:
+                    balances[source] += amount;
+                    changes.add(new AccountListener.Change(accounts.get(source), AccountOperation.DEPOSIT, amount, balances[source]));
+                    break;
+                case WITHDRAWAL:
+                    balances[source] -= amount;
+                    changes.add(new AccountListener.Change(accounts.get(source), AccountOperation.WITHDRAWAL, amount, balances[source]));
+                    break;
+                default:
+                    int target = targets[op];
+                    balances[source] -= amount;
+                    balances[target] += amount;
+                    changes.add(new AccountListener.Change(accounts.get(source), AccountOperation.TRANSFER_OUT, amount, balances[source]));
+                    changes.add(new AccountListener.Change(accounts.get(target), AccountOperation.TRANSFER_IN, amount, balances[target]));
+                    break;
+            }
+        }
+        BankAccount.fireChanges(changes);
+    }
+
+    private int indexOf(BankAccount account) {
+        if (account == null) {
+            throw new IllegalArgumentException("Account cannot be null");
+        }
+        Integer index = accountIndex.get(account);
+        if (index == null) {
+            index = accounts.size();
+            accounts.add(account);
+            accountIndex.put(account, index);
+        }
+        return index;
+    }
+
+    private void add(byte operation, int source, int target, long amountCents) {
+        if (size == operations.length) {
+            int capacity = size * 2;
+            operations = Arrays.copyOf(operations, capacity);
+            sources = Arrays.copyOf(sources, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+        }
+        operations[size] = operation;
+        sources[size] = source;
+        targets[size] = target;
+        amounts[size] = amountCents;
+        size++;
+    }
+}
@@ -0,0 +1,211 @@
+package org.example;
+
+import java.util.Objects;
+
+/**
+ * Keeps the most recent changes of one {@link BankAccount} in a fixed-size ring buffer.
+ * Records are stored in preallocated primitive arrays, so recording a change is three array writes
+ * and memory per account stays at about 17 bytes per slot no matter how many changes it goes through.
+ * Every record gets a sequence number, counting from zero, that identifies it across pages.
+ * Like {@link BankAccount}, a history is not thread-safe.
+ */
+public class TransactionHistory implements AccountListener {
+    private static final AccountOperation[] OPERATIONS = AccountOperation.values();
+
+    private final byte[] operations;
+    private final long[] amounts;
+    private final long[] balances;
+    private int cursor;
+    private long recorded;
+
+    /**
+     * Creates an empty history
+     * @param capacity the number of most recent records to keep
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public TransactionHistory(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        operations = new byte[capacity];
+        amounts = new long[capacity];
+        balances = new long[capacity];
+    }
+
+    /**
+     * Creates a history and attaches it to an account, after any listener the account already has
+     * @param account the account to record
+     * @param capacity the number of most recent records to keep
+     * @return the attached history
+     * @throws IllegalArgumentException if account is null or capacity is not positive
+     */
+    public static TransactionHistory attach(BankAccount account, int capacity) {
+        if (account == null) {
+            throw new IllegalArgumentException("Account cannot be null");
+        }
+        TransactionHistory history = new TransactionHistory(capacity);
+        AccountListener existing = account.getListener();
+        account.setListener(existing == null ? history : existing.andThen(history));
+        return history;
+    }
+
+    /**
+     * Records a change, overwriting the oldest record once the buffer is full
+     */
+    @Override
+    public void onChange(BankAccount account, AccountOperation operation, long amountCents, long balanceCents) {
+        int i = cursor;
+        operations[i] = (byte) operation.ordinal();
+        amounts[i] = amountCents;
+        balances[i] = balanceCents;
+        cursor = i + 1 == operations.length ? 0 : i + 1;
+        recorded++;
+    }
+
+    /**
+     * Gets the number of records the history keeps at most
+     * @return the capacity
+     */
+    public int capacity() {
+        return operations.length;
+    }
+
+    /**
+     * Gets the number of records currently kept
+     * @return the number of records, at most {@link #capacity()}
+     */
+    public int size() {
+        return (int) Math.min(recorded, operations.length);
+    }
+
+    /**
+     * Gets the number of changes recorded since the history was created, including overwritten ones
+     * @return the number of changes, which is also the sequence number the next record will get
+     */
+    public long getRecordedCount() {
+        return recorded;
+    }
+
+    /**
+     * Creates a reusable page to read records into
+     * @param pageSize the most records a read fills in
+     * @return an empty page
+     * @throws IllegalArgumentException if page size is not positive
+     */
+    public static Page newPage(int pageSize) {
+        return new Page(pageSize);
+    }
+
+    /**
+     * Reads the most recent records, newest first
+     * @param page the page to fill
+     * @return the number of records read
+     */
+    public int read(Page page) {
+        return read(recorded, page);
+    }
+
+    /**
+     * Reads the records older than a sequence number, newest first.
+     * Pass {@link Page#nextBefore()} of the previous page to read the next older page.
+     * Records that have already been overwritten are not returned.
+     * @param beforeSequence the sequence number to read before
+     * @param page the page to fill
+     * @return the number of records read
+     */
+    public int read(long beforeSequence, Page page) {
+        long oldest = recorded - size();
+        long sequence = Math.min(beforeSequence, recorded) - 1;
+        int count = 0;
+        while (count < page.sequences.length && sequence >= oldest) {
+            int i = (int) (sequence % operations.length);
+            page.sequences[count] = sequence;
+            page.operations[count] = operations[i];
+            page.amounts[count] = amounts[i];
+            page.balances[count] = balances[i];
+            count++;
+            sequence--;
+        }
+        page.size = count;
+        page.nextBefore = sequence + 1;
+        return count;
+    }
+
+    /**
+     * A reusable buffer of records returned by a read
+     */
+    public static final class Page {
+        private final long[] sequences;
+        private final byte[] operations;
+        private final long[] amounts;
+        private final long[] balances;
+        private int size;
+        private long nextBefore;
+
+        private Page(int pageSize) {
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("Page size must be positive");
+            }
+            sequences = new long[pageSize];
+            operations = new byte[pageSize];
+            amounts = new long[pageSize];
+            balances = new long[pageSize];
+        }
+
+        /**
+         * Gets the number of records filled in by the last read
+         * @return the number of records
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Gets the sequence number to pass to the next read to continue with older records
+         * @return the sequence number of the oldest record in this page
+         */
+        public long nextBefore() {
+            return nextBefore;
+        }
+
+        /**
+         * Gets the sequence number of a record
+         * @param index the position in the page
+         * @return the sequence number
+         */
+        public long sequence(int index) {
+            Objects.checkIndex(index, size);
+            return sequences[index];
+        }
+
+        /**
+         * Gets the kind of change of a record
+         * @param index the position in the page
+         * @return the operation
+         */
+        public AccountOperation operation(int index) {
+            Objects.checkIndex(index, size);
+            return OPERATIONS[operations[index]];
+        }
+
+        /**
+         * Gets the amount moved by a record
+         * @param index the position in the page
+         * @return the amount in cents
+         */
+        public long amountCents(int index) {
+            Objects.checkIndex(index, size);
+            return amounts[index];
+        }
+
+        /**
+         * Gets the balance right after a record
+         * @param index the position in the page
+         * @return the balance in cents
+         */
+        public long balanceCents(int index) {
+            Objects.checkIndex(index, size);
+            return balances[index];
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Drives load against a {@link TransactionService} over loopback.
+ * Each connection opens two accounts of its own and then sends a mix of deposits, withdrawals,
+ * transfers and balance reads, keeping up to {@code pipelineDepth} requests in flight.
+ */
+public class TransactionLoadClient {
+    private final String host;
+    private final int port;
+
+    /**
+     * Creates a client for a running service
+     * @param host the host the service listens on
+     * @param port the port the service listens on
+     */
+    public TransactionLoadClient(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Runs the load and waits for every connection to finish
+     * @param connections the number of concurrent connections
+     * @param requestsPerConnection the number of requests each connection sends after opening its accounts
+     * @param pipelineDepth how many requests a connection sends before reading their responses
+     * @return the totals over all connections
+     * @throws IOException if a connection fails
+     * @throws InterruptedException if interrupted while waiting for the connections
+     */
+    public Result run(int connections, int requestsPerConnection, int pipelineDepth) throws IOException, InterruptedException {
+        if (connections <= 0 || requestsPerConnection < 0 || pipelineDepth <= 0) {
+            throw new IllegalArgumentException("Load parameters must be positive");
+        }
+        long start = System.nanoTime();
+        List<Future<Long>> errors = new ArrayList<>();
+        ExecutorService executor = TransactionService.newConnectionExecutor();
+        try {
+            for (int c = 0; c < connections; c++) {
+                int connection = c;
+                errors.add(executor.submit(() -> drive(connection, requestsPerConnection, pipelineDepth)));
+            }
+            long totalErrors = 0;
+            for (Future<Long> connectionErrors : errors) {
+                totalErrors += connectionErrors.get();
+            }
+            return new Result((long) connections * requestsPerConnection, totalErrors, System.nanoTime() - start);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IllegalStateException("Load connection failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs one connection
+     * @return the number of error responses
+     */
+    private long drive(int connection, int requests, int pipelineDepth) {
+        String first = "LOAD-" + connection + "-A-" + System.nanoTime();
+        String second = "LOAD-" + connection + "-B-" + System.nanoTime();
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            writer.write("OPEN " + first + " 1000000\nOPEN " + second + " 1000000\n");
+            writer.flush();
+            long errors = countErrors(reader, 2);
+            for (int sent = 0; sent < requests; ) {
+                int burst = Math.min(pipelineDepth, requests - sent);
+                for (int i = 0; i < burst; i++, sent++) {
+                    writer.write(request(sent, first, second));
+                }
+                writer.flush();
+                errors += countErrors(reader, burst);
+            }
+            return errors;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String request(int i, String first, String second) {
+        return switch (i & 3) {
+            case 0 -> "DEPOSIT " + first + " 100\n";
+            case 1 -> "TRANSFER " + first + " " + second + " 100\n";
+            case 2 -> "WITHDRAW " + second + " 100\n";
+            default -> "BALANCE " + first + "\n";
+        };
+    }
+
+    private static long countErrors(BufferedReader reader, int responses) throws IOException {
+        long errors = 0;
+        for (int i = 0; i < responses; i++) {
+            String response = reader.readLine();
+            if (response == null) {
+                throw new IOException("Connection closed by service");
+            }
+            if (!response.startsWith("OK")) {
+                errors++;
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * The outcome of a load run
+     * @param requests the number of requests sent, excluding account setup
+     * @param errors the number of error responses
+     * @param elapsedNanos the wall-clock duration of the run
+     */
+    public record Result(long requests, long errors, long elapsedNanos) {
+
+        /**
+         * Gets the request throughput
+         * @return requests per second
+         */
+        public double requestsPerSecond() {
+            return requests * 1e9 / elapsedNanos;
+        }
+    }
+}
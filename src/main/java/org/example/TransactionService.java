@@ -0,0 +1,229 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Serves account requests over a line protocol, either in-process through {@link #execute(String)}
+ * or over a loopback socket started with {@link #start(int)}.
+ * <p>
+ * Requests, one per line: {@code OPEN account cents}, {@code DEPOSIT account cents},
+ * {@code WITHDRAW account cents}, {@code TRANSFER source target cents} and {@code BALANCE account}.
+ * Each gets one response line, {@code OK} or {@code OK cents} for a balance, or {@code ERR reason}
+ * where the reason is a {@link TransactionStatus} name, {@code UNKNOWN_ACCOUNT}, {@code DUPLICATE_ACCOUNT}
+ * or {@code BAD_REQUEST}.
+ * <p>
+ * Each connection runs on its own virtual thread when the runtime has them, and on a pooled thread otherwise.
+ * Clients may pipeline: responses come back in request order and are flushed only once
+ * no further request is waiting, so a burst of requests costs one write.
+ */
+public class TransactionService implements Closeable {
+    private final AccountRegistry registry;
+    private final TransferEngine engine = new TransferEngine();
+    private final ExecutorService connections = newConnectionExecutor();
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private ServerSocket server;
+
+    /**
+     * Creates a service over the accounts of a registry
+     * @param registry the registry to look accounts up in and open new ones into
+     * @throws IllegalArgumentException if registry is null
+     */
+    public TransactionService(AccountRegistry registry) {
+        if (registry == null) {
+            throw new IllegalArgumentException("Registry cannot be null");
+        }
+        this.registry = registry;
+    }
+
+    /**
+     * Executes one request
+     * @param request the request line
+     * @return the response line
+     */
+    public String execute(String request) {
+        String[] parts = request.trim().split("\\s+");
+        try {
+            switch (parts[0]) {
+                case "OPEN":
+                    if (parts.length != 3) {
+                        return "ERR BAD_REQUEST";
+                    }
+                    return open(parts[1], Long.parseLong(parts[2]));
+                case "DEPOSIT":
+                case "WITHDRAW":
+                    if (parts.length != 3) {
+                        return "ERR BAD_REQUEST";
+                    }
+                    BankAccount account = registry.find(parts[1]);
+                    if (account == null) {
+                        return "ERR UNKNOWN_ACCOUNT";
+                    }
+                    // The account applies the change under its own lock, so no batch is needed for one account
+                    long amountCents = Long.parseLong(parts[2]);
+                    return respond(parts[0].equals("DEPOSIT")
+                            ? account.tryDepositCents(amountCents)
+                            : account.tryWithdrawCents(amountCents));
+                case "TRANSFER":
+                    if (parts.length != 4) {
+                        return "ERR BAD_REQUEST";
+                    }
+                    BankAccount source = registry.find(parts[1]);
+                    BankAccount target = registry.find(parts[2]);
+                    if (source == null || target == null) {
+                        return "ERR UNKNOWN_ACCOUNT";
+                    }
+                    return respond(engine.tryTransferCents(source, target, Long.parseLong(parts[3])));
+                case "BALANCE":
+                    if (parts.length != 2) {
+                        return "ERR BAD_REQUEST";
+                    }
+                    BankAccount balanceAccount = registry.find(parts[1]);
+                    if (balanceAccount == null) {
+                        return "ERR UNKNOWN_ACCOUNT";
+                    }
+                    Lock lock = TransferEngine.lockFor(balanceAccount);
+                    lock.lock();
+                    try {
+                        return "OK " + balanceAccount.getBalanceCents();
+                    } finally {
+                        lock.unlock();
+                    }
+                default:
+                    return "ERR BAD_REQUEST";
+            }
+        } catch (NumberFormatException e) {
+            return "ERR BAD_REQUEST";
+        }
+    }
+
+    /**
+     * Serves one connection until the client closes its side.
+     * Responses are buffered while more requests are already waiting to be read.
+     * @param in the request stream
+     * @param out the response stream
+     * @throws IOException if the connection fails
+     */
+    public void serve(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        String request;
+        while ((request = reader.readLine()) != null) {
+            writer.write(execute(request));
+            writer.write('\n');
+            if (!reader.ready()) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Starts accepting connections on the loopback interface
+     * @param port the port to listen on, or 0 for any free port
+     * @return the port being listened on
+     * @throws IOException if the port cannot be bound
+     * @throws IllegalStateException if the service is already started
+     */
+    public synchronized int start(int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Service already started");
+        }
+        server = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        ServerSocket listening = server;
+        Thread acceptor = new Thread(() -> accept(listening), "transaction-service-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return server.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections and drops the open ones
+     * @throws IOException if the listening socket cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (server != null) {
+            server.close();
+        }
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        connections.shutdownNow();
+    }
+
+    private String open(String accountNumber, long initialBalanceCents) {
+        if (initialBalanceCents < 0) {
+            return "ERR " + TransactionStatus.INVALID_AMOUNT;
+        }
+        if (registry.find(accountNumber) != null) {
+            return "ERR DUPLICATE_ACCOUNT";
+        }
+        try {
+            registry.register(BankAccount.ofCents(accountNumber, initialBalanceCents));
+            return "OK";
+        } catch (IllegalArgumentException e) {
+            // Either a concurrent request registered the number since the check, or the account was rejected
+            return registry.find(accountNumber) != null ? "ERR DUPLICATE_ACCOUNT" : "ERR BAD_REQUEST";
+        }
+    }
+
+    private static String respond(TransactionStatus status) {
+        return status.isSuccess() ? "OK" : "ERR " + status;
+    }
+
+    private void accept(ServerSocket listening) {
+        while (!listening.isClosed()) {
+            Socket socket;
+            try {
+                socket = listening.accept();
+            } catch (IOException e) {
+                // Closed by close()
+                return;
+            }
+            sockets.add(socket);
+            connections.execute(() -> {
+                try (socket) {
+                    socket.setTcpNoDelay(true);
+                    serve(socket.getInputStream(), socket.getOutputStream());
+                } catch (IOException e) {
+                    // The client went away; nothing to answer
+                } finally {
+                    sockets.remove(socket);
+                }
+            });
+        }
+    }
+
+    /**
+     * Creates an executor that runs each task on a new virtual thread when the runtime supports them,
+     * falling back to a cached pool of daemon threads
+     * @return the executor
+     */
+    static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "transaction-service-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.example;
+
+/**
+ * Outcome of an account operation.
+ * Returned by the {@code try*} methods so that declined operations cost a constant instead of an exception.
+ */
+public enum TransactionStatus {
+    /** The operation was applied */
+    SUCCESS,
+    /** The amount was zero, negative, not a number, or rounded to zero cents */
+    INVALID_AMOUNT,
+    /** The target account was null */
+    INVALID_TARGET,
+    /** The account the operation acts on is closed */
+    INACTIVE_ACCOUNT,
+    /** The account receiving a transfer is closed */
+    INACTIVE_TARGET,
+    /** The balance does not cover the amount */
+    INSUFFICIENT_FUNDS,
+    /** The amount does not fit in cents or the receiving balance would overflow */
+    OVERFLOW,
+    /** The account's velocity limit would be passed */
+    LIMIT_EXCEEDED;
+
+    /**
+     * Checks if the operation was applied
+     * @return true if this is {@link #SUCCESS}
+     */
+    public boolean isSuccess() {
+        return this == SUCCESS;
+    }
+}
@@ -0,0 +1,127 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Executes transfers between {@link BankAccount} instances from many threads at once.
+ * Every account has its own lock, and each transfer locks both accounts in a global order (by a sequence
+ * number each account is given when it is created), so opposite transfers such as A to B and B to A can
+ * never deadlock, and transfers that touch disjoint accounts never wait for each other.
+ * A batch takes the locks of its accounts one after another in the same order, so it needs no more
+ * stack however many accounts it touches, and lets their listeners finish the commit once it has unlocked.
+ * All concurrent access to the accounts must go through these locks.
+ */
+public class TransferEngine {
+    /**
+     * Transfers money atomically: either both balances change or neither does
+     * @param source the account to transfer from
+     * @param target the account to transfer to
+     * @param amount the amount to transfer
+     * @throws IllegalArgumentException if an account is null or amount is invalid
+     * @throws IllegalStateException if insufficient funds or either account is inactive
+     */
+    public void transfer(BankAccount source, BankAccount target, double amount) {
+        if (source == null) {
+            throw new IllegalArgumentException("Source account cannot be null");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("Target account cannot be null");
+        }
+        source.transfer(target, amount);
+    }
+
+    /**
+     * Transfers money atomically without throwing on rejection, so velocity limits, listeners and metrics
+     * apply exactly as for {@link BankAccount#tryTransferCents(BankAccount, long)}
+     * @param source the account to transfer from
+     * @param target the account to transfer to
+     * @param amountCents the amount to transfer in cents
+     * @return the outcome of the transfer
+     * @throws IllegalArgumentException if source is null
+     */
+    public TransactionStatus tryTransferCents(BankAccount source, BankAccount target, long amountCents) {
+        if (source == null) {
+            throw new IllegalArgumentException("Source account cannot be null");
+        }
+        return source.tryTransferCents(target, amountCents);
+    }
+
+    /**
+     * Commits a batch while holding the locks of every account it touches
+     * @param batch the batch to commit
+     * @return the outcome of {@link TransactionBatch#commit()}
+     * @throws IllegalArgumentException if batch is null
+     */
+    public TransactionStatus commit(TransactionBatch batch) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch cannot be null");
+        }
+        BankAccount[] ordered = batch.accounts().toArray(new BankAccount[0]);
+        Arrays.sort(ordered, Comparator.comparingLong(BankAccount::lockOrder));
+        int locked = 0;
+        TransactionStatus status;
+        try {
+            for (BankAccount account : ordered) {
+                account.lock().lock();
+                locked++;
+            }
+            status = batch.commit();
+        } finally {
+            while (locked > 0) {
+                ordered[--locked].lock().unlock();
+            }
+        }
+        if (status == TransactionStatus.SUCCESS) {
+            BankAccount.afterCommit(batch.accounts());
+        }
+        return status;
+    }
+
+    /**
+     * Deposits money into an account under its lock
+     * @param account the account to deposit to
+     * @param amount the amount to deposit
+     * @throws IllegalArgumentException if amount is negative or zero
+     * @throws IllegalStateException if account is not active
+     */
+    public void deposit(BankAccount account, double amount) {
+        account.deposit(amount);
+    }
+
+    /**
+     * Withdraws money from an account under its lock
+     * @param account the account to withdraw from
+     * @param amount the amount to withdraw
+     * @throws IllegalArgumentException if amount is negative or zero
+     * @throws IllegalStateException if insufficient funds or account is not active
+     */
+    public void withdraw(BankAccount account, double amount) {
+        account.withdraw(amount);
+    }
+
+    /**
+     * Reads the balance of an account under its lock
+     * @param account the account
+     * @return the current balance
+     */
+    public double getBalance(BankAccount account) {
+        Lock lock = lockFor(account);
+        lock.lock();
+        try {
+            return account.getBalance();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the lock that guards an account
+     * @param account the account
+     * @return the lock to hold while reading or changing the account
+     */
+    static Lock lockFor(BankAccount account) {
+        return account.lock();
+    }
+}
@@ -0,0 +1,93 @@
+package org.example;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernels written with the incubating Vector API, processing as many lanes per instruction as the CPU offers.
+ * Only loaded by {@link IntArrayKernel#best()} when the runtime has {@code --add-modules jdk.incubator.vector}.
+ */
+class VectorIntArrayKernel implements IntArrayKernel {
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    // Division widens ints to doubles, so it loads half as many ints as a double vector has bits for
+    private static final VectorSpecies<Integer> HALF_INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    private final ScalarIntArrayKernel tail = new ScalarIntArrayKernel();
+
+    @Override
+    public void add(int[] a, int aOffset, int[] b, int bOffset, int[] result, int resultOffset, int length) {
+        int bound = INTS.loopBound(length);
+        for (int i = 0; i < bound; i += INTS.length()) {
+            IntVector.fromArray(INTS, a, aOffset + i)
+                    .add(IntVector.fromArray(INTS, b, bOffset + i))
+                    .intoArray(result, resultOffset + i);
+        }
+        tail.add(a, aOffset + bound, b, bOffset + bound, result, resultOffset + bound, length - bound);
+    }
+
+    @Override
+    public void subtract(int[] a, int aOffset, int[] b, int bOffset, int[] result, int resultOffset, int length) {
+        int bound = INTS.loopBound(length);
+        for (int i = 0; i < bound; i += INTS.length()) {
+            IntVector.fromArray(INTS, a, aOffset + i)
+                    .sub(IntVector.fromArray(INTS, b, bOffset + i))
+                    .intoArray(result, resultOffset + i);
+        }
+        tail.subtract(a, aOffset + bound, b, bOffset + bound, result, resultOffset + bound, length - bound);
+    }
+
+    @Override
+    public void multiply(int[] a, int aOffset, int[] b, int bOffset, int[] result, int resultOffset, int length) {
+        int bound = INTS.loopBound(length);
+        for (int i = 0; i < bound; i += INTS.length()) {
+            IntVector.fromArray(INTS, a, aOffset + i)
+                    .mul(IntVector.fromArray(INTS, b, bOffset + i))
+                    .intoArray(result, resultOffset + i);
+        }
+        tail.multiply(a, aOffset + bound, b, bOffset + bound, result, resultOffset + bound, length - bound);
+    }
+
+    @Override
+    public void divide(int[] a, int aOffset, int[] b, int bOffset, double[] result, int resultOffset, int length) {
+        int bound = HALF_INTS.loopBound(length);
+        for (int i = 0; i < bound; i += HALF_INTS.length()) {
+            DoubleVector dividend = (DoubleVector) IntVector.fromArray(HALF_INTS, a, aOffset + i)
+                    .convertShape(VectorOperators.I2D, DOUBLES, 0);
+            DoubleVector divisor = (DoubleVector) IntVector.fromArray(HALF_INTS, b, bOffset + i)
+                    .convertShape(VectorOperators.I2D, DOUBLES, 0);
+            dividend.div(divisor).intoArray(result, resultOffset + i);
+        }
+        tail.divide(a, aOffset + bound, b, bOffset + bound, result, resultOffset + bound, length - bound);
+    }
+
+    @Override
+    public boolean containsZero(int[] a, int offset, int length) {
+        int bound = INTS.loopBound(length);
+        for (int i = 0; i < bound; i += INTS.length()) {
+            if (IntVector.fromArray(INTS, a, offset + i).eq(0).anyTrue()) {
+                return true;
+            }
+        }
+        return tail.containsZero(a, offset + bound, length - bound);
+    }
+
+    @Override
+    public void absolute(int[] a, int aOffset, int[] result, int resultOffset, int length) {
+        int bound = INTS.loopBound(length);
+        for (int i = 0; i < bound; i += INTS.length()) {
+            IntVector.fromArray(INTS, a, aOffset + i).abs().intoArray(result, resultOffset + i);
+        }
+        tail.absolute(a, aOffset + bound, result, resultOffset + bound, length - bound);
+    }
+
+    @Override
+    public void evenBits(int[] values, long[] words) {
+        // VectorMask.toLong is not intrinsified on this JDK and measured no faster than the scalar packing
+        tail.evenBits(values, words);
+    }
+}
@@ -0,0 +1,167 @@
+package org.example;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps how many withdrawals and how much money may leave an account within a sliding time window.
+ * The window is split into buckets held in primitive arrays; as time moves on, buckets that fall out of
+ * the window are cleared and subtracted from running totals, so a check costs a few array accesses
+ * and never allocates. The window slides in steps of one bucket.
+ * <p>
+ * Set a limit on an account with {@link BankAccount#setVelocityLimit(VelocityLimit)}; withdrawals and
+ * outgoing transfers are then declined with {@link TransactionStatus#LIMIT_EXCEEDED} once either cap
+ * would be passed. One limit may be shared by several accounts to cap them together, and by several threads.
+ * A {@link TransactionBatch} acquires the limits of the accounts it draws from as it validates, and releases
+ * them again if the batch is rejected.
+ */
+public class VelocityLimit {
+    private final int maxOperations;
+    private final long maxAmountCents;
+    private final long bucketNanos;
+    private final LongSupplier clock;
+    private final int[] bucketOperations;
+    private final long[] bucketAmounts;
+
+    private long bucketStart;
+    private long currentBucket;
+    private int currentSlot;
+    private int windowOperations;
+    private long windowAmountCents;
+
+    /**
+     * Creates a limit that reads time from {@link System#nanoTime()}
+     * @param window the length of the sliding window
+     * @param buckets how many steps the window slides in
+     * @param maxOperations the most withdrawals allowed within the window
+     * @param maxAmountCents the most money in cents allowed to leave within the window
+     */
+    public VelocityLimit(Duration window, int buckets, int maxOperations, long maxAmountCents) {
+        this(window, buckets, maxOperations, maxAmountCents, System::nanoTime);
+    }
+
+    /**
+     * Creates a limit
+     * @param window the length of the sliding window
+     * @param buckets how many steps the window slides in
+     * @param maxOperations the most withdrawals allowed within the window
+     * @param maxAmountCents the most money in cents allowed to leave within the window
+     * @param clock the source of monotonic time in nanoseconds
+     * @throws IllegalArgumentException if any argument is null, not positive, or the window is shorter than one nanosecond per bucket
+     */
+    public VelocityLimit(Duration window, int buckets, int maxOperations, long maxAmountCents, LongSupplier clock) {
+        if (window == null || clock == null) {
+            throw new IllegalArgumentException("Window and clock cannot be null");
+        }
+        if (buckets <= 0 || window.toNanos() < buckets) {
+            throw new IllegalArgumentException("Window must be at least one nanosecond per bucket");
+        }
+        if (maxOperations <= 0 || maxAmountCents <= 0) {
+            throw new IllegalArgumentException("Limits must be positive");
+        }
+        this.maxOperations = maxOperations;
+        this.maxAmountCents = maxAmountCents;
+        this.bucketNanos = window.toNanos() / buckets;
+        this.clock = clock;
+        this.bucketOperations = new int[buckets];
+        this.bucketAmounts = new long[buckets];
+        this.bucketStart = clock.getAsLong();
+    }
+
+    /**
+     * Records a withdrawal if it fits within both caps
+     * @param amountCents the amount about to leave the account
+     * @return true if recorded, false if it would pass a cap
+     */
+    public boolean tryAcquire(long amountCents) {
+        return acquire(amountCents) >= 0;
+    }
+
+    /**
+     * Records a withdrawal if it fits within both caps
+     * @param amountCents the amount about to leave the account
+     * @return the number of the bucket it was recorded in, to pass to {@link #release}, or -1 if it would pass a cap
+     */
+    synchronized long acquire(long amountCents) {
+        advance();
+        if (windowOperations >= maxOperations || amountCents > maxAmountCents - windowAmountCents) {
+            return -1;
+        }
+        bucketOperations[currentSlot]++;
+        bucketAmounts[currentSlot] += amountCents;
+        windowOperations++;
+        windowAmountCents += amountCents;
+        return currentBucket;
+    }
+
+    /**
+     * Takes back a withdrawal recorded by {@link #acquire} that did not happen after all.
+     * Nothing is left to take back once its bucket has slid out of the window.
+     * @param amountCents the amount that was acquired
+     * @param bucket the bucket number returned by {@link #acquire}
+     */
+    synchronized void release(long amountCents, long bucket) {
+        advance();
+        long age = currentBucket - bucket;
+        int buckets = bucketOperations.length;
+        if (age >= buckets) {
+            return;
+        }
+        int slot = (int) ((currentSlot - age + buckets) % buckets);
+        bucketOperations[slot]--;
+        bucketAmounts[slot] -= amountCents;
+        windowOperations--;
+        windowAmountCents -= amountCents;
+    }
+
+    /**
+     * Gets the number of withdrawals recorded within the current window
+     * @return the number of withdrawals
+     */
+    public synchronized int getWindowOperations() {
+        advance();
+        return windowOperations;
+    }
+
+    /**
+     * Gets the amount recorded within the current window
+     * @return the amount in cents
+     */
+    public synchronized long getWindowAmountCents() {
+        advance();
+        return windowAmountCents;
+    }
+
+    /**
+     * Moves the window up to the current time, dropping the buckets that fell out of it.
+     * Within the current bucket this is one clock read and one comparison.
+     */
+    private void advance() {
+        long elapsed = clock.getAsLong() - bucketStart;
+        if (elapsed < bucketNanos) {
+            return;
+        }
+        long steps = elapsed / bucketNanos;
+        int buckets = bucketOperations.length;
+        if (steps >= buckets) {
+            for (int i = 0; i < buckets; i++) {
+                bucketOperations[i] = 0;
+                bucketAmounts[i] = 0;
+            }
+            windowOperations = 0;
+            windowAmountCents = 0;
+        } else {
+            int slot = currentSlot;
+            for (long step = 0; step < steps; step++) {
+                slot = slot + 1 == buckets ? 0 : slot + 1;
+                windowOperations -= bucketOperations[slot];
+                windowAmountCents -= bucketAmounts[slot];
+                bucketOperations[slot] = 0;
+                bucketAmounts[slot] = 0;
+            }
+            currentSlot = slot;
+        }
+        bucketStart += steps * bucketNanos;
+        currentBucket += steps;
+    }
+}
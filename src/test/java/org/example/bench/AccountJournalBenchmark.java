@@ -0,0 +1,58 @@
+package org.example.bench;
+
+import org.example.AccountJournal;
+import org.example.AccountOperation;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures durable journal appends per second for groups of 1 to 64 records with 1 to 64 concurrent writers.
+ * Each writer appends a group, as a transfer or batch does, and waits for it to be durable, so the average
+ * group commit holds roughly one group per waiting writer and larger groups spread each force over more records.
+ * Run after {@code mvn test-compile} with: java -cp target/classes:target/test-classes org.example.bench.AccountJournalBenchmark
+ */
+public class AccountJournalBenchmark {
+    private static final int RECORDS_PER_WRITER = 2_048;
+
+    public static void main(String[] args) throws Exception {
+        for (int groupSize : new int[] {1, 2, 16, 64}) {
+            for (int writers : new int[] {1, 4, 16, 64}) {
+                run(groupSize, writers);
+            }
+        }
+    }
+
+    private static void run(int groupSize, int writers) throws Exception {
+        Path file = Files.createTempFile("journal-bench", ".journal");
+        try (AccountJournal journal = new AccountJournal(file)) {
+            List<Thread> threads = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int w = 0; w < writers; w++) {
+                List<AccountJournal.Entry> group = new ArrayList<>(groupSize);
+                for (int i = 0; i < groupSize; i++) {
+                    group.add(new AccountJournal.Entry("ACC-" + w + "-" + i, AccountOperation.DEPOSIT, 100L, 100L));
+                }
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < RECORDS_PER_WRITER / groupSize; i++) {
+                        journal.sync(journal.append(group));
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long records = (long) writers * (RECORDS_PER_WRITER / groupSize) * groupSize;
+            System.out.printf("group %2d, writers %2d: %,10.0f records/s, %,9.0f groups/s, %6.1f records per force%n",
+                    groupSize, writers, records / seconds, records / groupSize / seconds,
+                    (double) records / journal.getSyncCount());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.bench;
+
+import org.example.AccountMetrics;
+import org.example.BankAccount;
+
+/**
+ * Reports the cost of metrics on each mutation, comparing deposits and withdrawals
+ * on an account without metrics against one with {@link AccountMetrics} set.
+ * Run after {@code mvn test-compile} with: java -cp target/classes:target/test-classes org.example.bench.AccountMetricsBenchmark
+ */
+public class AccountMetricsBenchmark {
+    private static final int OPERATIONS = 50_000_000;
+
+    public static void main(String[] args) {
+        for (int pass = 0; pass < 3; pass++) {
+            BankAccount plain = BankAccount.ofCents("PLAIN", 1_000L);
+            BankAccount measured = BankAccount.ofCents("MEASURED", 1_000L);
+            AccountMetrics metrics = new AccountMetrics();
+            measured.setMetrics(metrics);
+            System.out.printf("pass %d: without metrics %.2f ns/op, with metrics %.2f ns/op, p99 %d ns%n",
+                    pass, nanosPerOperation(plain), nanosPerOperation(measured), metrics.getDepositP99Nanos());
+        }
+    }
+
+    private static double nanosPerOperation(BankAccount account) {
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            if ((i & 1) == 0) {
+                account.depositCents(7L);
+            } else {
+                account.withdrawCents(7L);
+            }
+        }
+        return (System.nanoTime() - start) / (double) OPERATIONS;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.bench;
+
+import org.example.AccountStore;
+import org.example.AccrualJob;
+import org.example.BankAccount;
+
+/**
+ * Compares the bulk accrual job over a columnar store against looping over {@link BankAccount}
+ * objects and calling deposit and withdraw one account at a time.
+ * Run after {@code mvn test-compile} with: java -cp target/classes:target/test-classes org.example.bench.AccrualJobBenchmark [accounts]
+ */
+public class AccrualJobBenchmark {
+
+    public static void main(String[] args) {
+        int accounts = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        AccountStore store = new AccountStore(accounts);
+        BankAccount[] objects = new BankAccount[accounts];
+        for (int i = 0; i < accounts; i++) {
+            long balance = (i * 7_919L) % 5_000_000L;
+            store.open("ACC-" + i, balance);
+            objects[i] = BankAccount.ofCents("ACC-" + i, balance);
+            if (i % 16 == 0) {
+                store.close(i);
+                objects[i].closeAccount();
+            }
+        }
+        AccrualJob job = new AccrualJob().tier(0L, 0, 500L).tier(100_000L, 100, 0L).tier(1_000_000L, 200, 0L);
+
+        for (int pass = 0; pass < 3; pass++) {
+            long start = System.nanoTime();
+            for (BankAccount account : objects) {
+                if (!account.isActive()) {
+                    continue;
+                }
+                long balance = account.getBalanceCents();
+                long interest = balance >= 1_000_000L ? balance * 200 / 10_000 : balance >= 100_000L ? balance * 100 / 10_000 : 0L;
+                long fee = balance >= 100_000L ? 0L : Math.min(500L, balance);
+                if (interest > 0) {
+                    account.depositCents(interest);
+                }
+                if (fee > 0) {
+                    account.withdrawCents(fee);
+                }
+            }
+            double perAccount = accounts * 1e9 / (System.nanoTime() - start);
+
+            AccrualJob.Result result = job.run(store);
+            System.out.printf("pass %d: per-account %,.0f accounts/s, bulk job %,.0f accounts/s%n",
+                    pass, perAccount, result.accountsPerSecond());
+        }
+    }
+}
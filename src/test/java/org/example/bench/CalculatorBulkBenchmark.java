@@ -0,0 +1,61 @@
+package org.example.bench;
+
+import org.example.Calculator;
+
+import java.util.Random;
+
+/**
+ * Reports the throughput of the bulk {@link Calculator} operations against a loop calling the scalar methods.
+ * Run after {@code mvn test-compile} with:
+ * java --add-modules jdk.incubator.vector -cp target/classes:target/test-classes org.example.bench.CalculatorBulkBenchmark
+ * (leave out {@code --add-modules} to measure the scalar fallback)
+ */
+public class CalculatorBulkBenchmark {
+    private static final int LENGTH = 1 << 20;
+    private static final int ROUNDS = 200;
+
+    public static void main(String[] args) {
+        Calculator calculator = new Calculator();
+        Random random = new Random(42);
+        int[] a = random.ints(LENGTH).toArray();
+        int[] b = random.ints(LENGTH, 1, Integer.MAX_VALUE).toArray();
+        int[] ints = new int[LENGTH];
+        double[] doubles = new double[LENGTH];
+        System.out.println("vectorized: " + Calculator.isVectorized());
+        for (int pass = 0; pass < 3; pass++) {
+            long scalarAdd = time(() -> {
+                for (int i = 0; i < LENGTH; i++) {
+                    ints[i] = calculator.add(a[i], b[i]);
+                }
+            });
+            long bulkAdd = time(() -> calculator.add(a, b, ints));
+            long scalarMultiply = time(() -> {
+                for (int i = 0; i < LENGTH; i++) {
+                    ints[i] = calculator.multiply(a[i], b[i]);
+                }
+            });
+            long bulkMultiply = time(() -> calculator.multiply(a, b, ints));
+            long scalarDivide = time(() -> {
+                for (int i = 0; i < LENGTH; i++) {
+                    doubles[i] = calculator.divide(a[i], b[i]);
+                }
+            });
+            long bulkDivide = time(() -> calculator.divide(a, b, doubles));
+            System.out.printf("pass %d: add %.2f -> %.2f, multiply %.2f -> %.2f, divide %.2f -> %.2f ns/element%n", pass,
+                    perElement(scalarAdd), perElement(bulkAdd), perElement(scalarMultiply), perElement(bulkMultiply),
+                    perElement(scalarDivide), perElement(bulkDivide));
+        }
+    }
+
+    private static long time(Runnable round) {
+        long start = System.nanoTime();
+        for (int r = 0; r < ROUNDS; r++) {
+            round.run();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static double perElement(long nanos) {
+        return nanos / (double) LENGTH / ROUNDS;
+    }
+}
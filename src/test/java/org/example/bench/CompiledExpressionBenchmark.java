@@ -0,0 +1,42 @@
+package org.example.bench;
+
+import org.example.Calculator;
+import org.example.CompiledExpression;
+
+/**
+ * Reports the cost of evaluating {@code (a + b) * c / d} through a held {@link CompiledExpression},
+ * through a cache lookup by source text on every call, and through hand-written {@link Calculator} calls.
+ * Run after {@code mvn test-compile} with: java -cp target/classes:target/test-classes org.example.bench.CompiledExpressionBenchmark
+ */
+public class CompiledExpressionBenchmark {
+    private static final String FORMULA = "(a + b) * c / d";
+    private static final int EVALUATIONS = 20_000_000;
+
+    public static void main(String[] args) {
+        Calculator calculator = new Calculator();
+        CompiledExpression expression = CompiledExpression.compile(FORMULA);
+        int[] values = {0, 3, 5, 7};
+        for (int pass = 0; pass < 3; pass++) {
+            double sink = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < EVALUATIONS; i++) {
+                values[0] = i;
+                sink += expression.evaluate(values);
+            }
+            long held = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < EVALUATIONS; i++) {
+                values[0] = i;
+                sink += CompiledExpression.compile(FORMULA).evaluate(values);
+            }
+            long looked = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < EVALUATIONS; i++) {
+                sink += calculator.divide(calculator.multiply(calculator.add(i, 3), 5), 7);
+            }
+            long direct = System.nanoTime() - start;
+            System.out.printf("pass %d: compiled %.2f ns, cached by source %.2f ns, direct calls %.2f ns (%s)%n", pass,
+                    held / (double) EVALUATIONS, looked / (double) EVALUATIONS, direct / (double) EVALUATIONS, sink > 0);
+        }
+    }
+}
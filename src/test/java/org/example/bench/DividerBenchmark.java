@@ -0,0 +1,49 @@
+package org.example.bench;
+
+import org.example.Calculator;
+import org.example.Divider;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Reports the cost of dividing an array by one divisor with a loop over {@link Calculator#divide(int, int)},
+ * with {@link Calculator#divide(int[], int[], double[])} and with a {@link Divider}.
+ * Run after {@code mvn test-compile} with: java -cp target/classes:target/test-classes org.example.bench.DividerBenchmark
+ */
+public class DividerBenchmark {
+    private static final int LENGTH = 1 << 16;
+    private static final int ROUNDS = 2_000;
+    private static final int DIVISOR = 12_345;
+
+    public static void main(String[] args) {
+        Calculator calculator = new Calculator();
+        Divider divider = calculator.divider(DIVISOR);
+        int[] dividends = new Random(42).ints(LENGTH).toArray();
+        int[] divisors = new int[LENGTH];
+        Arrays.fill(divisors, DIVISOR);
+        double[] quotients = new double[LENGTH];
+        for (int pass = 0; pass < 3; pass++) {
+            long start = System.nanoTime();
+            for (int r = 0; r < ROUNDS; r++) {
+                for (int i = 0; i < LENGTH; i++) {
+                    quotients[i] = calculator.divide(dividends[i], DIVISOR);
+                }
+            }
+            long scalar = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int r = 0; r < ROUNDS; r++) {
+                calculator.divide(dividends, divisors, quotients);
+            }
+            long bulk = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int r = 0; r < ROUNDS; r++) {
+                divider.divide(dividends, quotients);
+            }
+            long reciprocal = System.nanoTime() - start;
+            double elements = (double) LENGTH * ROUNDS;
+            System.out.printf("pass %d: divide loop %.2f, bulk divide %.2f, divider %.2f ns/element%n",
+                    pass, scalar / elements, bulk / elements, reciprocal / elements);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.bench;
+
+import org.example.Calculator;
+import org.example.IntAggregation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+/**
+ * Reports aggregation throughput of a hand-rolled loop over {@link Calculator}, of {@link IntAggregation}
+ * over an array, and of {@link IntAggregation} over a memory-mapped file of the same ints.
+ * Run after {@code mvn test-compile} with: java -cp target/classes:target/test-classes org.example.bench.IntAggregationBenchmark
+ */
+public class IntAggregationBenchmark {
+    private static final int LENGTH = 1 << 24;
+
+    public static void main(String[] args) throws IOException {
+        Calculator calculator = new Calculator();
+        int[] values = new SplittableRandom(42).ints(LENGTH).toArray();
+        Path file = Files.createTempFile("ints", ".bin");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer bytes = ByteBuffer.allocate(LENGTH * Integer.BYTES).order(ByteOrder.nativeOrder());
+            bytes.asIntBuffer().put(values);
+            channel.write(bytes);
+        }
+        try {
+            for (int pass = 0; pass < 3; pass++) {
+                long start = System.nanoTime();
+                long sum = 0;
+                long even = 0;
+                int min = Integer.MAX_VALUE;
+                int max = Integer.MIN_VALUE;
+                for (int value : values) {
+                    sum += value;
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                    even += calculator.isEven(value) ? 1 : 0;
+                }
+                long loop = System.nanoTime() - start;
+                start = System.nanoTime();
+                IntAggregation array = IntAggregation.of(values);
+                long aggregated = System.nanoTime() - start;
+                start = System.nanoTime();
+                IntAggregation mapped = IntAggregation.ofFile(file, ByteOrder.nativeOrder());
+                long fromFile = System.nanoTime() - start;
+                System.out.printf("pass %d: loop %.0f, array %.0f, mapped file %.0f M ints/s (%b)%n", pass,
+                        LENGTH * 1e3 / loop, LENGTH * 1e3 / aggregated, LENGTH * 1e3 / fromFile,
+                        array.getSum() == sum && mapped.getEvenCount() == even && array.getMin() == min && mapped.getMax() == max);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.bench;
+
+import org.example.Calculator;
+import org.example.ParityBitSet;
+
+import java.util.SplittableRandom;
+
+/**
+ * Reports the cost of classifying and filtering ints by parity with a {@code boolean[]} loop over
+ * {@link Calculator#isEven(int)} and with a {@link ParityBitSet}, and of {@link Calculator#absolute(int)} in a loop
+ * against the bulk {@link Calculator#absolute(int[], int[])}.
+ * Run after {@code mvn test-compile} with:
+ * java --add-modules jdk.incubator.vector -cp target/classes:target/test-classes org.example.bench.ParityBitSetBenchmark
+ * (leave out {@code --add-modules} to measure the scalar kernels)
+ */
+public class ParityBitSetBenchmark {
+    private static final int LENGTH = 1 << 25;
+
+    public static void main(String[] args) {
+        Calculator calculator = new Calculator();
+        int[] values = new SplittableRandom(42).ints(LENGTH).toArray();
+        boolean[] flags = new boolean[LENGTH];
+        int[] out = new int[LENGTH];
+        System.out.println("vectorized: " + Calculator.isVectorized());
+        for (int pass = 0; pass < 8; pass++) {
+            long start = System.nanoTime();
+            int flagged = 0;
+            for (int i = 0; i < LENGTH; i++) {
+                flags[i] = calculator.isEven(values[i]);
+            }
+            for (int i = 0; i < LENGTH; i++) {
+                flagged += flags[i] ? 1 : 0;
+            }
+            long booleans = System.nanoTime() - start;
+            start = System.nanoTime();
+            ParityBitSet parity = calculator.isEven(values);
+            int counted = parity.countEven();
+            long bits = System.nanoTime() - start;
+            start = System.nanoTime();
+            int selected = parity.selectEven(values, out);
+            long select = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < LENGTH; i++) {
+                out[i] = calculator.absolute(values[i]);
+            }
+            long absoluteLoop = System.nanoTime() - start;
+            start = System.nanoTime();
+            calculator.absolute(values, out);
+            long absoluteBulk = System.nanoTime() - start;
+            System.out.printf("pass %d: boolean[] %.2f, bitset %.2f, select %.2f, absolute loop %.2f, bulk %.2f ns/value (%b)%n",
+                    pass, booleans / (double) LENGTH, bits / (double) LENGTH, select / (double) LENGTH,
+                    absoluteLoop / (double) LENGTH, absoluteBulk / (double) LENGTH, flagged == counted && counted == selected);
+        }
+    }
+}
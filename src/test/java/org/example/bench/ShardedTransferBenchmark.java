@@ -0,0 +1,41 @@
+package org.example.bench;
+
+import org.example.ShardedTransferExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Reports transfer throughput of the sharded executor from 1 to N shards.
+ * Half of the transfers stay inside one shard and half cross shards.
+ * Run after {@code mvn test-compile} with: java -cp target/classes:target/test-classes org.example.bench.ShardedTransferBenchmark [maxShards]
+ */
+public class ShardedTransferBenchmark {
+    private static final int ACCOUNTS_PER_SHARD = 1_024;
+    private static final int TRANSFERS = 2_000_000;
+
+    public static void main(String[] args) throws Exception {
+        int maxShards = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        for (int shards = 1; shards <= maxShards; shards++) {
+            try (ShardedTransferExecutor executor = new ShardedTransferExecutor(shards, 4_096)) {
+                int accounts = shards * ACCOUNTS_PER_SHARD;
+                for (int i = 0; i < accounts; i++) {
+                    executor.open("ACC-" + i, 1_000_000L);
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                CompletableFuture<?> last = null;
+                long start = System.nanoTime();
+                for (int i = 0; i < TRANSFERS; i++) {
+                    int source = random.nextInt(accounts);
+                    int target = (i & 1) == 0
+                            ? (source + shards * (1 + random.nextInt(ACCOUNTS_PER_SHARD - 1))) % accounts
+                            : random.nextInt(accounts);
+                    last = executor.transfer(source, target, 1L);
+                }
+                last.join();
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("shards %2d: %,12.0f transfers/s%n", shards, TRANSFERS / seconds);
+            }
+        }
+    }
+}
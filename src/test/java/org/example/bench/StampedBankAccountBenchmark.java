@@ -0,0 +1,67 @@
+package org.example.bench;
+
+import org.example.BankAccount;
+import org.example.StampedBankAccount;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongSupplier;
+
+/**
+ * Compares a read-heavy mix (20 balance reads per deposit) on one shared account
+ * guarded by {@code synchronized} against the optimistic reads of {@link StampedBankAccount}.
+ * Run after {@code mvn test-compile} with: java -cp target/classes:target/test-classes org.example.bench.StampedBankAccountBenchmark [threads]
+ */
+public class StampedBankAccountBenchmark {
+    private static final int OPERATIONS_PER_THREAD = 4_200_000;
+    private static final int READS_PER_WRITE = 20;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Math.max(2, Runtime.getRuntime().availableProcessors());
+        for (int round = 0; round < 3; round++) {
+            BankAccount locked = new BankAccount("LOCKED");
+            report("synchronized", threads, () -> {
+                synchronized (locked) {
+                    return locked.getBalanceCents();
+                }
+            }, () -> {
+                synchronized (locked) {
+                    locked.depositCents(1L);
+                }
+            });
+            StampedBankAccount stamped = new StampedBankAccount("STAMPED");
+            report("stamped", threads, stamped::getBalanceCents, () -> stamped.deposit(0.01));
+        }
+    }
+
+    private static void report(String name, int threads, LongSupplier read, Runnable write) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    long sink = 0;
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        if (i % (READS_PER_WRITE + 1) == 0) {
+                            write.run();
+                        } else {
+                            sink += read.getAsLong();
+                        }
+                    }
+                    return sink;
+                }));
+            }
+            for (Future<Long> result : results) {
+                result.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%-12s %2d threads: %,14.0f ops/s%n", name, threads, threads * OPERATIONS_PER_THREAD / seconds);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.bench;
+
+import org.example.BankAccount;
+import org.example.TransactionBatch;
+import org.example.TransferEngine;
+
+/**
+ * Compares committing a batch through the engine against calling deposit/withdraw once per operation,
+ * both with the per-account locking that shared accounts need and without it.
+ * Run after {@code mvn test-compile} with: java -cp target/classes:target/test-classes org.example.bench.TransactionBatchBenchmark
+ */
+public class TransactionBatchBenchmark {
+    private static final int ACCOUNTS = 8;
+    private static final int OPERATIONS = 4_096;
+    private static final int ROUNDS = 2_000;
+
+    public static void main(String[] args) {
+        for (int pass = 0; pass < 3; pass++) {
+            System.out.printf("pass %d: unlocked per-call %,.0f ops/s, locked per-call %,.0f ops/s, batch %,.0f ops/s%n",
+                    pass, perCall(), lockedPerCall(), batched());
+        }
+    }
+
+    private static double perCall() {
+        BankAccount[] accounts = accounts();
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int op = 0; op < OPERATIONS; op++) {
+                BankAccount account = accounts[(op / 2) % ACCOUNTS];
+                if ((op & 1) == 0) {
+                    account.depositCents(100L);
+                } else {
+                    account.withdrawCents(100L);
+                }
+            }
+        }
+        return opsPerSecond(start);
+    }
+
+    private static double lockedPerCall() {
+        BankAccount[] accounts = accounts();
+        TransferEngine engine = new TransferEngine();
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int op = 0; op < OPERATIONS; op++) {
+                BankAccount account = accounts[(op / 2) % ACCOUNTS];
+                if ((op & 1) == 0) {
+                    engine.deposit(account, 1.0);
+                } else {
+                    engine.withdraw(account, 1.0);
+                }
+            }
+        }
+        return opsPerSecond(start);
+    }
+
+    private static double batched() {
+        TransferEngine engine = new TransferEngine();
+        BankAccount[] accounts = accounts();
+        TransactionBatch batch = new TransactionBatch();
+        for (int op = 0; op < OPERATIONS; op++) {
+            BankAccount account = accounts[(op / 2) % ACCOUNTS];
+            if ((op & 1) == 0) {
+                batch.deposit(account, 100L);
+            } else {
+                batch.withdraw(account, 100L);
+            }
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            engine.commit(batch);
+        }
+        return opsPerSecond(start);
+    }
+
+    private static BankAccount[] accounts() {
+        BankAccount[] accounts = new BankAccount[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts[i] = BankAccount.ofCents("ACC" + i, 1_000_000L);
+        }
+        return accounts;
+    }
+
+    private static double opsPerSecond(long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return (double) OPERATIONS * ROUNDS / seconds;
+    }
+}
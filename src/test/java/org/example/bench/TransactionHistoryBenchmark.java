@@ -0,0 +1,35 @@
+package org.example.bench;
+
+import org.example.BankAccount;
+import org.example.TransactionHistory;
+
+/**
+ * Reports the cost of recording history on each mutation, comparing deposits and withdrawals
+ * on an account without a listener against one with a {@link TransactionHistory} attached.
+ * Run after {@code mvn test-compile} with: java -cp target/classes:target/test-classes org.example.bench.TransactionHistoryBenchmark
+ */
+public class TransactionHistoryBenchmark {
+    private static final int OPERATIONS = 50_000_000;
+
+    public static void main(String[] args) {
+        for (int pass = 0; pass < 3; pass++) {
+            BankAccount plain = BankAccount.ofCents("PLAIN", 1_000L);
+            BankAccount recorded = BankAccount.ofCents("RECORDED", 1_000L);
+            TransactionHistory.attach(recorded, 256);
+            System.out.printf("pass %d: without history %.2f ns/op, with history %.2f ns/op%n",
+                    pass, nanosPerOperation(plain), nanosPerOperation(recorded));
+        }
+    }
+
+    private static double nanosPerOperation(BankAccount account) {
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            if ((i & 1) == 0) {
+                account.depositCents(7L);
+            } else {
+                account.withdrawCents(7L);
+            }
+        }
+        return (System.nanoTime() - start) / (double) OPERATIONS;
+    }
+}
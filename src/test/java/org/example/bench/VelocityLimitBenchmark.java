@@ -0,0 +1,32 @@
+package org.example.bench;
+
+import org.example.BankAccount;
+import org.example.VelocityLimit;
+
+import java.time.Duration;
+
+/**
+ * Reports the cost a velocity limit adds to each withdrawal.
+ * Run after {@code mvn test-compile} with: java -cp target/classes:target/test-classes org.example.bench.VelocityLimitBenchmark
+ */
+public class VelocityLimitBenchmark {
+    private static final int OPERATIONS = 20_000_000;
+
+    public static void main(String[] args) {
+        for (int pass = 0; pass < 3; pass++) {
+            BankAccount plain = BankAccount.ofCents("PLAIN", Long.MAX_VALUE / 2);
+            BankAccount limited = BankAccount.ofCents("LIMITED", Long.MAX_VALUE / 2);
+            limited.setVelocityLimit(new VelocityLimit(Duration.ofMinutes(1), 60, Integer.MAX_VALUE, Long.MAX_VALUE));
+            System.out.printf("pass %d: without limit %.2f ns/op, with limit %.2f ns/op%n",
+                    pass, nanosPerOperation(plain), nanosPerOperation(limited));
+        }
+    }
+
+    private static double nanosPerOperation(BankAccount account) {
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            account.withdrawCents(1L);
+        }
+        return (System.nanoTime() - start) / (double) OPERATIONS;
+    }
+}
@@ -0,0 +1,310 @@
+package org.example.wip;
+
+import org.example.AccountJournal;
+import org.example.AccountOperation;
+import org.example.AccountRegistry;
+import org.example.BankAccount;
+import org.example.TransactionBatch;
+import org.example.TransferEngine;
+import org.example.VelocityLimit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AccountJournal Unit Tests")
+public class AccountJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Should record every account change in order")
+    void whenAccountsChangeThenJournalRecordsEachChange() throws Exception {
+        // Arrange
+        Path file = dir.resolve("accounts.journal");
+        BankAccount source = BankAccount.ofCents("ACC001", 10_000L);
+        BankAccount target = BankAccount.ofCents("ACC002", 0L);
+
+        // Act
+        try (AccountJournal journal = new AccountJournal(file)) {
+            source.setListener(journal);
+            target.setListener(journal);
+            source.depositCents(500L);
+            source.withdrawCents(1_500L);
+            source.transferCents(target, 2_000L);
+            target.closeAccount();
+        }
+        List<AccountJournal.Entry> entries = AccountJournal.read(file);
+
+        // Assert
+        assertEquals(5, entries.size());
+        assertEquals(new AccountJournal.Entry("ACC001", AccountOperation.DEPOSIT, 500L, 10_500L), entries.get(0));
+        assertEquals(new AccountJournal.Entry("ACC001", AccountOperation.WITHDRAWAL, 1_500L, 9_000L), entries.get(1));
+        assertEquals(new AccountJournal.Entry("ACC001", AccountOperation.TRANSFER_OUT, 2_000L, 7_000L), entries.get(2));
+        assertEquals(new AccountJournal.Entry("ACC002", AccountOperation.TRANSFER_IN, 2_000L, 2_000L), entries.get(3));
+        assertEquals(new AccountJournal.Entry("ACC002", AccountOperation.CLOSE, 0L, 2_000L,
+                target.getClosedAt().toEpochMilli()), entries.get(4));
+    }
+
+    @Test
+    @DisplayName("Should not record rejected operations")
+    void whenOperationRejectedThenNothingIsJournaled() throws Exception {
+        // Arrange
+        Path file = dir.resolve("rejected.journal");
+        BankAccount account = BankAccount.ofCents("ACC001", 100L);
+
+        // Act
+        try (AccountJournal journal = new AccountJournal(file)) {
+            account.setListener(journal);
+            account.tryWithdrawCents(1_000L);
+        }
+
+        // Assert
+        assertTrue(AccountJournal.read(file).isEmpty());
+        assertTrue(AccountJournal.read(dir.resolve("missing.journal")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should leave the accounts untouched when a change cannot be journaled")
+    void whenChangeCannotBeJournaledThenNothingIsApplied() throws Exception {
+        // Arrange
+        Path file = dir.resolve("write-ahead.journal");
+        BankAccount unjournalable = BankAccount.ofCents("X".repeat(Short.MAX_VALUE + 1), 10_000L);
+        BankAccount target = BankAccount.ofCents("ACC002", 0L);
+        VelocityLimit limit = new VelocityLimit(Duration.ofMinutes(1), 4, 1, 1_000L);
+        unjournalable.setVelocityLimit(limit);
+        TransferEngine engine = new TransferEngine();
+
+        // Act & Assert
+        try (AccountJournal journal = new AccountJournal(file)) {
+            unjournalable.setListener(journal);
+            target.setListener(journal);
+            assertThrows(IllegalArgumentException.class, () -> unjournalable.depositCents(500L));
+            assertThrows(IllegalArgumentException.class, () -> unjournalable.withdrawCents(500L));
+            assertThrows(IllegalArgumentException.class, () -> engine.tryTransferCents(unjournalable, target, 500L));
+            assertThrows(IllegalArgumentException.class,
+                    () -> engine.commit(new TransactionBatch().withdraw(unjournalable, 500L)));
+            assertThrows(IllegalArgumentException.class, unjournalable::closeAccount);
+        }
+        assertEquals(10_000L, unjournalable.getBalanceCents());
+        assertEquals(0L, target.getBalanceCents());
+        assertTrue(unjournalable.isActive());
+        assertEquals(0, limit.getWindowOperations());
+        assertTrue(AccountJournal.read(file).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should append after existing records when reopened")
+    void whenJournalReopenedThenNewRecordsAreAppended() throws Exception {
+        // Arrange
+        Path file = dir.resolve("reopen.journal");
+        try (AccountJournal journal = new AccountJournal(file)) {
+            journal.sync(journal.append("ACC001", AccountOperation.DEPOSIT, 1L, 1L));
+        }
+
+        // Act
+        try (AccountJournal journal = new AccountJournal(file)) {
+            journal.sync(journal.append("ACC001", AccountOperation.DEPOSIT, 2L, 3L));
+        }
+
+        // Assert
+        List<AccountJournal.Entry> entries = AccountJournal.read(file);
+        assertEquals(2, entries.size());
+        assertEquals(3L, entries.get(1).balanceCents());
+    }
+
+    @Test
+    @DisplayName("Should keep appending across mapped segments")
+    void whenSegmentFillsThenJournalContinuesInNextSegment() throws Exception {
+        // Arrange
+        Path file = dir.resolve("segments.journal");
+
+        // Act
+        try (AccountJournal journal = new AccountJournal(file, 128)) {
+            for (int i = 1; i <= 100; i++) {
+                journal.sync(journal.append("ACC-" + i, AccountOperation.DEPOSIT, i, i));
+            }
+        }
+
+        // Assert
+        List<AccountJournal.Entry> entries = AccountJournal.read(file);
+        assertEquals(100, entries.size());
+        assertEquals("ACC-100", entries.get(99).accountNumber());
+        assertThrows(IllegalArgumentException.class, () -> new AccountJournal(dir.resolve("tiny.journal"), 8));
+    }
+
+    @Test
+    @DisplayName("Should restore balances and closures into a registry")
+    void whenReplayedThenRegistryHoldsJournaledState() throws Exception {
+        // Arrange
+        Path file = dir.resolve("replay.journal");
+        try (AccountJournal journal = new AccountJournal(file)) {
+            journal.append("ACC001", AccountOperation.DEPOSIT, 500L, 500L);
+            journal.append("ACC001", AccountOperation.WITHDRAWAL, 200L, 300L);
+            journal.append("ACC002", AccountOperation.CLOSE, 0L, 50L);
+        }
+        AccountRegistry registry = new AccountRegistry();
+        registry.register(BankAccount.ofCents("ACC001", 0L));
+
+        // Act
+        int replayed = AccountJournal.replay(file, registry);
+
+        // Assert
+        assertEquals(3, replayed);
+        assertEquals(300L, registry.find("ACC001").getBalanceCents());
+        assertEquals(50L, registry.find("ACC002").getBalanceCents());
+        assertFalse(registry.find("ACC002").isActive());
+    }
+
+    @Test
+    @DisplayName("Should restore the original closing time, not the time of replay")
+    void whenClosureReplayedThenClosingTimeRestored() throws Exception {
+        // Arrange
+        Path file = dir.resolve("closed.journal");
+        BankAccount account = BankAccount.ofCents("ACC001", 100L);
+        try (AccountJournal journal = new AccountJournal(file)) {
+            account.setListener(journal);
+            account.closeAccount();
+        }
+        Thread.sleep(5);
+        AccountRegistry registry = new AccountRegistry();
+
+        // Act
+        AccountJournal.replay(file, registry);
+
+        // Assert
+        assertEquals(account.getClosedAt(), registry.find("ACC001").getClosedAt());
+    }
+
+    @Test
+    @DisplayName("Should share one force between concurrent writers")
+    void whenWritersRunConcurrentlyThenForcesAreGrouped() throws Exception {
+        // Arrange
+        Path file = dir.resolve("group.journal");
+        int threads = 8;
+        int perThread = 200;
+        TransferEngine engine = new TransferEngine();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        long syncs;
+        try (AccountJournal journal = new AccountJournal(file)) {
+            for (int t = 0; t < threads; t++) {
+                BankAccount account = BankAccount.ofCents("ACC-" + t, 0L);
+                account.setListener(journal);
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        engine.deposit(account, 1.0);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            syncs = journal.getSyncCount();
+        }
+        pool.shutdown();
+
+        // Assert
+        assertEquals(threads * perThread, AccountJournal.read(file).size());
+        assertTrue(syncs <= threads * perThread);
+    }
+
+    @Test
+    @DisplayName("Should journal a whole batch as one group with a single force")
+    void whenBatchCommittedThenJournaledWithOneForce() throws Exception {
+        // Arrange
+        Path file = dir.resolve("batch.journal");
+        BankAccount source = BankAccount.ofCents("ACC001", 10_000L);
+        BankAccount target = BankAccount.ofCents("ACC002", 0L);
+        TransactionBatch batch = new TransactionBatch();
+        for (int i = 0; i < 100; i++) {
+            batch.transfer(source, target, 1L);
+        }
+
+        // Act
+        long syncs;
+        try (AccountJournal journal = new AccountJournal(file)) {
+            source.setListener(journal);
+            target.setListener(journal);
+            batch.commit();
+            source.transferCents(target, 1L);
+            syncs = journal.getSyncCount();
+        }
+
+        // Assert
+        assertEquals(2, syncs);
+        assertEquals(202, AccountJournal.read(file).size());
+    }
+
+    @Test
+    @DisplayName("Should leave out a group whose last record is corrupt and append after the previous group")
+    void whenGroupTornThenLeftOutAndOverwritten() throws Exception {
+        // Arrange
+        Path file = dir.resolve("torn.journal");
+        try (AccountJournal journal = new AccountJournal(file, 4096)) {
+            journal.append("ACC001", AccountOperation.DEPOSIT, 100L, 100L);
+            journal.append(List.of(
+                    new AccountJournal.Entry("ACC001", AccountOperation.TRANSFER_OUT, 40L, 60L),
+                    new AccountJournal.Entry("ACC002", AccountOperation.TRANSFER_IN, 40L, 40L)));
+        }
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            // Each record is 34 bytes; flip the first account number byte of the third one
+            raw.seek(2 * 34 + 28);
+            raw.write('X');
+        }
+
+        // Act
+        List<AccountJournal.Entry> torn = AccountJournal.read(file);
+        try (AccountJournal journal = new AccountJournal(file, 4096)) {
+            journal.append("ACC001", AccountOperation.WITHDRAWAL, 10L, 90L);
+        }
+
+        // Assert
+        assertEquals(1, torn.size());
+        List<AccountJournal.Entry> entries = AccountJournal.read(file);
+        assertEquals(2, entries.size());
+        assertEquals(new AccountJournal.Entry("ACC001", AccountOperation.WITHDRAWAL, 10L, 90L), entries.get(1));
+    }
+
+    @Test
+    @DisplayName("Should treat a record with a bad operation or length as the end of the journal")
+    void whenRecordMalformedThenJournalEndsThere() throws Exception {
+        // Arrange
+        Path badOperation = dir.resolve("operation.journal");
+        Path badLength = dir.resolve("length.journal");
+        for (Path file : List.of(badOperation, badLength)) {
+            try (AccountJournal journal = new AccountJournal(file, 4096)) {
+                journal.append("ACC001", AccountOperation.DEPOSIT, 100L, 100L);
+                journal.append("ACC001", AccountOperation.DEPOSIT, 100L, 200L);
+            }
+        }
+
+        // Act
+        try (RandomAccessFile raw = new RandomAccessFile(badOperation.toFile(), "rw")) {
+            raw.seek(34 + 8);
+            raw.write(99);
+        }
+        try (RandomAccessFile raw = new RandomAccessFile(badLength.toFile(), "rw")) {
+            raw.seek(34);
+            raw.writeInt(Integer.MAX_VALUE);
+        }
+
+        // Assert
+        assertEquals(1, AccountJournal.read(badOperation).size());
+        assertEquals(1, AccountJournal.read(badLength).size());
+    }
+}
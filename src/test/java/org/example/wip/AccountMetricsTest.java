@@ -0,0 +1,246 @@
+package org.example.wip;
+
+import org.example.AccountMetrics;
+import org.example.AccountOperation;
+import org.example.AccountRegistry;
+import org.example.BankAccount;
+import org.example.TransactionBatch;
+import org.example.TransactionService;
+import org.example.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AccountMetrics Unit Tests")
+public class AccountMetricsTest {
+
+    private AccountMetrics metrics;
+    private BankAccount account;
+    private BankAccount target;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new AccountMetrics();
+        account = BankAccount.ofCents("ACC001", 10_000L);
+        target = BankAccount.ofCents("ACC002", 0L);
+        account.setMetrics(metrics);
+    }
+
+    // ==================== COUNTER TESTS ====================
+
+    @Test
+    @DisplayName("Should count each operation by outcome")
+    void whenOperationsRunThenCountedByOutcome() {
+        // Act
+        account.tryDepositCents(500L);
+        account.tryDeposit(-1.0);
+        account.tryWithdrawCents(200L);
+        account.tryWithdrawCents(1_000_000L);
+        account.tryTransferCents(target, 300L);
+        account.tryTransfer(null, 1.0);
+
+        // Assert
+        AccountMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.count(AccountOperation.DEPOSIT, TransactionStatus.SUCCESS));
+        assertEquals(1, snapshot.count(AccountOperation.DEPOSIT, TransactionStatus.INVALID_AMOUNT));
+        assertEquals(1, snapshot.count(AccountOperation.WITHDRAWAL, TransactionStatus.SUCCESS));
+        assertEquals(1, snapshot.count(AccountOperation.WITHDRAWAL, TransactionStatus.INSUFFICIENT_FUNDS));
+        assertEquals(1, snapshot.count(AccountOperation.TRANSFER_OUT, TransactionStatus.SUCCESS));
+        assertEquals(1, snapshot.count(AccountOperation.TRANSFER_OUT, TransactionStatus.INVALID_TARGET));
+        assertEquals(2, snapshot.total(AccountOperation.DEPOSIT));
+        assertEquals(3, metrics.getDeclinedCount());
+    }
+
+    @Test
+    @DisplayName("Should count operations made through the throwing API")
+    void whenThrowingApiUsedThenCounted() {
+        // Act
+        account.deposit(1.0);
+        assertThrows(IllegalStateException.class, () -> account.withdrawCents(1_000_000L));
+        account.closeAccount();
+        assertThrows(IllegalStateException.class, () -> account.depositCents(100L));
+
+        // Assert
+        assertEquals(2, metrics.getDepositCount());
+        assertEquals(1, metrics.getWithdrawalCount());
+        assertEquals(1, metrics.snapshot().count(AccountOperation.DEPOSIT, TransactionStatus.INACTIVE_ACCOUNT));
+    }
+
+    @Test
+    @DisplayName("Should count batch operations, including the one that rejects a batch")
+    void whenBatchCommittedThenOperationsCounted() {
+        // Arrange
+        TransactionBatch committed = new TransactionBatch()
+                .deposit(account, 100L)
+                .withdraw(account, 50L)
+                .transfer(account, target, 25L);
+        TransactionBatch rejected = new TransactionBatch()
+                .withdraw(account, 10L)
+                .withdraw(account, 1_000_000L);
+
+        // Act
+        committed.commit();
+        rejected.commit();
+
+        // Assert
+        AccountMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.count(AccountOperation.DEPOSIT, TransactionStatus.SUCCESS));
+        assertEquals(1, snapshot.count(AccountOperation.WITHDRAWAL, TransactionStatus.SUCCESS));
+        assertEquals(1, snapshot.count(AccountOperation.WITHDRAWAL, TransactionStatus.INSUFFICIENT_FUNDS));
+        assertEquals(1, snapshot.count(AccountOperation.TRANSFER_OUT, TransactionStatus.SUCCESS));
+    }
+
+    @Test
+    @DisplayName("Should count requests served by the transaction service")
+    void whenServiceExecutesThenCounted() throws Exception {
+        // Arrange
+        AccountRegistry registry = new AccountRegistry();
+        registry.register(account);
+        registry.register(target);
+
+        try (TransactionService service = new TransactionService(registry)) {
+            // Act
+            service.execute("DEPOSIT ACC001 100");
+            service.execute("WITHDRAW ACC001 100");
+            service.execute("TRANSFER ACC001 ACC002 100");
+        }
+
+        // Assert
+        assertEquals(1, metrics.getDepositCount());
+        assertEquals(1, metrics.getWithdrawalCount());
+        assertEquals(1, metrics.getTransferCount());
+    }
+
+    @Test
+    @DisplayName("Should record nothing once metrics are removed")
+    void whenMetricsRemovedThenNothingRecorded() {
+        // Arrange
+        account.setMetrics(null);
+
+        // Act
+        account.depositCents(100L);
+        account.transferCents(target, 100L);
+
+        // Assert
+        assertNull(account.getMetrics());
+        assertEquals(0, metrics.getDepositCount());
+        assertEquals(0, metrics.getTransferCount());
+        assertEquals(10_000L, account.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should not lose counts when many threads share one instance")
+    void whenSharedAcrossThreadsThenNoCountsLost() throws Exception {
+        // Arrange
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < 4; t++) {
+            BankAccount own = BankAccount.ofCents("T" + t, 0L);
+            own.setMetrics(metrics);
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    own.tryDepositCents(1L);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        // Assert
+        assertEquals(40_000, metrics.getDepositCount());
+    }
+
+    @Test
+    @DisplayName("Should clear every counter and histogram on reset")
+    void whenResetThenEverythingCleared() {
+        // Arrange
+        account.depositCents(100L);
+
+        // Act
+        metrics.reset();
+
+        // Assert
+        assertEquals(0, metrics.getDepositCount());
+        assertEquals(0, metrics.getDepositP99Nanos());
+    }
+
+    // ==================== HISTOGRAM TESTS ====================
+
+    @Test
+    @DisplayName("Should report percentiles as bucket upper bounds")
+    void whenLatenciesRecordedThenPercentileIsBucketBound() {
+        // Arrange
+        long now = System.nanoTime();
+
+        // Act
+        for (int i = 0; i < 99; i++) {
+            metrics.record(AccountOperation.WITHDRAWAL, TransactionStatus.SUCCESS, now);
+        }
+        metrics.record(AccountOperation.WITHDRAWAL, TransactionStatus.SUCCESS, now - 1_000_000_000L);
+
+        // Assert
+        AccountMetrics.Snapshot snapshot = metrics.snapshot();
+        long p50 = snapshot.percentileNanos(AccountOperation.WITHDRAWAL, 50);
+        long p100 = snapshot.percentileNanos(AccountOperation.WITHDRAWAL, 100);
+        assertTrue(p50 < 1_000_000_000L);
+        assertEquals(1L << 30, p100);
+    }
+
+    @Test
+    @DisplayName("Should report zero for an operation with no latencies")
+    void whenNothingRecordedThenPercentileIsZero() {
+        // Act & Assert
+        assertEquals(0, metrics.snapshot().percentileNanos(AccountOperation.TRANSFER_OUT, 99));
+        assertEquals(0, metrics.getTransferP50Nanos());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when percentile is out of range")
+    void whenPercentileOutOfRangeThenThrowException() {
+        // Arrange
+        AccountMetrics.Snapshot snapshot = metrics.snapshot();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> snapshot.percentileNanos(AccountOperation.DEPOSIT, 101));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.percentileNanos(AccountOperation.DEPOSIT, Double.NaN));
+    }
+
+    // ==================== JMX TESTS ====================
+
+    @Test
+    @DisplayName("Should expose counters through the platform MBean server")
+    void whenRegisteredThenReadableOverJmx() throws Exception {
+        // Arrange
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = metrics.register("jmx-test");
+        account.depositCents(100L);
+        account.depositCents(100L);
+
+        try {
+            // Act
+            Object deposits = server.getAttribute(name, "DepositCount");
+
+            // Assert
+            assertEquals(2L, deposits);
+            assertTrue((Long) server.getAttribute(name, "DepositP99Nanos") > 0);
+            assertThrows(IllegalStateException.class, () -> metrics.register("jmx-test"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
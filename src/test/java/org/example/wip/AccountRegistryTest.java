@@ -0,0 +1,260 @@
+package org.example.wip;
+
+import org.example.AccountRegistry;
+import org.example.BankAccount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AccountRegistry Unit Tests")
+public class AccountRegistryTest {
+
+    private AccountRegistry registry;
+    private BankAccount account;
+
+    @BeforeEach
+    void setUp() {
+        registry = new AccountRegistry();
+        account = new BankAccount("ACC001", 100.0);
+        registry.register(account);
+    }
+
+    @Test
+    @DisplayName("Should find a registered account by number")
+    void whenFindRegisteredNumberThenReturnAccount() {
+        // Act
+        BankAccount found = registry.find("ACC001");
+
+        // Assert
+        assertSame(account, found);
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    @DisplayName("Should return null for unknown or null numbers")
+    void whenFindUnknownNumberThenReturnNull() {
+        // Act & Assert
+        assertNull(registry.find("ACC999"));
+        assertNull(registry.find(null));
+    }
+
+    @Test
+    @DisplayName("Should reject null and duplicate registrations")
+    void whenRegisterInvalidAccountThenThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> registry.register(null));
+        assertThrows(IllegalArgumentException.class, () -> registry.register(new BankAccount("ACC001")));
+        assertThrows(IllegalArgumentException.class, () -> new AccountRegistry(-1));
+    }
+
+    @Test
+    @DisplayName("Should keep every account reachable after growing")
+    void whenRegisteringManyAccountsThenAllAreFound() {
+        // Arrange
+        AccountRegistry small = new AccountRegistry(0);
+
+        // Act
+        for (int i = 0; i < 5_000; i++) {
+            small.register(new BankAccount("ACC-" + i));
+        }
+
+        // Assert
+        assertEquals(5_000, small.size());
+        for (int i = 0; i < 5_000; i++) {
+            assertEquals("ACC-" + i, small.find("ACC-" + i).getAccountNumber());
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve concurrent lookups while registering")
+    void whenReadingDuringInsertsThenRegisteredAccountsAreVisible() throws Exception {
+        // Arrange
+        AccountRegistry shared = new AccountRegistry(0);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        int total = 20_000;
+
+        // Act
+        Future<Integer> reader = pool.submit(() -> {
+            int misses = 0;
+            for (int i = 0; i < total; i++) {
+                BankAccount found = shared.find("ACC-" + (i / 2));
+                if (found != null && !found.getAccountNumber().equals("ACC-" + (i / 2))) {
+                    misses++;
+                }
+            }
+            return misses;
+        });
+        for (int i = 0; i < total; i++) {
+            shared.register(new BankAccount("ACC-" + i));
+        }
+
+        // Assert
+        assertEquals(0, reader.get(30, TimeUnit.SECONDS));
+        pool.shutdown();
+        for (int i = 0; i < total; i++) {
+            assertNotNull(shared.find("ACC-" + i));
+        }
+    }
+
+    // ==================== COMPACTION TESTS ====================
+
+    @Test
+    @DisplayName("Should remove only accounts closed before the cutoff")
+    void whenCompactThenAccountsClosedBeforeCutoffRemoved() {
+        // Arrange
+        BankAccount closed = new BankAccount("ACC002");
+        BankAccount live = new BankAccount("ACC003");
+        registry.register(closed);
+        registry.register(live);
+        closed.closeAccount();
+
+        // Act
+        int keptByRetention = registry.compact(Duration.ofHours(1));
+        int removed = registry.compact(Instant.now().plusSeconds(1));
+
+        // Assert
+        assertEquals(0, keptByRetention);
+        assertEquals(1, removed);
+        assertNull(registry.find("ACC002"));
+        assertSame(live, registry.find("ACC003"));
+        assertEquals(2, registry.size());
+        assertNotNull(closed.getClosedAt());
+        assertNull(live.getClosedAt());
+    }
+
+    @Test
+    @DisplayName("Should keep finding accounts that probe past removed slots and allow re-registering a removed number")
+    void whenAccountsRemovedThenProbingAndReuseStillWork() {
+        // Arrange
+        for (int i = 0; i < 1_000; i++) {
+            registry.register(new BankAccount("BULK-" + i));
+        }
+        for (int i = 0; i < 1_000; i += 3) {
+            registry.find("BULK-" + i).closeAccount();
+        }
+
+        // Act
+        registry.compact(Instant.now().plusSeconds(1));
+        BankAccount reopened = new BankAccount("BULK-0");
+        registry.register(reopened);
+
+        // Assert
+        for (int i = 1; i < 1_000; i++) {
+            BankAccount found = registry.find("BULK-" + i);
+            assertEquals(i % 3 != 0, found != null, "BULK-" + i);
+        }
+        assertSame(reopened, registry.find("BULK-0"));
+        int iterated = 0;
+        for (BankAccount ignored : registry) {
+            iterated++;
+        }
+        assertEquals(registry.size(), iterated);
+    }
+
+    @Test
+    @DisplayName("Should shrink the index once most accounts are removed")
+    void whenMostAccountsRemovedThenIndexShrinks() {
+        // Arrange
+        for (int i = 0; i < 10_000; i++) {
+            BankAccount bulk = new BankAccount("BULK-" + i);
+            registry.register(bulk);
+            bulk.closeAccount();
+        }
+        int before = registry.capacity();
+
+        // Act
+        int removed = registry.compact(Instant.now().plusSeconds(1));
+
+        // Assert
+        assertEquals(10_000, removed);
+        assertEquals(1, registry.size());
+        assertTrue(registry.capacity() < before);
+        assertSame(account, registry.find("ACC001"));
+    }
+
+    @Test
+    @DisplayName("Should keep lookups and deposits working while compaction runs")
+    void whenCompactingConcurrentlyThenLiveAccountsStayReachable() throws Exception {
+        // Arrange
+        for (int i = 0; i < 20_000; i++) {
+            BankAccount bulk = new BankAccount("BULK-" + i);
+            registry.register(bulk);
+            if (i % 2 == 0) {
+                bulk.closeAccount();
+            }
+        }
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // Act
+        try {
+            Future<Integer> compaction = executor.submit(() -> registry.compact(Instant.now().plusSeconds(1)));
+            while (!compaction.isDone()) {
+                for (int i = 1; i < 20_000; i += 2) {
+                    BankAccount live = registry.find("BULK-" + i);
+                    assertNotNull(live, "BULK-" + i);
+                    live.deposit(1.0);
+                }
+            }
+
+            // Assert
+            assertEquals(10_000, compaction.get(10, TimeUnit.SECONDS));
+            assertEquals(10_001, registry.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep accounts registered while the index is being rebuilt")
+    void whenRegisteringDuringRebuildThenNewAccountsStayReachable() throws Exception {
+        // Arrange
+        for (int i = 0; i < 40_000; i++) {
+            BankAccount bulk = new BankAccount("BULK-" + i);
+            registry.register(bulk);
+            if (i % 4 != 0) {
+                bulk.closeAccount();
+            }
+        }
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // Act
+        int registered = 0;
+        try {
+            Future<Integer> compaction = executor.submit(() -> registry.compact(Instant.now().plusSeconds(1)));
+            while (!compaction.isDone() && registered < 5_000) {
+                registry.register(new BankAccount("NEW-" + registered++));
+            }
+
+            // Assert
+            assertEquals(30_000, compaction.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(10_001 + registered, registry.size());
+        for (int i = 0; i < registered; i++) {
+            assertNotNull(registry.find("NEW-" + i), "NEW-" + i);
+        }
+        for (int i = 0; i < 40_000; i += 4) {
+            assertNotNull(registry.find("BULK-" + i), "BULK-" + i);
+        }
+        registry.register(new BankAccount("AFTER"));
+        assertNotNull(registry.find("AFTER"));
+    }
+
+    @Test
+    @DisplayName("Should throw exception when compaction cutoff is null")
+    void whenCompactWithNullCutoffThenThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> registry.compact((Instant) null));
+        assertThrows(IllegalArgumentException.class, () -> registry.compact((Duration) null));
+    }
+}
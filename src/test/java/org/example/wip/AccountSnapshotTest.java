@@ -0,0 +1,172 @@
+package org.example.wip;
+
+import org.example.AccountRegistry;
+import org.example.AccountSnapshot;
+import org.example.BankAccount;
+import org.example.TransferEngine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AccountSnapshot Unit Tests")
+public class AccountSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Should round-trip numbers, balances, status and closing time")
+    void whenSnapshotWrittenAndLoadedThenAccountsMatch() throws Exception {
+        // Arrange
+        Path file = dir.resolve("accounts.snapshot");
+        BankAccount open = BankAccount.ofCents("ACC001", 12_345L);
+        BankAccount closed = BankAccount.ofCents("ÇUENTA-2", 0L);
+        closed.closeAccount();
+
+        // Act
+        long written = AccountSnapshot.write(List.of(open, closed), file);
+        Thread.sleep(5);
+        List<BankAccount> loaded = AccountSnapshot.load(file);
+
+        // Assert
+        assertEquals(2, written);
+        assertEquals(2, loaded.size());
+        assertEquals("ACC001", loaded.get(0).getAccountNumber());
+        assertEquals(12_345L, loaded.get(0).getBalanceCents());
+        assertTrue(loaded.get(0).isActive());
+        assertEquals("ÇUENTA-2", loaded.get(1).getAccountNumber());
+        assertFalse(loaded.get(1).isActive());
+        assertEquals(closed.getClosedAt(), loaded.get(1).getClosedAt());
+    }
+
+    @Test
+    @DisplayName("Should load version 1 snapshots, which carry no closing time")
+    void whenVersionOneSnapshotLoadedThenAccountsMatch() throws Exception {
+        // Arrange
+        Path file = dir.resolve("v1.snapshot");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+            out.writeInt(0x41434354);
+            out.writeInt(1);
+            out.writeLong(1);
+            out.writeLong(500L);
+            out.writeByte(0);
+            out.writeShort(6);
+            out.writeBytes("ACC001");
+        }
+
+        // Act
+        List<BankAccount> loaded = AccountSnapshot.load(file);
+
+        // Assert
+        assertEquals(1, loaded.size());
+        assertEquals(500L, loaded.get(0).getBalanceCents());
+        assertFalse(loaded.get(0).isActive());
+        assertNotNull(loaded.get(0).getClosedAt());
+    }
+
+    @Test
+    @DisplayName("Should snapshot a registry in the background and load it back")
+    void whenRegistryWrittenInBackgroundThenLoadRestoresIt() throws Exception {
+        // Arrange
+        Path file = dir.resolve("registry.snapshot");
+        AccountRegistry registry = new AccountRegistry();
+        for (int i = 0; i < 1_000; i++) {
+            registry.register(BankAccount.ofCents("ACC-" + i, i));
+        }
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // Act
+        long written = AccountSnapshot.writeInBackground(registry, file, executor).get(30, TimeUnit.SECONDS);
+        AccountRegistry restored = new AccountRegistry();
+        int loaded = AccountSnapshot.load(file, restored);
+        executor.shutdown();
+
+        // Assert
+        assertEquals(1_000, written);
+        assertEquals(1_000, loaded);
+        assertEquals(777L, restored.find("ACC-777").getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should capture balances that add up while transfers run")
+    void whenTransfersRunDuringSnapshotThenTotalIsConserved() throws Exception {
+        // Arrange
+        Path file = dir.resolve("concurrent.snapshot");
+        List<BankAccount> accounts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            accounts.add(BankAccount.ofCents("ACC-" + i, 1_000L));
+        }
+        TransferEngine engine = new TransferEngine();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread transfers = new Thread(() -> {
+            for (int i = 0; running.get(); i++) {
+                engine.tryTransferCents(accounts.get(i % 100), accounts.get((i * 7 + 3) % 100), 10L);
+            }
+        });
+
+        // Act
+        List<Long> totals = new ArrayList<>();
+        transfers.start();
+        try {
+            for (int round = 0; round < 20; round++) {
+                AccountSnapshot.write(accounts, file);
+                totals.add(AccountSnapshot.load(file).stream().mapToLong(BankAccount::getBalanceCents).sum());
+            }
+        } finally {
+            running.set(false);
+            transfers.join();
+        }
+
+        // Assert
+        for (long total : totals) {
+            assertEquals(100_000L, total);
+        }
+    }
+
+    @Test
+    @DisplayName("Should replace an existing snapshot")
+    void whenSnapshotOverwrittenThenLatestIsLoaded() throws Exception {
+        // Arrange
+        Path file = dir.resolve("replace.snapshot");
+        AccountSnapshot.write(List.of(BankAccount.ofCents("OLD", 1L)), file);
+
+        // Act
+        AccountSnapshot.write(List.of(BankAccount.ofCents("NEW", 2L)), file);
+
+        // Assert
+        List<BankAccount> loaded = AccountSnapshot.load(file);
+        assertEquals(1, loaded.size());
+        assertEquals("NEW", loaded.get(0).getAccountNumber());
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject files that are not snapshots")
+    void whenFileIsNotSnapshotThenThrowException() throws Exception {
+        // Arrange
+        Path tooShort = Files.write(dir.resolve("short.snapshot"), new byte[] {1, 2, 3});
+        Path wrongMagic = Files.write(dir.resolve("magic.snapshot"), new byte[16]);
+        Path wrongVersion = Files.write(dir.resolve("version.snapshot"),
+                new byte[] {0x41, 0x43, 0x43, 0x54, 0, 0, 0, 9, 0, 0, 0, 0, 0, 0, 0, 0});
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> AccountSnapshot.load(tooShort));
+        assertThrows(IOException.class, () -> AccountSnapshot.load(wrongMagic));
+        assertThrows(IOException.class, () -> AccountSnapshot.load(wrongVersion));
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.wip;
+
+import org.example.AccountStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AccountStore Unit Tests")
+public class AccountStoreTest {
+
+    private AccountStore store;
+    private int first;
+    private int second;
+
+    @BeforeEach
+    void setUp() {
+        store = new AccountStore(1);
+        first = store.open("ACC001", 10_000L);
+        second = store.open("ACC002", 5_000L);
+    }
+
+    @Test
+    @DisplayName("Should open accounts with sequential handles")
+    void whenOpenAccountsThenHandlesAreSequential() {
+        // Assert
+        assertEquals(0, first);
+        assertEquals(1, second);
+        assertEquals(2, store.size());
+        assertEquals("ACC002", store.getAccountNumber(second));
+        assertTrue(store.isActive(first));
+    }
+
+    @Test
+    @DisplayName("Should grow past the initial capacity")
+    void whenOpeningManyAccountsThenStoreGrows() {
+        // Act
+        for (int i = 0; i < 1_000; i++) {
+            store.open("BULK-" + i, i);
+        }
+
+        // Assert
+        assertEquals(1_002, store.size());
+        assertEquals("BULK-999", store.getAccountNumber(1_001));
+        assertEquals(999L, store.getBalanceCents(1_001));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid accounts")
+    void whenOpenInvalidAccountThenThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> store.open(null, 0L));
+        assertThrows(IllegalArgumentException.class, () -> store.open(" ", 0L));
+        assertThrows(IllegalArgumentException.class, () -> store.open("ACC003", -1L));
+        assertThrows(IllegalArgumentException.class, () -> new AccountStore(-1));
+    }
+
+    @Test
+    @DisplayName("Should deposit, withdraw and transfer by handle")
+    void whenOperatingByHandleThenBalancesUpdate() {
+        // Act
+        store.depositCents(first, 500L);
+        store.withdrawCents(second, 1_000L);
+        store.transferCents(first, second, 2_500L);
+
+        // Assert
+        assertEquals(8_000L, store.getBalanceCents(first));
+        assertEquals(6_500L, store.getBalanceCents(second));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid amounts and insufficient funds")
+    void whenAmountInvalidThenThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> store.depositCents(first, 0L));
+        assertThrows(IllegalArgumentException.class, () -> store.withdrawCents(first, -1L));
+        assertThrows(IllegalStateException.class, () -> store.withdrawCents(first, 10_001L));
+        assertThrows(IllegalStateException.class, () -> store.transferCents(second, first, 5_001L));
+        assertEquals(10_000L, store.getBalanceCents(first));
+    }
+
+    @Test
+    @DisplayName("Should reject operations on closed accounts")
+    void whenAccountClosedThenOperationsThrowException() {
+        // Arrange
+        store.close(second);
+
+        // Act & Assert
+        assertFalse(store.isActive(second));
+        assertThrows(IllegalStateException.class, () -> store.depositCents(second, 1L));
+        assertThrows(IllegalStateException.class, () -> store.withdrawCents(second, 1L));
+        assertThrows(IllegalStateException.class, () -> store.transferCents(first, second, 1L));
+        assertThrows(IllegalStateException.class, () -> store.transferCents(second, first, 1L));
+        assertEquals(5_000L, store.getBalanceCents(second));
+    }
+
+    @Test
+    @DisplayName("Should detect overflow before debiting the source")
+    void whenTransferWouldOverflowThenNothingChanges() {
+        // Arrange
+        int rich = store.open("RICH", Long.MAX_VALUE);
+
+        // Act & Assert
+        assertThrows(ArithmeticException.class, () -> store.transferCents(first, rich, 1L));
+        assertEquals(10_000L, store.getBalanceCents(first));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown handles")
+    void whenHandleUnknownThenThrowException() {
+        // Act & Assert
+        assertThrows(IndexOutOfBoundsException.class, () -> store.getBalanceCents(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.isActive(-1));
+    }
+}
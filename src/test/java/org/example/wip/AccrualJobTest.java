@@ -0,0 +1,138 @@
+package org.example.wip;
+
+import org.example.AccountStore;
+import org.example.AccrualJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AccrualJob Unit Tests")
+public class AccrualJobTest {
+
+    private AccountStore store;
+    private AccrualJob job;
+
+    @BeforeEach
+    void setUp() {
+        store = new AccountStore();
+        job = new AccrualJob()
+                .tier(0L, 0, 500L)
+                .tier(100_000L, 100, 0L)
+                .tier(1_000_000L, 200, 0L);
+    }
+
+    @Test
+    @DisplayName("Should apply the rate and fee of each account's tier")
+    void whenRunThenTierRatesAndFeesApplied() {
+        // Arrange
+        int small = store.open("SMALL", 20_000L);
+        int middle = store.open("MIDDLE", 150_000L);
+        int large = store.open("LARGE", 2_000_000L);
+        int tiny = store.open("TINY", 300L);
+
+        // Act
+        AccrualJob.Result result = job.run(store);
+
+        // Assert
+        assertEquals(19_500L, store.getBalanceCents(small));
+        assertEquals(151_500L, store.getBalanceCents(middle));
+        assertEquals(2_040_000L, store.getBalanceCents(large));
+        assertEquals(0L, store.getBalanceCents(tiny));
+        assertEquals(4L, result.accountsAccrued());
+        assertEquals(41_500L, result.interestCents());
+        assertEquals(800L, result.feesCents());
+    }
+
+    @Test
+    @DisplayName("Should skip closed accounts")
+    void whenAccountClosedThenLeftUnchanged() {
+        // Arrange
+        int open = store.open("OPEN", 150_000L);
+        int closed = store.open("CLOSED", 150_000L);
+        store.close(closed);
+
+        // Act
+        AccrualJob.Result result = job.run(store);
+
+        // Assert
+        assertEquals(151_500L, store.getBalanceCents(open));
+        assertEquals(150_000L, store.getBalanceCents(closed));
+        assertEquals(1L, result.accountsAccrued());
+        assertEquals(1L, result.accountsSkipped());
+    }
+
+    @Test
+    @DisplayName("Should leave an account unchanged when interest would overflow its balance")
+    void whenInterestOverflowsThenAccountLeftUnchanged() {
+        // Arrange
+        int huge = store.open("HUGE", Long.MAX_VALUE - 1);
+
+        // Act
+        AccrualJob.Result result = job.run(store);
+
+        // Assert
+        assertEquals(Long.MAX_VALUE - 1, store.getBalanceCents(huge));
+        assertEquals(1L, result.accountsOverflowed());
+    }
+
+    @Test
+    @DisplayName("Should count an account as overflowed when balance times rate does not fit in a long")
+    void whenInterestProductOverflowsThenAccountCountedAsOverflowed() {
+        // Arrange
+        AccrualJob steep = new AccrualJob().tier(0L, Integer.MAX_VALUE, 0L);
+        int wrapsNegative = store.open("NEGATIVE", 1_000_000_000_000_000L);
+        int wrapsPositive = store.open("POSITIVE", 10_000_000_000_000_000L);
+
+        // Act
+        AccrualJob.Result result = steep.run(store);
+
+        // Assert
+        assertEquals(1_000_000_000_000_000L, store.getBalanceCents(wrapsNegative));
+        assertEquals(10_000_000_000_000_000L, store.getBalanceCents(wrapsPositive));
+        assertEquals(2L, result.accountsOverflowed());
+        assertEquals(0L, result.accountsAccrued());
+    }
+
+    @Test
+    @DisplayName("Should give the same totals in parallel as account by account")
+    void whenManyAccountsThenParallelMatchesSequential() {
+        // Arrange
+        int accounts = 200_000;
+        long expectedInterest = 0;
+        for (int i = 0; i < accounts; i++) {
+            long balance = i * 37L;
+            store.open("BULK-" + i, balance);
+            if (i % 10 == 0) {
+                store.close(i);
+            } else if (balance >= 100_000L) {
+                long rate = balance >= 1_000_000L ? 200 : 100;
+                expectedInterest += balance * rate / 10_000;
+            }
+        }
+
+        // Act
+        AccrualJob.Result result = job.run(store, new ForkJoinPool(4));
+
+        // Assert
+        assertEquals(accounts / 10, result.accountsSkipped());
+        assertEquals(accounts - accounts / 10, result.accountsAccrued());
+        assertEquals(expectedInterest, result.interestCents());
+        assertEquals(370L, store.getBalanceCents(10));
+        assertTrue(result.accountsPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid rate table")
+    void whenRateTableInvalidThenThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new AccrualJob().tier(100L, 0, 0L));
+        assertThrows(IllegalArgumentException.class, () -> new AccrualJob().tier(0L, 0, 0L).tier(0L, 0, 0L));
+        assertThrows(IllegalArgumentException.class, () -> new AccrualJob().tier(0L, -1, 0L));
+        assertThrows(IllegalArgumentException.class, () -> new AccrualJob().tier(0L, 0, -1L));
+        assertThrows(IllegalStateException.class, () -> new AccrualJob().run(store));
+    }
+}
@@ -0,0 +1,246 @@
+package org.example.wip;
+
+import org.example.AccountOperation;
+import org.example.BalanceChangePublisher;
+import org.example.BankAccount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BalanceChangePublisher Unit Tests")
+public class BalanceChangePublisherTest {
+
+    private BalanceChangePublisher publisher;
+    private BankAccount first;
+    private BankAccount second;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new BalanceChangePublisher(Runnable::run, 16);
+        first = BankAccount.ofCents("ACC001", 10_000L);
+        second = BankAccount.ofCents("ACC002", 0L);
+        first.setListener(publisher);
+        second.setListener(publisher);
+    }
+
+    @Test
+    @DisplayName("Should deliver every change to a subscriber that keeps up")
+    void whenSubscriberRequestsEverythingThenEveryChangeDelivered() {
+        // Arrange
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+        publisher.subscribe(recorder);
+
+        // Act
+        first.depositCents(500L);
+        first.transferCents(second, 2_000L);
+        second.closeAccount();
+
+        // Assert
+        assertEquals(List.of(
+                new BalanceChangePublisher.Change("ACC001", AccountOperation.DEPOSIT, 500L, 10_500L),
+                new BalanceChangePublisher.Change("ACC001", AccountOperation.TRANSFER_OUT, 2_000L, 8_500L),
+                new BalanceChangePublisher.Change("ACC002", AccountOperation.TRANSFER_IN, 2_000L, 2_000L),
+                new BalanceChangePublisher.Change("ACC002", AccountOperation.CLOSE, 0L, 2_000L)), recorder.changes);
+    }
+
+    @Test
+    @DisplayName("Should conflate pending changes to the latest per account for a slow subscriber")
+    void whenSubscriberHasNoDemandThenLatestChangePerAccountKept() {
+        // Arrange
+        Recorder recorder = new Recorder(0);
+        publisher.subscribe(recorder);
+
+        // Act
+        first.depositCents(100L);
+        second.depositCents(50L);
+        first.depositCents(200L);
+        first.withdrawCents(300L);
+        recorder.subscription.request(10);
+
+        // Assert
+        assertEquals(2, recorder.changes.size());
+        assertEquals(new BalanceChangePublisher.Change("ACC001", AccountOperation.WITHDRAWAL, 300L, 10_000L), recorder.changes.get(0));
+        assertEquals(50L, recorder.changes.get(1).balanceCents());
+    }
+
+    @Test
+    @DisplayName("Should keep a pending closure and drop the oldest account once the buffer is full")
+    void whenBufferFullThenOldestDropped() {
+        // Arrange
+        BalanceChangePublisher small = new BalanceChangePublisher(Runnable::run, 2);
+        BankAccount third = BankAccount.ofCents("ACC003", 0L);
+        first.setListener(small);
+        second.setListener(small);
+        third.setListener(small);
+        Recorder recorder = new Recorder(0);
+        small.subscribe(recorder);
+
+        // Act
+        first.depositCents(1L);
+        second.depositCents(2L);
+        second.closeAccount();
+        third.depositCents(3L);
+        recorder.subscription.request(10);
+
+        // Assert
+        assertEquals(1L, small.getDroppedCount());
+        assertEquals(2, recorder.changes.size());
+        assertEquals(AccountOperation.CLOSE, recorder.changes.get(0).operation());
+        assertEquals("ACC003", recorder.changes.get(1).accountNumber());
+    }
+
+    @Test
+    @DisplayName("Should never drop a pending closure and fail a subscriber whose buffer is full of them")
+    void whenBufferFullOfClosuresThenSubscriptionFails() {
+        // Arrange
+        BalanceChangePublisher small = new BalanceChangePublisher(Runnable::run, 2);
+        BankAccount third = BankAccount.ofCents("ACC003", 0L);
+        first.setListener(small);
+        second.setListener(small);
+        third.setListener(small);
+        Recorder recorder = new Recorder(0);
+        small.subscribe(recorder);
+
+        // Act
+        first.closeAccount();
+        second.depositCents(2L);
+        third.depositCents(3L);
+        second.closeAccount();
+        third.closeAccount();
+
+        // Assert
+        assertEquals(2L, small.getDroppedCount());
+        assertTrue(recorder.changes.isEmpty());
+        assertInstanceOf(IllegalStateException.class, recorder.error);
+        assertEquals(0, small.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should complete subscribers after delivering what is buffered")
+    void whenClosedThenSubscribersCompleteAfterBuffer() {
+        // Arrange
+        Recorder recorder = new Recorder(0);
+        publisher.subscribe(recorder);
+        first.depositCents(100L);
+
+        // Act
+        publisher.close();
+        first.depositCents(100L);
+        assertFalse(recorder.completed);
+        recorder.subscription.request(5);
+        Recorder late = new Recorder(1);
+        publisher.subscribe(late);
+
+        // Assert
+        assertEquals(1, recorder.changes.size());
+        assertTrue(recorder.completed);
+        assertTrue(late.completed);
+        assertEquals(0, publisher.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should stop delivering after cancel and signal an error for a non-positive request")
+    void whenCancelledOrBadRequestThenSubscriptionEnds() {
+        // Arrange
+        Recorder cancelled = new Recorder(Long.MAX_VALUE);
+        Recorder invalid = new Recorder(0);
+        publisher.subscribe(cancelled);
+        publisher.subscribe(invalid);
+
+        // Act
+        cancelled.subscription.cancel();
+        invalid.subscription.request(0);
+        first.depositCents(100L);
+
+        // Assert
+        assertTrue(cancelled.changes.isEmpty());
+        assertInstanceOf(IllegalArgumentException.class, invalid.error);
+        assertEquals(0, publisher.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should not hold up the mutating thread while a subscriber is busy")
+    void whenSubscriberBlockedThenMutationsContinue() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        BalanceChangePublisher async = new BalanceChangePublisher(executor, 16);
+        first.setListener(async);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch sawFinal = new CountDownLatch(1);
+        async.subscribe(new Recorder(Long.MAX_VALUE) {
+            @Override
+            public void onNext(BalanceChangePublisher.Change change) {
+                awaitQuietly(release);
+                if (change.balanceCents() == 20_000L) {
+                    sawFinal.countDown();
+                }
+            }
+        });
+
+        // Act
+        try {
+            for (int i = 0; i < 10_000; i++) {
+                first.depositCents(1L);
+            }
+            release.countDown();
+
+            // Assert
+            assertTrue(sawFinal.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Recorder implements Flow.Subscriber<BalanceChangePublisher.Change> {
+        private final long initialDemand;
+        private final List<BalanceChangePublisher.Change> changes = new CopyOnWriteArrayList<>();
+        private Flow.Subscription subscription;
+        private volatile boolean completed;
+        private volatile Throwable error;
+
+        Recorder(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialDemand > 0) {
+                subscription.request(initialDemand);
+            }
+        }
+
+        @Override
+        public void onNext(BalanceChangePublisher.Change change) {
+            changes.add(change);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
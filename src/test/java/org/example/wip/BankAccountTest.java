@@ -1,6 +1,8 @@
 package org.example.wip;
 
+import org.example.AccountOperation;
 import org.example.BankAccount;
+import org.example.TransactionStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -371,4 +373,189 @@ public class BankAccountTest {
         assertEquals(originalAccountNumber, account.getAccountNumber());
         assertTrue(account.isActive());
     }
-}
\ No newline at end of file
+
+    // ==================== CENTS TESTS ====================
+
+    @Test
+    @DisplayName("Should keep balance exact in cents")
+    void whenDepositingFractionsThenBalanceIsExact() {
+        // Act
+        for (int i = 0; i < 10; i++) {
+            account.deposit(0.10);
+        }
+
+        // Assert
+        assertEquals(10_100L, account.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should create account with initial balance in cents")
+    void whenCreateAccountOfCentsThenBalanceIsSet() {
+        // Act
+        BankAccount newAccount = BankAccount.ofCents("ACC002", 12_345L);
+
+        // Assert
+        assertEquals(12_345L, newAccount.getBalanceCents());
+        assertEquals(123.45, newAccount.getBalance(), 0.001);
+        assertThrows(IllegalArgumentException.class, () -> BankAccount.ofCents("ACC003", -1L));
+    }
+
+    @Test
+    @DisplayName("Should deposit, withdraw and transfer in cents")
+    void whenUsingCentsOperationsThenBalancesUpdate() {
+        // Arrange
+        BankAccount targetAccount = BankAccount.ofCents("ACC002", 0L);
+
+        // Act
+        account.depositCents(1L);
+        account.withdrawCents(2L);
+        account.transferCents(targetAccount, 999L);
+
+        // Assert
+        assertEquals(9_000L, account.getBalanceCents());
+        assertEquals(999L, targetAccount.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid cents amounts")
+    void whenCentsAmountInvalidThenThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> account.depositCents(0L));
+        assertThrows(IllegalArgumentException.class, () -> account.withdrawCents(-1L));
+        assertThrows(IllegalStateException.class, () -> account.withdrawCents(10_001L));
+    }
+
+    @Test
+    @DisplayName("Should detect balance overflow")
+    void whenBalanceWouldOverflowThenThrowException() {
+        // Arrange
+        BankAccount rich = BankAccount.ofCents("ACC002", Long.MAX_VALUE);
+
+        // Act & Assert
+        assertThrows(ArithmeticException.class, () -> rich.depositCents(1L));
+        assertThrows(ArithmeticException.class, () -> account.transferCents(rich, 1L));
+        assertEquals(10_000L, account.getBalanceCents());
+    }
+
+    // ==================== STATUS CODE TESTS ====================
+
+    @Test
+    @DisplayName("Should return success and apply accepted operations")
+    void whenTryOperationsSucceedThenReturnSuccess() {
+        // Arrange
+        BankAccount targetAccount = new BankAccount("ACC002", 50.0);
+
+        // Act & Assert
+        assertEquals(TransactionStatus.SUCCESS, account.tryDeposit(10.0));
+        assertEquals(TransactionStatus.SUCCESS, account.tryWithdraw(20.0));
+        assertEquals(TransactionStatus.SUCCESS, account.tryTransfer(targetAccount, 40.0));
+        assertEquals(5_000L, account.getBalanceCents());
+        assertEquals(9_000L, targetAccount.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should return a status instead of throwing on rejection")
+    void whenTryOperationsAreRejectedThenReturnStatus() {
+        // Arrange
+        BankAccount targetAccount = new BankAccount("ACC002", 50.0);
+
+        // Act & Assert
+        assertEquals(TransactionStatus.INVALID_AMOUNT, account.tryDeposit(0.0));
+        assertEquals(TransactionStatus.INVALID_AMOUNT, account.tryWithdrawCents(-1L));
+        assertEquals(TransactionStatus.INSUFFICIENT_FUNDS, account.tryWithdraw(100.01));
+        assertEquals(TransactionStatus.INVALID_TARGET, account.tryTransfer(null, 1.0));
+        assertEquals(TransactionStatus.INVALID_AMOUNT, account.tryTransfer(targetAccount, -1.0));
+        assertEquals(TransactionStatus.INSUFFICIENT_FUNDS, account.tryTransferCents(targetAccount, 10_001L));
+        assertEquals(10_000L, account.getBalanceCents());
+        assertEquals(5_000L, targetAccount.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should report inactive accounts and overflow as statuses")
+    void whenAccountsInactiveOrOverflowThenReturnStatus() {
+        // Arrange
+        BankAccount rich = BankAccount.ofCents("ACC002", Long.MAX_VALUE);
+        BankAccount closed = new BankAccount("ACC003", 50.0);
+        closed.closeAccount();
+
+        // Act & Assert
+        assertEquals(TransactionStatus.OVERFLOW, rich.tryDepositCents(1L));
+        assertEquals(TransactionStatus.OVERFLOW, account.tryTransferCents(rich, 1L));
+        assertEquals(TransactionStatus.INACTIVE_TARGET, account.tryTransfer(closed, 1.0));
+        assertEquals(TransactionStatus.INACTIVE_ACCOUNT, closed.tryDeposit(1.0));
+        assertEquals(TransactionStatus.INACTIVE_ACCOUNT, closed.tryWithdraw(1.0));
+        assertEquals(TransactionStatus.INACTIVE_ACCOUNT, closed.tryTransfer(account, 1.0));
+        assertFalse(closed.tryDepositCents(1L).isSuccess());
+    }
+
+    @Test
+    @DisplayName("Should return a status for amounts that cannot be converted to cents")
+    void whenAmountNotConvertibleThenReturnStatus() {
+        // Arrange
+        BankAccount targetAccount = new BankAccount("ACC002", 50.0);
+
+        // Act & Assert
+        assertEquals(TransactionStatus.OVERFLOW, account.tryDeposit(1e17));
+        assertEquals(TransactionStatus.INSUFFICIENT_FUNDS, account.tryWithdraw(Double.POSITIVE_INFINITY));
+        assertEquals(TransactionStatus.INSUFFICIENT_FUNDS, account.tryTransfer(targetAccount, 1e300));
+        assertEquals(TransactionStatus.INVALID_AMOUNT, account.tryWithdraw(Double.NaN));
+        assertEquals(TransactionStatus.INVALID_AMOUNT, account.tryDeposit(Double.NaN));
+        assertEquals(TransactionStatus.INVALID_AMOUNT, account.tryTransfer(targetAccount, Double.NaN));
+        assertEquals(TransactionStatus.INVALID_AMOUNT, account.tryDeposit(0.001));
+        assertThrows(ArithmeticException.class, () -> account.deposit(1e17));
+        assertEquals(10_000L, account.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should report a withdrawal too large for cents as insufficient funds")
+    void whenWithdrawalTooLargeForCentsThenInsufficientFunds() {
+        // Act & Assert
+        assertEquals(TransactionStatus.INSUFFICIENT_FUNDS, account.tryWithdraw(1e300));
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> account.withdraw(1e17));
+        assertEquals("Insufficient funds", exception.getMessage());
+        assertEquals(10_000L, account.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should report a transfer too large for cents as insufficient funds")
+    void whenTransferTooLargeForCentsThenInsufficientFunds() {
+        // Arrange
+        BankAccount targetAccount = new BankAccount("ACC002", 50.0);
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> account.transfer(targetAccount, 1e17));
+        assertEquals("Insufficient funds", exception.getMessage());
+        assertEquals(10_000L, account.getBalanceCents());
+        assertEquals(5_000L, targetAccount.getBalanceCents());
+    }
+
+    // ==================== CONCURRENCY TESTS ====================
+
+    @Test
+    @DisplayName("Should not accept deposits after the close event has reported the final balance")
+    void whenClosedDuringDepositsThenNoDepositLandsAfterClose() throws InterruptedException {
+        // Arrange
+        long[] closingBalance = new long[1];
+        account.setListener((changed, operation, amountCents, balanceCents) -> {
+            if (operation == AccountOperation.CLOSE) {
+                closingBalance[0] = balanceCents;
+            }
+        });
+        Thread depositor = new Thread(() -> {
+            while (account.tryDepositCents(1L).isSuccess()) {
+                // keep depositing until the account closes
+            }
+        });
+
+        // Act
+        depositor.start();
+        Thread.sleep(5);
+        account.closeAccount();
+        depositor.join();
+
+        // Assert
+        assertFalse(account.isActive());
+        assertEquals(closingBalance[0], account.getBalanceCents());
+    }
+}
@@ -3,6 +3,13 @@ package org.example.wip;
 import org.example.Calculator;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class CalculatorWIPTest {
@@ -86,6 +93,202 @@ public class CalculatorWIPTest {
         assertEquals(-number, result);
     }
 
+    @Test
+    void whenArraysAddedThenMatchScalarAdd() {
+        // Arrange
+        var calculator = new Calculator();
+        var a = randomInts(1_003, 1);
+        var b = randomInts(1_003, 2);
+        var result = new int[a.length];
+
+        // Act
+        calculator.add(a, b, result);
+
+        // Assert
+        for (int i = 0; i < a.length; i++) {
+            assertEquals(calculator.add(a[i], b[i]), result[i]);
+        }
+    }
+
+    @Test
+    void whenArraysSubtractedAndMultipliedThenMatchScalar() {
+        // Arrange
+        var calculator = new Calculator();
+        var a = randomInts(517, 3);
+        var b = randomInts(517, 4);
+        var differences = new int[a.length];
+        var products = new int[a.length];
+
+        // Act
+        calculator.subtract(a, b, differences);
+        calculator.multiply(a, b, products);
+
+        // Assert
+        for (int i = 0; i < a.length; i++) {
+            assertEquals(calculator.subtract(a[i], b[i]), differences[i]);
+            assertEquals(calculator.multiply(a[i], b[i]), products[i]);
+        }
+    }
+
+    @Test
+    void whenArraysDividedThenMatchScalarDivide() {
+        // Arrange
+        var calculator = new Calculator();
+        var a = randomInts(259, 5);
+        var b = randomInts(259, 6);
+        for (int i = 0; i < b.length; i++) {
+            b[i] = b[i] == 0 ? 1 : b[i];
+        }
+        var result = new double[a.length];
+
+        // Act
+        calculator.divide(a, b, result);
+
+        // Assert
+        for (int i = 0; i < a.length; i++) {
+            assertEquals(calculator.divide(a[i], b[i]), result[i]);
+        }
+    }
+
+    @Test
+    void whenArrayDividedBy0ThenThrowExceptionAndLeaveResult() {
+        // Arrange
+        var calculator = new Calculator();
+        var a = new int[100];
+        var b = new int[100];
+        Arrays.fill(b, 1);
+        b[97] = 0;
+        var result = new double[100];
+
+        // Act & Assert
+        assertThrows(ArithmeticException.class, () -> calculator.divide(a, b, result));
+        assertEquals(0.0, result[0]);
+    }
+
+    @Test
+    void whenArrayLengthsDifferThenThrowException() {
+        // Arrange
+        var calculator = new Calculator();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> calculator.add(new int[3], new int[4], new int[3]));
+        assertThrows(IllegalArgumentException.class, () -> calculator.multiply(new int[3], new int[3], null));
+    }
+
+    @Test
+    void whenHeapBuffersAddedThenPositionsAdvance() {
+        // Arrange
+        var calculator = new Calculator();
+        var a = IntBuffer.wrap(randomInts(100, 7));
+        var b = IntBuffer.wrap(randomInts(100, 8));
+        a.position(10);
+        b.position(10);
+        var result = IntBuffer.allocate(90);
+
+        // Act
+        calculator.add(a, b, result);
+
+        // Assert
+        assertEquals(100, a.position());
+        assertEquals(90, result.position());
+        for (int i = 0; i < 90; i++) {
+            assertEquals(a.get(10 + i) + b.get(10 + i), result.get(i));
+        }
+    }
+
+    @Test
+    void whenDirectBuffersUsedThenMatchArrays() {
+        // Arrange
+        var calculator = new Calculator();
+        int length = 10_000;
+        var a = randomInts(length, 9);
+        var b = randomInts(length, 10);
+        for (int i = 0; i < b.length; i++) {
+            b[i] = b[i] == 0 ? 1 : b[i];
+        }
+        var directA = directInts(a);
+        var directB = directInts(b);
+        var products = directInts(new int[length]);
+        var quotients = ByteBuffer.allocateDirect(length * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        var expectedProducts = new int[length];
+        var expectedQuotients = new double[length];
+
+        // Act
+        calculator.multiply(directA, directB, products);
+        directA.rewind();
+        directB.rewind();
+        calculator.divide(directA, directB, quotients);
+        calculator.multiply(a, b, expectedProducts);
+        calculator.divide(a, b, expectedQuotients);
+
+        // Assert
+        for (int i = 0; i < length; i++) {
+            assertEquals(expectedProducts[i], products.get(i));
+            assertEquals(expectedQuotients[i], quotients.get(i));
+        }
+    }
+
+    @Test
+    void whenBufferDividedBy0ThenThrowExceptionAndLeavePositions() {
+        // Arrange
+        var calculator = new Calculator();
+        var a = directInts(new int[] {1, 2, 3});
+        var b = directInts(new int[] {1, 0, 3});
+        var result = DoubleBuffer.allocate(3);
+
+        // Act & Assert
+        assertThrows(ArithmeticException.class, () -> calculator.divide(a, b, result));
+        assertThrows(ArithmeticException.class, () -> calculator.divide(IntBuffer.wrap(new int[] {1}), IntBuffer.wrap(new int[] {0}), DoubleBuffer.allocate(1)));
+        assertEquals(0, a.position());
+        assertEquals(0, result.position());
+    }
+
+    @Test
+    void whenBufferRemainingDiffersThenThrowException() {
+        // Arrange
+        var calculator = new Calculator();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> calculator.subtract(IntBuffer.allocate(2), IntBuffer.allocate(3), IntBuffer.allocate(2)));
+        assertThrows(IllegalArgumentException.class, () -> calculator.add(null, IntBuffer.allocate(2), IntBuffer.allocate(2)));
+    }
+
+    @Test
+    void whenArrayAbsoluteThenMatchesScalarAbsolute() {
+        // Arrange
+        var calculator = new Calculator();
+        var numbers = randomInts(1_001, 11);
+        numbers[0] = Integer.MIN_VALUE;
+        numbers[1] = 0;
+        var result = new int[numbers.length];
+
+        // Act
+        calculator.absolute(numbers, result);
+
+        // Assert
+        for (int i = 0; i < numbers.length; i++) {
+            assertEquals(calculator.absolute(numbers[i]), result[i]);
+        }
+        assertThrows(IllegalArgumentException.class, () -> calculator.absolute(numbers, new int[1]));
+        assertThrows(IllegalArgumentException.class, () -> calculator.isEven((int[]) null));
+    }
+
+    @Test
+    void whenVectorModuleAddedThenVectorized() {
+        // Act & Assert
+        assertEquals(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(), Calculator.isVectorized());
+    }
+
+    private static int[] randomInts(int length, long seed) {
+        return new Random(seed).ints(length).toArray();
+    }
+
+    private static IntBuffer directInts(int[] values) {
+        var buffer = ByteBuffer.allocateDirect(values.length * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+        buffer.put(values).flip();
+        return buffer;
+    }
+
 
 
 
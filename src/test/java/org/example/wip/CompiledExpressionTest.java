@@ -0,0 +1,178 @@
+package org.example.wip;
+
+import org.example.Calculator;
+import org.example.CompiledExpression;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CompiledExpression Unit Tests")
+public class CompiledExpressionTest {
+
+    private final Calculator calculator = new Calculator();
+
+    // ==================== EVALUATION TESTS ====================
+
+    @Test
+    @DisplayName("Should evaluate a formula like the equivalent Calculator calls")
+    void whenFormulaEvaluatedThenMatchesCalculator() {
+        // Arrange
+        CompiledExpression expression = CompiledExpression.compile("(a + b) * c / d");
+        Random random = new Random(1);
+
+        for (int i = 0; i < 1_000; i++) {
+            int a = random.nextInt();
+            int b = random.nextInt();
+            int c = random.nextInt();
+            int d = random.nextInt(1_000) + 1;
+
+            // Act
+            double result = expression.evaluate(a, b, c, d);
+
+            // Assert
+            assertEquals(calculator.divide(calculator.multiply(calculator.add(a, b), c), d), result);
+        }
+    }
+
+    @Test
+    @DisplayName("Should list variables in order of first appearance")
+    void whenCompiledThenVariablesInOrderOfAppearance() {
+        // Act
+        CompiledExpression expression = CompiledExpression.compile("c * (a + c) - b");
+
+        // Assert
+        assertEquals(List.of("c", "a", "b"), expression.getVariables());
+        assertEquals(3 * (1 + 3) - 2, expression.evaluateInt(3, 1, 2));
+    }
+
+    @Test
+    @DisplayName("Should honour precedence, unary minus, literals and abs")
+    void whenOperatorsMixedThenPrecedenceHonoured() {
+        // Act
+        CompiledExpression expression = CompiledExpression.compile("abs(x - 10) * 2 + -y - 3 * 4");
+
+        // Assert
+        assertTrue(expression.isIntegral());
+        assertEquals(14 * 2 - 5 - 12, expression.evaluateInt(-4, 5));
+        assertEquals(14 * 2 - 5 - 12, expression.evaluate(-4, 5));
+    }
+
+    @Test
+    @DisplayName("Should wrap around on int overflow like Calculator")
+    void whenIntOverflowsThenWrapsAround() {
+        // Act
+        CompiledExpression expression = CompiledExpression.compile("a * 2 + 1");
+
+        // Assert
+        assertEquals(calculator.add(calculator.multiply(Integer.MAX_VALUE, 2), 1), expression.evaluateInt(Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Should carry on in double arithmetic after a division")
+    void whenDivisionFeedsOtherOperationsThenDoubleArithmetic() {
+        // Act
+        CompiledExpression expression = CompiledExpression.compile("abs(a / b - 1) * 4 + a / (b / 2)");
+
+        // Assert
+        assertFalse(expression.isIntegral());
+        assertEquals(Math.abs(1.0 / 4 - 1) * 4 + 1 / 2.0, expression.evaluate(1, 4));
+        assertThrows(IllegalStateException.class, () -> expression.evaluateInt(1, 4));
+    }
+
+    @Test
+    @DisplayName("Should fold formulas without variables")
+    void whenNoVariablesThenFolded() {
+        // Act
+        CompiledExpression integral = CompiledExpression.compile("2 * (3 + 4) - abs(-5)");
+        CompiledExpression fraction = CompiledExpression.compile("7 / 2");
+
+        // Assert
+        assertEquals(9, integral.evaluateInt());
+        assertEquals(3.5, fraction.evaluate());
+        assertTrue(integral.getVariables().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when a divisor evaluates to zero")
+    void whenDivisorIsZeroThenThrowException() {
+        // Arrange
+        CompiledExpression intDivisor = CompiledExpression.compile("a / b");
+        CompiledExpression doubleDivisor = CompiledExpression.compile("a / (b / 3)");
+
+        // Act & Assert
+        assertThrows(ArithmeticException.class, () -> intDivisor.evaluate(1, 0));
+        assertThrows(ArithmeticException.class, () -> doubleDivisor.evaluate(1, 0));
+    }
+
+    @Test
+    @DisplayName("Should compile constant zero divisors and throw only when they are evaluated")
+    void whenDivisorIsConstantZeroThenThrowOnEvaluation() {
+        // Act
+        CompiledExpression literal = CompiledExpression.compile("a / 0");
+        CompiledExpression folded = CompiledExpression.compile("a / (1 - 1)");
+        CompiledExpression constant = CompiledExpression.compile("1 / 0 + 2");
+
+        // Assert
+        ArithmeticException exception = assertThrows(ArithmeticException.class, () -> literal.evaluate(7));
+        assertEquals("Cannot divide by zero", exception.getMessage());
+        assertThrows(ArithmeticException.class, () -> folded.evaluate(7));
+        assertThrows(ArithmeticException.class, () -> constant.evaluate());
+    }
+
+    @Test
+    @DisplayName("Should read negated literals down to the smallest int")
+    void whenLiteralNegatedThenFullIntRangeAccepted() {
+        // Act
+        CompiledExpression smallest = CompiledExpression.compile("-2147483648");
+        CompiledExpression offset = CompiledExpression.compile("a - -2147483648 * 1");
+
+        // Assert
+        assertEquals(Integer.MIN_VALUE, smallest.evaluateInt());
+        assertEquals(calculator.subtract(5, calculator.multiply(Integer.MIN_VALUE, 1)), offset.evaluateInt(5));
+        assertEquals(-7 * 2, CompiledExpression.compile("- 7 * 2").evaluateInt());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when the number of values does not match")
+    void whenValueCountWrongThenThrowException() {
+        // Arrange
+        CompiledExpression expression = CompiledExpression.compile("a + b");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> expression.evaluate(1));
+        assertThrows(IllegalArgumentException.class, () -> expression.evaluateInt(1, 2, 3));
+    }
+
+    // ==================== COMPILATION TESTS ====================
+
+    @Test
+    @DisplayName("Should return the cached expression for the same source")
+    void whenSameSourceCompiledThenCachedInstanceReturned() {
+        // Act
+        CompiledExpression first = CompiledExpression.compile("x * y + 1");
+        CompiledExpression second = CompiledExpression.compile("x * y + 1");
+
+        // Assert
+        assertSame(first, second);
+        assertEquals("x * y + 1", second.getSource());
+    }
+
+    @Test
+    @DisplayName("Should throw exception for malformed formulas")
+    void whenMalformedThenThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> CompiledExpression.compile(null));
+        assertThrows(IllegalArgumentException.class, () -> CompiledExpression.compile(""));
+        assertThrows(IllegalArgumentException.class, () -> CompiledExpression.compile("(a + b"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledExpression.compile("a + * b"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledExpression.compile("a b"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledExpression.compile("99999999999"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledExpression.compile("2147483648"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledExpression.compile("-2147483649"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledExpression.compile("123456789012345678901234567890"));
+    }
+}
@@ -0,0 +1,206 @@
+package org.example.wip;
+
+import org.example.ConcurrentBankAccount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ConcurrentBankAccount Unit Tests")
+public class ConcurrentBankAccountTest {
+
+    private static final int THREADS = 8;
+
+    private ConcurrentBankAccount account;
+
+    @BeforeEach
+    void setUp() {
+        account = new ConcurrentBankAccount("ACC001", 100.0);
+    }
+
+    // ==================== SINGLE-THREADED TESTS ====================
+
+    @Test
+    @DisplayName("Should create account with zero balance")
+    void whenCreateAccountWithoutBalanceThenBalanceIsZero() {
+        // Arrange & Act
+        ConcurrentBankAccount newAccount = new ConcurrentBankAccount("ACC002");
+
+        // Assert
+        assertEquals(0.0, newAccount.getBalance(), 0.001);
+        assertEquals("ACC002", newAccount.getAccountNumber());
+        assertTrue(newAccount.isActive());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid constructor arguments")
+    void whenCreateAccountWithInvalidArgumentsThenThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentBankAccount(null));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentBankAccount("  "));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentBankAccount("ACC002", -1.0));
+    }
+
+    @Test
+    @DisplayName("Should update balance after deposit and withdrawal")
+    void whenDepositAndWithdrawThenBalanceUpdates() {
+        // Act
+        account.deposit(50.0);
+        account.withdraw(30.0);
+
+        // Assert
+        assertEquals(120.0, account.getBalance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should withdraw the whole balance in parts without rounding drift")
+    void whenBalanceWithdrawnInPartsThenNoDrift() {
+        // Arrange
+        ConcurrentBankAccount small = new ConcurrentBankAccount("ACC003", 0.3);
+
+        // Act
+        small.withdraw(0.1);
+        small.withdraw(0.2);
+
+        // Assert
+        assertEquals(0.0, small.getBalance());
+        assertThrows(IllegalArgumentException.class, () -> small.deposit(0.001));
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive amounts")
+    void whenAmountIsNotPositiveThenThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> account.deposit(0.0));
+        assertThrows(IllegalArgumentException.class, () -> account.withdraw(-5.0));
+    }
+
+    @Test
+    @DisplayName("Should throw exception for insufficient funds")
+    void whenWithdrawMoreThanBalanceThenThrowException() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> account.withdraw(200.0));
+        assertEquals(100.0, account.getBalance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should reject operations on a closed account")
+    void whenAccountClosedThenOperationsThrowException() {
+        // Arrange
+        account.closeAccount();
+
+        // Act & Assert
+        assertFalse(account.isActive());
+        assertThrows(IllegalStateException.class, () -> account.deposit(10.0));
+        assertThrows(IllegalStateException.class, () -> account.withdraw(10.0));
+    }
+
+    @Test
+    @DisplayName("Should transfer money between accounts")
+    void whenTransferThenBothBalancesUpdate() {
+        // Arrange
+        ConcurrentBankAccount target = new ConcurrentBankAccount("ACC002", 50.0);
+
+        // Act
+        account.transfer(target, 30.0);
+
+        // Assert
+        assertEquals(70.0, account.getBalance(), 0.001);
+        assertEquals(80.0, target.getBalance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should reject transfers to null or inactive accounts")
+    void whenTransferTargetInvalidThenThrowException() {
+        // Arrange
+        ConcurrentBankAccount target = new ConcurrentBankAccount("ACC002", 50.0);
+        target.closeAccount();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> account.transfer(null, 10.0));
+        assertThrows(IllegalStateException.class, () -> account.transfer(target, 10.0));
+        assertEquals(100.0, account.getBalance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should reject transfers from an inactive account")
+    void whenTransferFromInactiveAccountThenThrowException() {
+        // Arrange
+        ConcurrentBankAccount target = new ConcurrentBankAccount("ACC002", 50.0);
+        account.closeAccount();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> account.transfer(target, 10.0));
+    }
+
+    // ==================== CONCURRENCY TESTS ====================
+
+    @Test
+    @DisplayName("Should not lose concurrent deposits")
+    void whenDepositingConcurrentlyThenNoUpdateIsLost() throws Exception {
+        // Arrange
+        ConcurrentBankAccount hot = new ConcurrentBankAccount("HOT");
+        int perThread = 10_000;
+
+        // Act
+        runConcurrently(() -> {
+            for (int i = 0; i < perThread; i++) {
+                hot.deposit(1.0);
+            }
+            return perThread;
+        });
+
+        // Assert
+        assertEquals(THREADS * perThread, hot.getBalance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should never overdraw under concurrent withdrawals")
+    void whenWithdrawingConcurrentlyThenNeverOverdraw() throws Exception {
+        // Arrange
+        ConcurrentBankAccount hot = new ConcurrentBankAccount("HOT", 1000.0);
+
+        // Act
+        int succeeded = runConcurrently(() -> {
+            int ok = 0;
+            for (int i = 0; i < 500; i++) {
+                try {
+                    hot.withdraw(1.0);
+                    ok++;
+                } catch (IllegalStateException e) {
+                    // declined: insufficient funds
+                }
+            }
+            return ok;
+        });
+
+        // Assert
+        assertEquals(1000, succeeded);
+        assertEquals(0.0, hot.getBalance(), 0.001);
+    }
+
+    private int runConcurrently(Callable<Integer> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(pool.submit(task));
+            }
+            int total = 0;
+            for (Future<Integer> future : futures) {
+                total += future.get();
+            }
+            return total;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
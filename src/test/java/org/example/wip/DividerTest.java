@@ -0,0 +1,113 @@
+package org.example.wip;
+
+import org.example.Calculator;
+import org.example.Divider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Divider Unit Tests")
+public class DividerTest {
+
+    private static final int[] DIVISORS = {
+            1, -1, 2, -2, 3, 7, 10, -10, 100, 1000, 1 << 20, (1 << 24) - 1, (1 << 30) - 1, (1 << 29) + 1,
+            0x55555555, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE + 1
+    };
+
+    private final Calculator calculator = new Calculator();
+
+    @Test
+    @DisplayName("Should match Calculator.divide bit for bit across divisors and dividends")
+    void whenDividedThenMatchesCalculatorExactly() {
+        // Arrange
+        SplittableRandom random = new SplittableRandom(7);
+
+        for (int divisor : DIVISORS) {
+            Divider divider = calculator.divider(divisor);
+            for (int i = 0; i < 100_000; i++) {
+                int dividend = random.nextInt();
+
+                // Act
+                double quotient = divider.divide(dividend);
+
+                // Assert
+                assertEquals(calculator.divide(dividend, divisor), quotient, dividend + " / " + divisor);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should match Calculator.divide for random divisors and edge dividends")
+    void whenRandomDivisorsThenMatchesCalculatorExactly() {
+        // Arrange
+        SplittableRandom random = new SplittableRandom(11);
+        int[] dividends = {0, 1, -1, 2, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE + 1};
+
+        for (int i = 0; i < 20_000; i++) {
+            int divisor = random.nextInt();
+            if (divisor == 0) {
+                continue;
+            }
+            Divider divider = new Divider(divisor);
+            for (int dividend : dividends) {
+                // Act & Assert
+                assertEquals(calculator.divide(dividend, divisor), divider.divide(dividend), dividend + " / " + divisor);
+            }
+            int dividend = random.nextInt();
+            assertEquals(calculator.divide(dividend, divisor), divider.divide(dividend), dividend + " / " + divisor);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the sign of zero like Calculator.divide")
+    void whenZeroDividedByNegativeThenNegativeZero() {
+        // Act
+        double quotient = calculator.divider(-3).divide(0);
+
+        // Assert
+        assertEquals(-0.0, quotient);
+        assertEquals(calculator.divide(0, -3), quotient);
+    }
+
+    @Test
+    @DisplayName("Should divide arrays like the scalar divide")
+    void whenArrayDividedThenMatchesScalar() {
+        // Arrange
+        int[] dividends = new SplittableRandom(3).ints(4_099).toArray();
+        double[] quotients = new double[dividends.length];
+        double[] halves = new double[dividends.length];
+
+        // Act
+        calculator.divider(12_345).divide(dividends, quotients);
+        calculator.divider(-2).divide(dividends, halves);
+
+        // Assert
+        assertEquals(-2, calculator.divider(-2).getDivisor());
+        for (int i = 0; i < dividends.length; i++) {
+            assertEquals(calculator.divide(dividends[i], 12_345), quotients[i]);
+            assertEquals(calculator.divide(dividends[i], -2), halves[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("Should throw exception when divisor is zero")
+    void whenDivisorIsZeroThenThrowException() {
+        // Act & Assert
+        ArithmeticException exception = assertThrows(ArithmeticException.class, () -> calculator.divider(0));
+        assertEquals("Cannot divide by zero", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when arrays are null or lengths differ")
+    void whenArraysInvalidThenThrowException() {
+        // Arrange
+        Divider divider = calculator.divider(3);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> divider.divide(null, new double[0]));
+        assertThrows(IllegalArgumentException.class, () -> divider.divide(new int[2], new double[3]));
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.wip;
+
+import org.example.EventSourcedLedger;
+import org.example.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EventSourcedLedger Unit Tests")
+public class EventSourcedLedgerTest {
+
+    private EventSourcedLedger ledger;
+    private int first;
+    private int second;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new EventSourcedLedger(4);
+        first = ledger.open("ACC001", 10_000L);
+        second = ledger.open("ACC002", 5_000L);
+    }
+
+    @Test
+    @DisplayName("Should project balances and status from events")
+    void whenEventsAppendedThenProjectionsUpdate() {
+        // Act
+        ledger.tryDeposit(first, 500L);
+        ledger.tryWithdraw(second, 1_000L);
+        ledger.tryTransfer(first, second, 2_500L);
+        ledger.close(second);
+
+        // Assert
+        assertEquals(8_000L, ledger.getBalanceCents(first));
+        assertEquals(6_500L, ledger.getBalanceCents(second));
+        assertTrue(ledger.isActive(first));
+        assertFalse(ledger.isActive(second));
+        assertEquals("ACC002", ledger.getAccountNumber(second));
+        assertEquals(7, ledger.getSequence());
+    }
+
+    @Test
+    @DisplayName("Should reject operations without appending events")
+    void whenOperationRejectedThenNoEventIsAppended() {
+        // Arrange
+        int closed = ledger.open("ACC003", 0L);
+        ledger.close(closed);
+        int rich = ledger.open("ACC004", Long.MAX_VALUE);
+        int sequence = ledger.getSequence();
+
+        // Act & Assert
+        assertEquals(TransactionStatus.INVALID_AMOUNT, ledger.tryDeposit(first, 0L));
+        assertEquals(TransactionStatus.INACTIVE_ACCOUNT, ledger.tryDeposit(closed, 1L));
+        assertEquals(TransactionStatus.OVERFLOW, ledger.tryDeposit(rich, 1L));
+        assertEquals(TransactionStatus.INVALID_AMOUNT, ledger.tryWithdraw(first, -1L));
+        assertEquals(TransactionStatus.INACTIVE_ACCOUNT, ledger.tryWithdraw(closed, 1L));
+        assertEquals(TransactionStatus.INSUFFICIENT_FUNDS, ledger.tryWithdraw(second, 5_001L));
+        assertEquals(TransactionStatus.INACTIVE_ACCOUNT, ledger.tryTransfer(closed, first, 1L));
+        assertEquals(TransactionStatus.INACTIVE_TARGET, ledger.tryTransfer(first, closed, 1L));
+        assertEquals(TransactionStatus.INVALID_AMOUNT, ledger.tryTransfer(first, second, 0L));
+        assertEquals(TransactionStatus.INSUFFICIENT_FUNDS, ledger.tryTransfer(second, first, 5_001L));
+        assertEquals(TransactionStatus.OVERFLOW, ledger.tryTransfer(first, rich, 1L));
+        ledger.close(closed);
+        assertEquals(sequence, ledger.getSequence());
+    }
+
+    @Test
+    @DisplayName("Should answer point-in-time balance queries")
+    void whenQueryingPastSequenceThenReturnBalanceAtThatPoint() {
+        // Arrange
+        int afterOpen = ledger.getSequence();
+        ledger.tryDeposit(first, 100L);
+        int afterDeposit = ledger.getSequence();
+        ledger.tryTransfer(first, second, 1_100L);
+
+        // Act & Assert
+        assertEquals(10_000L, ledger.getBalanceCentsAt(first, afterOpen));
+        assertEquals(10_100L, ledger.getBalanceCentsAt(first, afterDeposit));
+        assertEquals(9_000L, ledger.getBalanceCentsAt(first, ledger.getSequence()));
+        assertEquals(6_100L, ledger.getBalanceCentsAt(second, ledger.getSequence()));
+    }
+
+    @Test
+    @DisplayName("Should match the live balance at every sequence across many checkpoints")
+    void whenManyRandomEventsThenHistoricalBalancesMatch() {
+        // Arrange
+        Random random = new Random(42);
+        List<long[]> history = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            int account = random.nextBoolean() ? first : second;
+            int other = account == first ? second : first;
+            long amount = 1 + random.nextInt(500);
+            switch (random.nextInt(3)) {
+                case 0 -> ledger.tryDeposit(account, amount);
+                case 1 -> ledger.tryWithdraw(account, amount);
+                default -> ledger.tryTransfer(account, other, amount);
+            }
+            history.add(new long[] {ledger.getSequence(), ledger.getBalanceCents(first), ledger.getBalanceCents(second)});
+        }
+
+        // Act & Assert
+        for (long[] point : history) {
+            assertEquals(point[1], ledger.getBalanceCentsAt(first, (int) point[0]));
+            assertEquals(point[2], ledger.getBalanceCentsAt(second, (int) point[0]));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject invalid queries and arguments")
+    void whenArgumentsInvalidThenThrowException() {
+        // Arrange
+        int before = ledger.getSequence();
+        int late = ledger.open("ACC003", 0L);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> ledger.getBalanceCentsAt(late, before));
+        assertThrows(IllegalArgumentException.class, () -> ledger.getBalanceCentsAt(first, -1));
+        assertThrows(IllegalArgumentException.class, () -> ledger.getBalanceCentsAt(first, 1_000));
+        assertThrows(IllegalArgumentException.class, () -> ledger.open(" ", 0L));
+        assertThrows(IllegalArgumentException.class, () -> ledger.open("ACC005", -1L));
+        assertThrows(IllegalArgumentException.class, () -> new EventSourcedLedger(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> ledger.getBalanceCents(99));
+    }
+
+    @Test
+    @DisplayName("Should grow past the initial account capacity")
+    void whenOpeningManyAccountsThenLedgerGrows() {
+        // Arrange
+        EventSourcedLedger large = new EventSourcedLedger();
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            large.open("ACC-" + i, i);
+        }
+
+        // Assert
+        assertEquals(99L, large.getBalanceCents(99));
+        assertEquals(99L, large.getBalanceCentsAt(99, large.getSequence()));
+    }
+}
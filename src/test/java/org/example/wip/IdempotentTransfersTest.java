@@ -0,0 +1,182 @@
+package org.example.wip;
+
+import org.example.AccountMetrics;
+import org.example.AccountOperation;
+import org.example.BankAccount;
+import org.example.IdempotentTransfers;
+import org.example.TransactionStatus;
+import org.example.TransferEngine;
+import org.example.VelocityLimit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IdempotentTransfers Unit Tests")
+public class IdempotentTransfersTest {
+
+    private AtomicLong now;
+    private BankAccount source;
+    private BankAccount target;
+    private IdempotentTransfers transfers;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong();
+        source = BankAccount.ofCents("ACC001", 10_000L);
+        target = BankAccount.ofCents("ACC002", 0L);
+        transfers = new IdempotentTransfers(new TransferEngine(), 1_000, Duration.ofMinutes(10), now::get);
+    }
+
+    @Test
+    @DisplayName("Should move money once when a transfer is retried with the same key")
+    void whenRetriedWithSameKeyThenTransferredOnce() {
+        // Act
+        TransactionStatus first = transfers.transfer("key-1", source, target, 1_000L);
+        TransactionStatus retry = transfers.transfer("key-1", source, target, 1_000L);
+
+        // Assert
+        assertEquals(TransactionStatus.SUCCESS, first);
+        assertEquals(TransactionStatus.SUCCESS, retry);
+        assertEquals(9_000L, source.getBalanceCents());
+        assertEquals(1_000L, target.getBalanceCents());
+        assertEquals(1L, transfers.size());
+    }
+
+    @Test
+    @DisplayName("Should replay a declined outcome for the same key")
+    void whenFirstAttemptDeclinedThenRetryReturnsSameOutcome() {
+        // Act
+        TransactionStatus first = transfers.transfer("key-1", source, target, 50_000L);
+        source.depositCents(50_000L);
+        TransactionStatus retry = transfers.transfer("key-1", source, target, 50_000L);
+
+        // Assert
+        assertEquals(TransactionStatus.INSUFFICIENT_FUNDS, first);
+        assertEquals(TransactionStatus.INSUFFICIENT_FUNDS, retry);
+        assertEquals(0L, target.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused for a different transfer")
+    void whenKeyReusedForDifferentTransferThenThrowException() {
+        // Arrange
+        BankAccount other = BankAccount.ofCents("ACC003", 0L);
+        transfers.transfer("key-1", source, target, 1_000L);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> transfers.transfer("key-1", source, target, 2_000L));
+        assertThrows(IllegalArgumentException.class, () -> transfers.transfer("key-1", source, other, 1_000L));
+        assertThrows(IllegalArgumentException.class, () -> transfers.transfer("key-1", other, target, 1_000L));
+        assertEquals(9_000L, source.getBalanceCents());
+        assertEquals(0L, other.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should apply the velocity limit and metrics of the source account")
+    void whenSourceHasLimitAndMetricsThenBothApply() {
+        // Arrange
+        AccountMetrics metrics = new AccountMetrics();
+        source.setMetrics(metrics);
+        source.setVelocityLimit(new VelocityLimit(Duration.ofSeconds(60), 6, 1, Long.MAX_VALUE, now::get));
+
+        // Act
+        TransactionStatus first = transfers.transfer("key-1", source, target, 100L);
+        TransactionStatus second = transfers.transfer("key-2", source, target, 100L);
+
+        // Assert
+        assertEquals(TransactionStatus.SUCCESS, first);
+        assertEquals(TransactionStatus.LIMIT_EXCEEDED, second);
+        assertEquals(2, metrics.getTransferCount());
+        assertEquals(1, metrics.snapshot().count(AccountOperation.TRANSFER_OUT, TransactionStatus.LIMIT_EXCEEDED));
+    }
+
+    @Test
+    @DisplayName("Should remember a key across one rotation and forget it after two")
+    void whenRetentionPassesThenKeyForgotten() {
+        // Arrange
+        transfers.transfer("key-1", source, target, 1_000L);
+
+        // Act & Assert
+        now.set(Duration.ofMinutes(5).toNanos());
+        transfers.transfer("key-2", source, target, 1_000L);
+        transfers.transfer("key-1", source, target, 1_000L);
+        assertEquals(2_000L, target.getBalanceCents());
+
+        now.set(Duration.ofMinutes(10).toNanos());
+        transfers.transfer("key-3", source, target, 1_000L);
+        transfers.transfer("key-1", source, target, 1_000L);
+        assertEquals(4_000L, target.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should keep memory under the key limit under many distinct keys")
+    void whenManyKeysThenSizeStaysUnderLimit() {
+        // Arrange
+        BankAccount rich = BankAccount.ofCents("RICH", 1_000_000L);
+        long largest = 0;
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            transfers.transfer("key-" + i, rich, target, 1L);
+            largest = Math.max(largest, transfers.size());
+        }
+
+        // Assert
+        assertTrue(largest <= 1_000, "size reached " + largest);
+        assertEquals(10_000L, target.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should run concurrent retries of one key exactly once")
+    void whenSameKeyRetriedConcurrentlyThenTransferredOnce() throws Exception {
+        // Arrange
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<TransactionStatus>> results = new ArrayList<>();
+
+        // Act
+        try {
+            for (int round = 0; round < 200; round++) {
+                String key = "key-" + round;
+                results.clear();
+                for (int t = 0; t < threads; t++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return transfers.transfer(key, source, target, 1L);
+                    }));
+                }
+                start.countDown();
+                for (Future<TransactionStatus> result : results) {
+                    assertEquals(TransactionStatus.SUCCESS, result.get());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(200L, target.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should reject null arguments and invalid settings")
+    void whenArgumentsInvalidThenThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> transfers.transfer(null, source, target, 1L));
+        assertThrows(IllegalArgumentException.class, () -> transfers.transfer("key", null, target, 1L));
+        assertThrows(IllegalArgumentException.class, () -> new IdempotentTransfers(null, 10, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> new IdempotentTransfers(new TransferEngine(), 1, Duration.ofMinutes(1)));
+    }
+}
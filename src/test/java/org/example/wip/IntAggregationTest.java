@@ -0,0 +1,155 @@
+package org.example.wip;
+
+import org.example.Calculator;
+import org.example.IntAggregation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IntAggregation Unit Tests")
+public class IntAggregationTest {
+
+    @TempDir
+    Path directory;
+
+    private final Calculator calculator = new Calculator();
+
+    @Test
+    @DisplayName("Should aggregate an array like a sequential loop over Calculator")
+    void whenArrayAggregatedThenMatchesLoop() {
+        // Arrange
+        int[] values = new SplittableRandom(1).ints(500_000).toArray();
+
+        // Act
+        IntAggregation aggregation = IntAggregation.of(values);
+
+        // Assert
+        assertMatchesLoop(values, aggregation);
+    }
+
+    @Test
+    @DisplayName("Should aggregate a stream without wrapping the long sum")
+    void whenStreamAggregatedThenSumDoesNotWrap() {
+        // Act
+        IntAggregation aggregation = IntAggregation.of(IntStream.generate(() -> Integer.MAX_VALUE).limit(10).parallel());
+
+        // Assert
+        assertEquals(10L * Integer.MAX_VALUE, aggregation.getSum());
+        assertEquals(Integer.MAX_VALUE, aggregation.getMean());
+        assertEquals(0, aggregation.getEvenCount());
+    }
+
+    @Test
+    @DisplayName("Should report neutral values when there is nothing to aggregate")
+    void whenEmptyThenNeutralValues() {
+        // Act
+        IntAggregation aggregation = IntAggregation.of(new int[0]);
+
+        // Assert
+        assertEquals(0, aggregation.getCount());
+        assertEquals(0.0, aggregation.getMean());
+        assertEquals(Integer.MAX_VALUE, aggregation.getMin());
+        assertEquals(Integer.MIN_VALUE, aggregation.getMax());
+    }
+
+    @Test
+    @DisplayName("Should merge partial aggregations")
+    void whenCombinedThenSameAsOne() {
+        // Arrange
+        IntAggregation left = new IntAggregation();
+        IntAggregation right = new IntAggregation();
+        left.accept(-7);
+        left.accept(4);
+        right.accept(10);
+
+        // Act
+        left.combine(right);
+
+        // Assert
+        assertEquals(3, left.getCount());
+        assertEquals(7, left.getSum());
+        assertEquals(-7, left.getMin());
+        assertEquals(10, left.getMax());
+        assertEquals(2, left.getEvenCount());
+    }
+
+    @Test
+    @DisplayName("Should aggregate a big-endian file written with DataOutputStream")
+    void whenBigEndianFileAggregatedThenMatchesLoop() throws IOException {
+        // Arrange
+        int[] values = new SplittableRandom(2).ints(300_001).toArray();
+        Path file = directory.resolve("ints.bin");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            for (int value : values) {
+                out.writeInt(value);
+            }
+        }
+
+        // Act
+        IntAggregation aggregation = IntAggregation.ofFile(file, ByteOrder.BIG_ENDIAN);
+
+        // Assert
+        assertMatchesLoop(values, aggregation);
+    }
+
+    @Test
+    @DisplayName("Should aggregate a little-endian file")
+    void whenLittleEndianFileAggregatedThenMatchesLoop() throws IOException {
+        // Arrange
+        int[] values = {1, -2, 3, Integer.MIN_VALUE, Integer.MAX_VALUE};
+        ByteBuffer bytes = ByteBuffer.allocate(values.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.asIntBuffer().put(values);
+        Path file = Files.write(directory.resolve("little.bin"), bytes.array());
+
+        // Act
+        IntAggregation aggregation = IntAggregation.ofFile(file, ByteOrder.LITTLE_ENDIAN);
+
+        // Assert
+        assertMatchesLoop(values, aggregation);
+    }
+
+    @Test
+    @DisplayName("Should throw exception when the file is not whole ints or missing")
+    void whenFileInvalidThenThrowException() throws IOException {
+        // Arrange
+        Path truncated = Files.write(directory.resolve("truncated.bin"), new byte[] {1, 2, 3, 4, 5});
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> IntAggregation.ofFile(truncated, ByteOrder.BIG_ENDIAN));
+        assertThrows(IOException.class, () -> IntAggregation.ofFile(directory.resolve("missing.bin"), ByteOrder.BIG_ENDIAN));
+        assertThrows(IllegalArgumentException.class, () -> IntAggregation.of((int[]) null));
+    }
+
+    private void assertMatchesLoop(int[] values, IntAggregation aggregation) {
+        long sum = 0;
+        long even = 0;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int value : values) {
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            if (calculator.isEven(value)) {
+                even++;
+            }
+        }
+        assertEquals(values.length, aggregation.getCount());
+        assertEquals(sum, aggregation.getSum());
+        assertEquals(min, aggregation.getMin());
+        assertEquals(max, aggregation.getMax());
+        assertEquals(even, aggregation.getEvenCount());
+        assertEquals((double) sum / values.length, aggregation.getMean());
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.wip;
+
+import org.example.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Money Unit Tests")
+public class MoneyTest {
+
+    @Test
+    @DisplayName("Should round amounts to the nearest cent")
+    void whenConvertToCentsThenRoundToNearestCent() {
+        // Act & Assert
+        assertEquals(10L, Money.toCents(0.1));
+        assertEquals(12_346L, Money.toCents(123.455));
+        assertEquals(-250L, Money.toCents(-2.5));
+    }
+
+    @Test
+    @DisplayName("Should reject amounts that do not fit in cents")
+    void whenAmountOutOfRangeThenThrowException() {
+        // Act & Assert
+        assertThrows(ArithmeticException.class, () -> Money.toCents(Double.NaN));
+        assertThrows(ArithmeticException.class, () -> Money.toCents(Double.POSITIVE_INFINITY));
+        assertThrows(ArithmeticException.class, () -> Money.toCents(1e17));
+    }
+
+    @Test
+    @DisplayName("Should convert cents back to an amount")
+    void whenConvertToAmountThenDivideByHundred() {
+        // Act & Assert
+        assertEquals(123.45, Money.toAmount(12_345L), 0.0);
+    }
+
+    @Test
+    @DisplayName("Should add cents and detect overflow")
+    void whenAddCentsThenDetectOverflow() {
+        // Act & Assert
+        assertEquals(3L, Money.add(1L, 2L));
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1L));
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MIN_VALUE, -1L));
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.wip;
+
+import org.example.Calculator;
+import org.example.ParityBitSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ParityBitSet Unit Tests")
+public class ParityBitSetTest {
+
+    private final Calculator calculator = new Calculator();
+    private final int[] values = new SplittableRandom(5).ints(1_000, -50, 50).toArray();
+
+    @Test
+    @DisplayName("Should set exactly the bits of even values")
+    void whenClassifiedThenBitsMatchIsEven() {
+        // Act
+        ParityBitSet parity = calculator.isEven(values);
+
+        // Assert
+        assertEquals(values.length, parity.size());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(calculator.isEven(values[i]), parity.isEven(i), "index " + i);
+        }
+        assertEquals((values.length + 63) / 64, parity.toLongArray().length);
+    }
+
+    @Test
+    @DisplayName("Should count even and odd values with population counts")
+    void whenCountedThenMatchesLoop() {
+        // Arrange
+        ParityBitSet parity = calculator.isEven(values);
+        int even = 0;
+        for (int value : values) {
+            even += calculator.isEven(value) ? 1 : 0;
+        }
+
+        // Act & Assert
+        assertEquals(even, parity.countEven());
+        assertEquals(values.length - even, parity.countOdd());
+    }
+
+    @Test
+    @DisplayName("Should count even values within any range")
+    void whenRangeCountedThenMatchesLoop() {
+        // Arrange
+        ParityBitSet parity = calculator.isEven(values);
+        int[][] ranges = {{0, 0}, {0, 1}, {3, 60}, {63, 65}, {64, 128}, {10, 999}, {0, 1_000}, {999, 1_000}};
+
+        for (int[] range : ranges) {
+            int expected = 0;
+            for (int i = range[0]; i < range[1]; i++) {
+                expected += calculator.isEven(values[i]) ? 1 : 0;
+            }
+
+            // Act & Assert
+            assertEquals(expected, parity.countEven(range[0], range[1]), range[0] + ".." + range[1]);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> parity.countEven(5, 1_001));
+    }
+
+    @Test
+    @DisplayName("Should walk the even positions in order")
+    void whenNextEvenWalkedThenVisitsEveryEvenPosition() {
+        // Arrange
+        int[] sparse = new int[300];
+        Arrays.fill(sparse, 1);
+        sparse[5] = 2;
+        sparse[64] = 0;
+        sparse[299] = -4;
+        ParityBitSet parity = calculator.isEven(sparse);
+
+        // Act & Assert
+        assertEquals(5, parity.nextEven(0));
+        assertEquals(64, parity.nextEven(6));
+        assertEquals(299, parity.nextEven(65));
+        assertEquals(-1, parity.nextEven(300));
+        assertEquals(-1, calculator.isEven(new int[] {1, 3}).nextEven(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> parity.nextEven(-1));
+    }
+
+    @Test
+    @DisplayName("Should select the even values in order")
+    void whenSelectedThenEvenValuesInOrder() {
+        // Arrange
+        ParityBitSet parity = calculator.isEven(values);
+        int[] selected = new int[parity.countEven()];
+
+        // Act
+        int count = parity.selectEven(values, selected);
+
+        // Assert
+        assertEquals(selected.length, count);
+        int next = 0;
+        for (int value : values) {
+            if (calculator.isEven(value)) {
+                assertEquals(value, selected[next++]);
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> parity.selectEven(new int[3], selected));
+        assertThrows(IllegalArgumentException.class, () -> parity.selectEven(values, new int[count - 1]));
+    }
+
+    @Test
+    @DisplayName("Should handle an empty array")
+    void whenEmptyThenNothingEven() {
+        // Act
+        ParityBitSet parity = calculator.isEven(new int[0]);
+
+        // Assert
+        assertEquals(0, parity.size());
+        assertEquals(0, parity.countEven());
+        assertEquals(-1, parity.nextEven(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> parity.isEven(0));
+    }
+}
@@ -0,0 +1,181 @@
+package org.example.wip;
+
+import org.example.ShardedTransferExecutor;
+import org.example.TransactionStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ShardedTransferExecutor Unit Tests")
+public class ShardedTransferExecutorTest {
+
+    private ShardedTransferExecutor executor;
+    private int first;
+    private int second;
+    private int third;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ShardedTransferExecutor(2, 64);
+        first = executor.open("ACC001", 10_000L);
+        second = executor.open("ACC002", 5_000L);
+        third = executor.open("ACC003", 0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    @DisplayName("Should apply deposits and withdrawals on the owning shard")
+    void whenDepositAndWithdrawThenBalanceUpdates() throws Exception {
+        // Act
+        TransactionStatus deposited = executor.deposit(first, 500L).get(5, TimeUnit.SECONDS);
+        TransactionStatus withdrawn = executor.withdraw(first, 1_500L).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(TransactionStatus.SUCCESS, deposited);
+        assertEquals(TransactionStatus.SUCCESS, withdrawn);
+        assertEquals(9_000L, executor.getBalanceCents(first).get(5, TimeUnit.SECONDS));
+        assertEquals(2, executor.getShardCount());
+    }
+
+    @Test
+    @DisplayName("Should transfer within a shard and across shards")
+    void whenTransferThenBothBalancesUpdate() throws Exception {
+        // Act
+        TransactionStatus sameShard = executor.transfer(first, third, 1_000L).get(5, TimeUnit.SECONDS);
+        TransactionStatus crossShard = executor.transfer(first, second, 2_000L).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(TransactionStatus.SUCCESS, sameShard);
+        assertEquals(TransactionStatus.SUCCESS, crossShard);
+        assertEquals(7_000L, executor.getBalanceCents(first).get(5, TimeUnit.SECONDS));
+        assertEquals(7_000L, executor.getBalanceCents(second).get(5, TimeUnit.SECONDS));
+        assertEquals(1_000L, executor.getBalanceCents(third).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should refund the source when the target refuses a cross-shard transfer")
+    void whenCrossShardTargetClosedThenSourceIsRefunded() throws Exception {
+        // Arrange
+        executor.closeAccount(second).get(5, TimeUnit.SECONDS);
+
+        // Act
+        TransactionStatus status = executor.transfer(first, second, 2_000L).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(TransactionStatus.INACTIVE_TARGET, status);
+        assertEquals(10_000L, executor.getBalanceCents(first).get(5, TimeUnit.SECONDS));
+        assertEquals(5_000L, executor.getBalanceCents(second).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should return rejection statuses")
+    void whenOperationInvalidThenReturnStatus() throws Exception {
+        // Arrange
+        int rich = executor.open("RICH", Long.MAX_VALUE);
+        executor.closeAccount(third).get(5, TimeUnit.SECONDS);
+
+        // Act & Assert
+        assertEquals(TransactionStatus.INVALID_AMOUNT, executor.deposit(first, 0L).get(5, TimeUnit.SECONDS));
+        assertEquals(TransactionStatus.INACTIVE_ACCOUNT, executor.deposit(third, 1L).get(5, TimeUnit.SECONDS));
+        assertEquals(TransactionStatus.OVERFLOW, executor.deposit(rich, 1L).get(5, TimeUnit.SECONDS));
+        assertEquals(TransactionStatus.INVALID_AMOUNT, executor.withdraw(first, -1L).get(5, TimeUnit.SECONDS));
+        assertEquals(TransactionStatus.INACTIVE_ACCOUNT, executor.withdraw(third, 1L).get(5, TimeUnit.SECONDS));
+        assertEquals(TransactionStatus.INSUFFICIENT_FUNDS, executor.withdraw(second, 5_001L).get(5, TimeUnit.SECONDS));
+        assertEquals(TransactionStatus.INACTIVE_ACCOUNT, executor.transfer(third, first, 1L).get(5, TimeUnit.SECONDS));
+        assertEquals(TransactionStatus.INACTIVE_TARGET, executor.transfer(first, third, 1L).get(5, TimeUnit.SECONDS));
+        assertEquals(TransactionStatus.INVALID_AMOUNT, executor.transfer(first, first, 0L).get(5, TimeUnit.SECONDS));
+        assertEquals(TransactionStatus.INSUFFICIENT_FUNDS, executor.transfer(second, first, 5_001L).get(5, TimeUnit.SECONDS));
+        assertEquals(TransactionStatus.OVERFLOW, executor.transfer(second, rich, 1L).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should run callbacks off the shard threads so a blocked callback does not stall its shard")
+    void whenCallbackBlocksThenShardKeepsServing() throws Exception {
+        // Arrange
+        ShardedTransferExecutor delayed = new ShardedTransferExecutor(1, 64, CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+        int account = delayed.open("ACC001", 0L);
+        Thread testThread = Thread.currentThread();
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> callbackThread = new CompletableFuture<>();
+        CompletableFuture<TransactionStatus> blocked = delayed.deposit(account, 100L).whenComplete((status, error) -> {
+            callbackThread.complete(Thread.currentThread().getName());
+            // Completions are delayed so the callback is attached first; should it still run inline, never block the test
+            if (Thread.currentThread() != testThread) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        try {
+            // Act
+            TransactionStatus next = delayed.deposit(account, 100L).get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertEquals(TransactionStatus.SUCCESS, next);
+            assertFalse(callbackThread.get(5, TimeUnit.SECONDS).startsWith("transfer-shard-"));
+        } finally {
+            release.countDown();
+            delayed.close();
+        }
+        assertEquals(TransactionStatus.SUCCESS, blocked.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid arguments")
+    void whenArgumentsInvalidThenThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new ShardedTransferExecutor(1, 1, null));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedTransferExecutor(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedTransferExecutor(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> executor.open(null, 0L));
+        assertThrows(IllegalArgumentException.class, () -> executor.open("ACC004", -1L));
+        assertThrows(IndexOutOfBoundsException.class, () -> executor.deposit(99, 1L));
+    }
+
+    @Test
+    @DisplayName("Should conserve money under many concurrent cross-shard transfers")
+    void whenManyRandomTransfersThenTotalIsConserved() throws Exception {
+        // Arrange
+        int accounts = 32;
+        int[] handles = new int[accounts];
+        for (int i = 0; i < accounts; i++) {
+            handles[i] = executor.open("BULK-" + i, 1_000L);
+        }
+        List<CompletableFuture<TransactionStatus>> futures = new ArrayList<>();
+        Random random = new Random(7);
+
+        // Act
+        for (int i = 0; i < 20_000; i++) {
+            int source = handles[random.nextInt(accounts)];
+            int target = handles[random.nextInt(accounts)];
+            futures.add(executor.transfer(source, target, 1 + random.nextInt(300)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+        long total = 0;
+        for (int handle : handles) {
+            long balance = executor.getBalanceCents(handle).get(5, TimeUnit.SECONDS);
+            assertTrue(balance >= 0);
+            total += balance;
+        }
+
+        // Assert
+        assertEquals(accounts * 1_000L, total);
+    }
+}
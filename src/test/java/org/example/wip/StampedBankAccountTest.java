@@ -0,0 +1,208 @@
+package org.example.wip;
+
+import org.example.StampedBankAccount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StampedBankAccount Unit Tests")
+public class StampedBankAccountTest {
+
+    private StampedBankAccount account;
+
+    @BeforeEach
+    void setUp() {
+        account = new StampedBankAccount("ACC001", 100.0);
+    }
+
+    // ==================== SINGLE-THREADED TESTS ====================
+
+    @Test
+    @DisplayName("Should reject invalid constructor arguments")
+    void whenCreateAccountWithInvalidArgumentsThenThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new StampedBankAccount(null));
+        assertThrows(IllegalArgumentException.class, () -> new StampedBankAccount("  "));
+        assertThrows(IllegalArgumentException.class, () -> new StampedBankAccount("ACC002", -1.0));
+        assertEquals(0.0, new StampedBankAccount("ACC002").getBalance());
+    }
+
+    @Test
+    @DisplayName("Should update balance after deposit and withdrawal")
+    void whenDepositAndWithdrawThenBalanceUpdates() {
+        // Act
+        account.deposit(50.25);
+        account.withdraw(30.0);
+
+        // Assert
+        assertEquals(120.25, account.getBalance(), 0.001);
+        assertEquals(12_025L, account.getBalanceCents());
+        assertEquals("ACC001", account.getAccountNumber());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid amounts and overdrafts")
+    void whenAmountInvalidThenThrowException() {
+        // Act & Assert
+        assertEquals("Deposit amount must be positive",
+                assertThrows(IllegalArgumentException.class, () -> account.deposit(0)).getMessage());
+        assertEquals("Withdrawal amount must be positive",
+                assertThrows(IllegalArgumentException.class, () -> account.withdraw(-1)).getMessage());
+        assertEquals("Insufficient funds",
+                assertThrows(IllegalStateException.class, () -> account.withdraw(100.01)).getMessage());
+        assertEquals(100.0, account.getBalance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should reject amounts that do not convert to cents as BankAccount does")
+    void whenAmountDoesNotConvertToCentsThenRejectLikeBankAccount() {
+        // Arrange
+        StampedBankAccount target = new StampedBankAccount("ACC002", 50.0);
+
+        // Act & Assert
+        assertEquals("Deposit amount must be positive",
+                assertThrows(IllegalArgumentException.class, () -> account.deposit(0.001)).getMessage());
+        assertEquals("Deposit amount must be positive",
+                assertThrows(IllegalArgumentException.class, () -> account.deposit(Double.NaN)).getMessage());
+        assertEquals("Withdrawal amount must be positive",
+                assertThrows(IllegalArgumentException.class, () -> account.withdraw(Double.NaN)).getMessage());
+        assertEquals("Withdrawal amount must be positive",
+                assertThrows(IllegalArgumentException.class, () -> account.transfer(target, 0.004)).getMessage());
+        assertEquals("Balance overflow",
+                assertThrows(ArithmeticException.class, () -> account.deposit(1e17)).getMessage());
+        assertEquals("Insufficient funds",
+                assertThrows(IllegalStateException.class, () -> account.withdraw(1e17)).getMessage());
+        assertEquals("Insufficient funds",
+                assertThrows(IllegalStateException.class, () -> account.transfer(target, 1e300)).getMessage());
+        assertEquals(10_000L, account.getBalanceCents());
+        assertEquals(5_000L, target.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should reject operations on a closed account and report it in the snapshot")
+    void whenAccountClosedThenOperationsThrowException() {
+        // Act
+        account.closeAccount();
+
+        // Assert
+        assertFalse(account.isActive());
+        assertEquals(new StampedBankAccount.Snapshot(10_000L, false), account.getSnapshot());
+        assertThrows(IllegalStateException.class, () -> account.deposit(1.0));
+        assertThrows(IllegalStateException.class, () -> account.withdraw(1.0));
+    }
+
+    @Test
+    @DisplayName("Should transfer money between accounts")
+    void whenTransferThenBothBalancesUpdate() {
+        // Arrange
+        StampedBankAccount target = new StampedBankAccount("ACC002", 10.0);
+
+        // Act
+        account.transfer(target, 40.0);
+        target.transfer(account, 5.0);
+        account.transfer(account, 10.0);
+
+        // Assert
+        assertEquals(65.0, account.getBalance(), 0.001);
+        assertEquals(45.0, target.getBalance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should reject transfers to null or inactive accounts and leave balances unchanged")
+    void whenTransferInvalidThenThrowException() {
+        // Arrange
+        StampedBankAccount target = new StampedBankAccount("ACC002");
+        StampedBankAccount twin = new StampedBankAccount("ACC001");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> account.transfer(null, 1.0));
+        assertThrows(IllegalStateException.class, () -> account.transfer(twin, 200.0));
+        assertThrows(IllegalArgumentException.class, () -> account.transfer(target, 0));
+        target.closeAccount();
+        assertEquals("Cannot transfer to inactive account",
+                assertThrows(IllegalStateException.class, () -> account.transfer(target, 1.0)).getMessage());
+        account.closeAccount();
+        assertEquals("Cannot transfer from inactive account",
+                assertThrows(IllegalStateException.class, () -> account.transfer(twin, 1.0)).getMessage());
+        assertEquals(100.0, account.getBalance(), 0.001);
+    }
+
+    // ==================== CONCURRENCY TESTS ====================
+
+    @Test
+    @DisplayName("Should never return a snapshot that mixes states of different writes")
+    void whenReadingDuringWritesThenSnapshotIsConsistent() throws Exception {
+        // Arrange
+        StampedBankAccount hot = new StampedBankAccount("HOT");
+        int deposits = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // Act
+        try {
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 0; i < deposits; i++) {
+                    hot.deposit(0.01);
+                }
+                hot.closeAccount();
+            });
+            Future<Boolean> reader = executor.submit(() -> {
+                long last = 0;
+                while (true) {
+                    StampedBankAccount.Snapshot snapshot = hot.getSnapshot();
+                    if (snapshot.balanceCents() < last) {
+                        return false;
+                    }
+                    last = snapshot.balanceCents();
+                    if (!snapshot.active()) {
+                        // The account closes only after the last deposit
+                        return snapshot.balanceCents() == deposits;
+                    }
+                }
+            });
+            writer.get();
+
+            // Assert
+            assertTrue(reader.get());
+            assertEquals(deposits, hot.getBalanceCents());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should conserve money under opposing concurrent transfers")
+    void whenTransferringBothWaysConcurrentlyThenTotalIsConserved() throws Exception {
+        // Arrange
+        StampedBankAccount left = new StampedBankAccount("LEFT", 1_000.0);
+        StampedBankAccount right = new StampedBankAccount("RIGHT", 1_000.0);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // Act
+        try {
+            Future<?> forward = executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    left.transfer(right, 0.01);
+                }
+            });
+            Future<?> backward = executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    right.transfer(left, 0.01);
+                }
+            });
+            forward.get();
+            backward.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(100_000L, left.getBalanceCents());
+        assertEquals(100_000L, right.getBalanceCents());
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.wip;
+
+import org.example.BankAccount;
+import org.example.TransactionBatch;
+import org.example.TransactionStatus;
+import org.example.TransferEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TransactionBatch Unit Tests")
+public class TransactionBatchTest {
+
+    private BankAccount first;
+    private BankAccount second;
+    private TransactionBatch batch;
+
+    @BeforeEach
+    void setUp() {
+        first = BankAccount.ofCents("ACC001", 10_000L);
+        second = BankAccount.ofCents("ACC002", 5_000L);
+        batch = new TransactionBatch();
+    }
+
+    @Test
+    @DisplayName("Should apply every operation when all are valid")
+    void whenAllOperationsValidThenCommitAppliesThem() {
+        // Arrange
+        batch.deposit(first, 1_000L)
+                .withdraw(second, 2_000L)
+                .transfer(first, second, 6_000L);
+
+        // Act
+        TransactionStatus status = batch.commit();
+
+        // Assert
+        assertEquals(TransactionStatus.SUCCESS, status);
+        assertEquals(3, batch.size());
+        assertEquals(-1, batch.getFailedOperation());
+        assertEquals(5_000L, first.getBalanceCents());
+        assertEquals(9_000L, second.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should apply operations in order when checking funds")
+    void whenEarlierDepositCoversLaterWithdrawalThenCommitSucceeds() {
+        // Arrange
+        batch.deposit(second, 10_000L).withdraw(second, 15_000L);
+
+        // Act & Assert
+        assertEquals(TransactionStatus.SUCCESS, batch.commit());
+        assertEquals(0L, second.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should apply nothing when one operation is rejected")
+    void whenOneOperationRejectedThenNothingIsApplied() {
+        // Arrange
+        batch.deposit(first, 1_000L)
+                .transfer(first, second, 1_000L)
+                .withdraw(second, 50_000L);
+
+        // Act
+        TransactionStatus status = batch.commit();
+
+        // Assert
+        assertEquals(TransactionStatus.INSUFFICIENT_FUNDS, status);
+        assertEquals(2, batch.getFailedOperation());
+        assertEquals(10_000L, first.getBalanceCents());
+        assertEquals(5_000L, second.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should report the status of the rejected operation")
+    void whenOperationInvalidThenReturnItsStatus() {
+        // Arrange
+        BankAccount closed = BankAccount.ofCents("ACC003", 0L);
+        BankAccount rich = BankAccount.ofCents("ACC004", Long.MAX_VALUE);
+        closed.closeAccount();
+
+        // Act & Assert
+        assertEquals(TransactionStatus.INVALID_AMOUNT, new TransactionBatch().deposit(first, 0L).commit());
+        assertEquals(TransactionStatus.INVALID_AMOUNT, new TransactionBatch().withdraw(first, -1L).commit());
+        assertEquals(TransactionStatus.INVALID_AMOUNT, new TransactionBatch().transfer(first, second, 0L).commit());
+        assertEquals(TransactionStatus.INACTIVE_ACCOUNT, new TransactionBatch().deposit(closed, 1L).commit());
+        assertEquals(TransactionStatus.INACTIVE_ACCOUNT, new TransactionBatch().withdraw(closed, 1L).commit());
+        assertEquals(TransactionStatus.INACTIVE_ACCOUNT, new TransactionBatch().transfer(closed, first, 1L).commit());
+        assertEquals(TransactionStatus.INACTIVE_TARGET, new TransactionBatch().transfer(first, closed, 1L).commit());
+        assertEquals(TransactionStatus.INSUFFICIENT_FUNDS, new TransactionBatch().transfer(second, first, 5_001L).commit());
+        assertEquals(TransactionStatus.OVERFLOW, new TransactionBatch().deposit(rich, 1L).commit());
+        assertEquals(TransactionStatus.OVERFLOW, new TransactionBatch().transfer(first, rich, 1L).commit());
+        assertEquals(10_000L, first.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should reject null accounts when building the batch")
+    void whenAccountIsNullThenThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> batch.deposit(null, 1L));
+        assertThrows(IllegalArgumentException.class, () -> batch.transfer(first, null, 1L));
+    }
+
+    @Test
+    @DisplayName("Should grow past the initial operation capacity")
+    void whenAddingManyOperationsThenAllAreApplied() {
+        // Arrange
+        for (int i = 0; i < 100; i++) {
+            batch.transfer(first, second, 10L).transfer(second, first, 5L);
+        }
+
+        // Act & Assert
+        assertEquals(TransactionStatus.SUCCESS, batch.commit());
+        assertEquals(9_500L, first.getBalanceCents());
+        assertEquals(5_500L, second.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should commit through the transfer engine under account locks")
+    void whenCommitThroughEngineThenBatchIsApplied() {
+        // Arrange
+        TransferEngine engine = new TransferEngine();
+        BankAccount twin = BankAccount.ofCents("ACC001", 0L);
+        batch.transfer(second, first, 1_000L).transfer(first, twin, 500L);
+
+        // Act
+        TransactionStatus status = engine.commit(batch);
+
+        // Assert
+        assertEquals(TransactionStatus.SUCCESS, status);
+        assertEquals(10_500L, first.getBalanceCents());
+        assertEquals(500L, twin.getBalanceCents());
+        assertThrows(IllegalArgumentException.class, () -> engine.commit(null));
+    }
+}
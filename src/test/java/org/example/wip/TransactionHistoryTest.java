@@ -0,0 +1,165 @@
+package org.example.wip;
+
+import org.example.AccountJournal;
+import org.example.AccountOperation;
+import org.example.AccountRegistry;
+import org.example.BankAccount;
+import org.example.TransactionHistory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TransactionHistory Unit Tests")
+public class TransactionHistoryTest {
+
+    private BankAccount account;
+    private TransactionHistory history;
+
+    @BeforeEach
+    void setUp() {
+        account = BankAccount.ofCents("ACC001", 10_000L);
+        history = TransactionHistory.attach(account, 4);
+    }
+
+    @Test
+    @DisplayName("Should return the latest changes newest first")
+    void whenAccountChangesThenLatestRecordsReturnedNewestFirst() {
+        // Arrange
+        BankAccount target = BankAccount.ofCents("ACC002", 0L);
+        TransactionHistory.Page page = TransactionHistory.newPage(10);
+
+        // Act
+        account.depositCents(500L);
+        account.withdrawCents(200L);
+        account.transferCents(target, 300L);
+        int read = history.read(page);
+
+        // Assert
+        assertEquals(3, read);
+        assertEquals(AccountOperation.TRANSFER_OUT, page.operation(0));
+        assertEquals(300L, page.amountCents(0));
+        assertEquals(10_000L, page.balanceCents(0));
+        assertEquals(2L, page.sequence(0));
+        assertEquals(AccountOperation.DEPOSIT, page.operation(2));
+        assertEquals(10_500L, page.balanceCents(2));
+        assertEquals(0L, page.sequence(2));
+    }
+
+    @Test
+    @DisplayName("Should keep only the most recent records once full")
+    void whenMoreChangesThanCapacityThenOldestOverwritten() {
+        // Arrange
+        TransactionHistory.Page page = TransactionHistory.newPage(10);
+
+        // Act
+        for (int i = 1; i <= 10; i++) {
+            account.depositCents(i);
+        }
+        history.read(page);
+
+        // Assert
+        assertEquals(4, history.capacity());
+        assertEquals(4, history.size());
+        assertEquals(10L, history.getRecordedCount());
+        assertEquals(4, page.size());
+        assertEquals(10L, page.amountCents(0));
+        assertEquals(7L, page.amountCents(3));
+        assertEquals(6L, page.sequence(3));
+    }
+
+    @Test
+    @DisplayName("Should page through records with a reusable page")
+    void whenPagingThenEachPageContinuesWhereTheLastEnded() {
+        // Arrange
+        TransactionHistory large = new TransactionHistory(100);
+        account.setListener(large);
+        for (int i = 1; i <= 25; i++) {
+            account.depositCents(i);
+        }
+        TransactionHistory.Page page = TransactionHistory.newPage(10);
+        List<Long> amounts = new ArrayList<>();
+
+        // Act
+        long before = large.getRecordedCount();
+        while (large.read(before, page) > 0) {
+            for (int i = 0; i < page.size(); i++) {
+                amounts.add(page.amountCents(i));
+            }
+            before = page.nextBefore();
+        }
+
+        // Assert
+        assertEquals(25, amounts.size());
+        assertEquals(25L, amounts.get(0));
+        assertEquals(1L, amounts.get(24));
+        assertThrows(IndexOutOfBoundsException.class, () -> page.amountCents(0));
+    }
+
+    @Test
+    @DisplayName("Should record alongside an existing listener")
+    void whenAttachedToAccountWithListenerThenBothReceiveChanges() {
+        // Arrange
+        List<AccountOperation> seen = new ArrayList<>();
+        BankAccount other = BankAccount.ofCents("ACC003", 1_000L);
+        other.setListener((changed, operation, amountCents, balanceCents) -> seen.add(operation));
+        TransactionHistory attached = TransactionHistory.attach(other, 8);
+
+        // Act
+        other.withdrawCents(100L);
+        other.closeAccount();
+
+        // Assert
+        assertEquals(List.of(AccountOperation.WITHDRAWAL, AccountOperation.CLOSE), seen);
+        assertEquals(2, attached.size());
+    }
+
+    @Test
+    @DisplayName("Should leave a journaled transfer as one group when both sides keep a history")
+    void whenHistoryAttachedToJournaledTransferThenJournalSeesOneGroup(@TempDir Path dir) throws Exception {
+        // Arrange
+        Path file = dir.resolve("history.journal");
+        BankAccount source = BankAccount.ofCents("ACC003", 1_000L);
+        BankAccount target = BankAccount.ofCents("ACC004", 0L);
+        List<AccountJournal.Entry> journaled;
+
+        // Act
+        try (AccountJournal journal = new AccountJournal(file, 4096)) {
+            source.setListener(journal);
+            target.setListener(journal);
+            TransactionHistory sourceHistory = TransactionHistory.attach(source, 4);
+            TransactionHistory targetHistory = TransactionHistory.attach(target, 4);
+            source.transferCents(target, 400L);
+            assertEquals(1, sourceHistory.size());
+            assertEquals(1, targetHistory.size());
+        }
+        journaled = AccountJournal.read(file);
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            // Each record is 34 bytes; corrupt the second leg so only a single group is left incomplete
+            raw.seek(34 + 28);
+            raw.write('X');
+        }
+        int replayed = AccountJournal.replay(file, new AccountRegistry());
+
+        // Assert
+        assertEquals(2, journaled.size());
+        assertEquals(0, replayed);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid sizes")
+    void whenSizeInvalidThenThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new TransactionHistory(0));
+        assertThrows(IllegalArgumentException.class, () -> TransactionHistory.newPage(0));
+        assertThrows(IllegalArgumentException.class, () -> TransactionHistory.attach(null, 4));
+        assertThrows(IllegalArgumentException.class, () -> history.andThen(null));
+    }
+}
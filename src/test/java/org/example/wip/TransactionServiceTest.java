@@ -0,0 +1,132 @@
+package org.example.wip;
+
+import org.example.AccountRegistry;
+import org.example.TransactionLoadClient;
+import org.example.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TransactionService Unit Tests")
+public class TransactionServiceTest {
+
+    private AccountRegistry registry;
+    private TransactionService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new AccountRegistry();
+        service = new TransactionService(registry);
+        service.execute("OPEN ACC001 10000");
+        service.execute("OPEN ACC002 5000");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        service.close();
+    }
+
+    @Test
+    @DisplayName("Should execute deposits, withdrawals, transfers and balance reads in-process")
+    void whenExecuteRequestsThenBalancesUpdate() {
+        // Act
+        String deposited = service.execute("DEPOSIT ACC001 500");
+        String withdrawn = service.execute("WITHDRAW ACC002 1000");
+        String transferred = service.execute("TRANSFER ACC001 ACC002 2500");
+
+        // Assert
+        assertEquals("OK", deposited);
+        assertEquals("OK", withdrawn);
+        assertEquals("OK", transferred);
+        assertEquals("OK 8000", service.execute("BALANCE ACC001"));
+        assertEquals("OK 6500", service.execute("BALANCE ACC002"));
+        assertEquals(8_000L, registry.find("ACC001").getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should answer rejected and malformed requests with an error reason")
+    void whenRequestInvalidThenErrorReason() {
+        // Act & Assert
+        assertEquals("ERR INSUFFICIENT_FUNDS", service.execute("WITHDRAW ACC001 20000"));
+        assertEquals("ERR INVALID_AMOUNT", service.execute("DEPOSIT ACC001 -5"));
+        assertEquals("ERR INVALID_AMOUNT", service.execute("OPEN ACC003 -5"));
+        assertEquals("ERR UNKNOWN_ACCOUNT", service.execute("TRANSFER ACC001 ACC999 100"));
+        assertEquals("ERR UNKNOWN_ACCOUNT", service.execute("BALANCE ACC999"));
+        assertEquals("ERR DUPLICATE_ACCOUNT", service.execute("OPEN ACC001 100"));
+        assertEquals("ERR BAD_REQUEST", service.execute("DEPOSIT ACC001 ten"));
+        assertEquals("ERR BAD_REQUEST", service.execute("TRANSFER ACC001"));
+        assertEquals("ERR BAD_REQUEST", service.execute("FREEZE ACC001"));
+        assertEquals(10_000L, registry.find("ACC001").getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Should answer pipelined requests in order on one stream")
+    void whenServeStreamThenResponsesInRequestOrder() throws Exception {
+        // Arrange
+        String requests = "DEPOSIT ACC001 100\nBALANCE ACC001\nWITHDRAW ACC001 99999\nBALANCE ACC001\n";
+        ByteArrayOutputStream responses = new ByteArrayOutputStream();
+
+        // Act
+        service.serve(new ByteArrayInputStream(requests.getBytes(StandardCharsets.UTF_8)), responses);
+
+        // Assert
+        assertEquals("OK\nOK 10100\nERR INSUFFICIENT_FUNDS\nOK 10100\n", responses.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should serve requests over a loopback socket")
+    void whenConnectOverSocketThenRequestsServed() throws Exception {
+        // Arrange
+        int port = service.start(0);
+
+        // Act
+        try (Socket socket = new Socket("127.0.0.1", port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write("TRANSFER ACC001 ACC002 1000\nBALANCE ACC002\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+            // Assert
+            assertEquals("OK", in.readLine());
+            assertEquals("OK 6000", in.readLine());
+        }
+        assertThrows(IllegalStateException.class, () -> service.start(0));
+    }
+
+    @Test
+    @DisplayName("Should keep balances consistent under the bundled load client")
+    void whenLoadClientRunsThenNoErrors() throws Exception {
+        // Arrange
+        int port = service.start(0);
+        TransactionLoadClient client = new TransactionLoadClient("127.0.0.1", port);
+
+        // Act
+        TransactionLoadClient.Result result = client.run(8, 2_000, 32);
+
+        // Assert
+        assertEquals(16_000L, result.requests());
+        assertEquals(0L, result.errors());
+        assertTrue(result.requestsPerSecond() > 0);
+        assertEquals(18, registry.size());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when registry is null")
+    void whenRegistryNullThenThrowException() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new TransactionService(null));
+        assertEquals("Registry cannot be null", exception.getMessage());
+    }
+}
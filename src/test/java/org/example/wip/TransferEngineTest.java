@@ -0,0 +1,174 @@
+package org.example.wip;
+
+import org.example.BankAccount;
+import org.example.TransactionBatch;
+import org.example.TransactionStatus;
+import org.example.TransferEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TransferEngine Unit Tests")
+public class TransferEngineTest {
+
+    private TransferEngine engine;
+    private BankAccount source;
+    private BankAccount target;
+
+    @BeforeEach
+    void setUp() {
+        engine = new TransferEngine();
+        source = new BankAccount("ACC001", 100.0);
+        target = new BankAccount("ACC002", 50.0);
+    }
+
+    @Test
+    @DisplayName("Should transfer money between accounts")
+    void whenTransferThenBothBalancesUpdate() {
+        // Act
+        engine.transfer(source, target, 30.0);
+
+        // Assert
+        assertEquals(70.0, engine.getBalance(source), 0.001);
+        assertEquals(80.0, engine.getBalance(target), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should transfer in either lock order")
+    void whenTransferFromHigherToLowerAccountThenBalancesUpdate() {
+        // Act
+        engine.transfer(target, source, 50.0);
+
+        // Assert
+        assertEquals(150.0, source.getBalance(), 0.001);
+        assertEquals(0.0, target.getBalance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should transfer between distinct accounts sharing a number")
+    void whenAccountsShareNumberThenTransferStillWorks() {
+        // Arrange
+        BankAccount twin = new BankAccount("ACC001", 0.0);
+
+        // Act
+        engine.transfer(source, twin, 40.0);
+        engine.transfer(twin, source, 10.0);
+
+        // Assert
+        assertEquals(70.0, source.getBalance(), 0.001);
+        assertEquals(30.0, twin.getBalance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should allow transfer to the same account")
+    void whenTransferToSelfThenBalanceUnchanged() {
+        // Act
+        engine.transfer(source, source, 40.0);
+
+        // Assert
+        assertEquals(100.0, source.getBalance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should leave both balances untouched when transfer fails")
+    void whenTransferFailsThenNothingChanges() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> engine.transfer(source, target, 500.0));
+        assertEquals(100.0, source.getBalance(), 0.001);
+        assertEquals(50.0, target.getBalance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should report an amount too large for cents as insufficient funds")
+    void whenAmountTooLargeForCentsThenInsufficientFunds() {
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> engine.transfer(source, target, Double.MAX_VALUE));
+        assertEquals("Insufficient funds", exception.getMessage());
+        assertThrows(IllegalStateException.class, () -> engine.withdraw(source, 1e17));
+        assertEquals(100.0, source.getBalance(), 0.001);
+        assertEquals(50.0, target.getBalance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should reject null accounts")
+    void whenAccountIsNullThenThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> engine.transfer(null, target, 10.0));
+        assertThrows(IllegalArgumentException.class, () -> engine.transfer(source, null, 10.0));
+    }
+
+    @Test
+    @DisplayName("Should deposit and withdraw through the engine")
+    void whenDepositAndWithdrawThroughEngineThenBalanceUpdates() {
+        // Act
+        engine.deposit(source, 25.0);
+        engine.withdraw(source, 75.0);
+
+        // Assert
+        assertEquals(50.0, engine.getBalance(source), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should not deadlock or lose money on opposite concurrent transfers")
+    void whenOppositeTransfersRunConcurrentlyThenTotalIsConserved() throws Exception {
+        // Arrange
+        BankAccount a = new BankAccount("A", 10_000.0);
+        BankAccount b = new BankAccount("B", 10_000.0);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            boolean forward = t % 2 == 0;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    try {
+                        if (forward) {
+                            engine.transfer(a, b, 3.0);
+                        } else {
+                            engine.transfer(b, a, 3.0);
+                        }
+                    } catch (IllegalStateException e) {
+                        // declined: insufficient funds
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Assert
+        assertEquals(20_000.0, a.getBalance() + b.getBalance(), 0.001);
+        assertTrue(a.getBalance() >= 0 && b.getBalance() >= 0);
+    }
+
+    @Test
+    @DisplayName("Should commit a batch touching many thousands of accounts")
+    void whenBatchTouchesManyAccountsThenCommitted() {
+        // Arrange
+        TransactionBatch batch = new TransactionBatch();
+        BankAccount hub = BankAccount.ofCents("HUB", 20_000L);
+        for (int i = 0; i < 20_000; i++) {
+            batch.transfer(hub, BankAccount.ofCents("SPOKE" + i, 0L), 1L);
+        }
+
+        // Act
+        TransactionStatus status = engine.commit(batch);
+
+        // Assert
+        assertEquals(TransactionStatus.SUCCESS, status);
+        assertEquals(0L, hub.getBalanceCents());
+    }
+}
@@ -0,0 +1,201 @@
+package org.example.wip;
+
+import org.example.AccountRegistry;
+import org.example.BankAccount;
+import org.example.TransactionBatch;
+import org.example.TransactionService;
+import org.example.TransactionStatus;
+import org.example.VelocityLimit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("VelocityLimit Unit Tests")
+public class VelocityLimitTest {
+
+    private AtomicLong now;
+    private BankAccount account;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong();
+        account = BankAccount.ofCents("ACC001", 1_000_000L);
+    }
+
+    @Test
+    @DisplayName("Should decline withdrawals past the operation count within the window")
+    void whenOperationCountExceededThenLimitExceeded() {
+        // Arrange
+        account.setVelocityLimit(new VelocityLimit(Duration.ofSeconds(60), 6, 3, Long.MAX_VALUE, now::get));
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertEquals(TransactionStatus.SUCCESS, account.tryWithdrawCents(100L));
+        }
+        TransactionStatus fourth = account.tryWithdrawCents(100L);
+
+        // Assert
+        assertEquals(TransactionStatus.LIMIT_EXCEEDED, fourth);
+        assertEquals(999_700L, account.getBalanceCents());
+        assertEquals(3, account.getVelocityLimit().getWindowOperations());
+    }
+
+    @Test
+    @DisplayName("Should decline transfers past the amount within the window and throw from the throwing API")
+    void whenAmountExceededThenLimitExceeded() {
+        // Arrange
+        BankAccount target = BankAccount.ofCents("ACC002", 0L);
+        account.setVelocityLimit(new VelocityLimit(Duration.ofSeconds(60), 6, 100, 50_000L, now::get));
+
+        // Act
+        account.transferCents(target, 30_000L);
+        TransactionStatus declined = account.tryTransferCents(target, 20_001L);
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> account.withdrawCents(20_001L));
+
+        // Assert
+        assertEquals(TransactionStatus.LIMIT_EXCEEDED, declined);
+        assertEquals("Velocity limit exceeded", exception.getMessage());
+        assertEquals(30_000L, target.getBalanceCents());
+        assertEquals(TransactionStatus.SUCCESS, account.tryTransferCents(target, 20_000L));
+        assertEquals(50_000L, account.getVelocityLimit().getWindowAmountCents());
+    }
+
+    @Test
+    @DisplayName("Should free capacity bucket by bucket as the window slides")
+    void whenTimePassesThenOldBucketsExpire() {
+        // Arrange
+        VelocityLimit limit = new VelocityLimit(Duration.ofSeconds(60), 6, 2, Long.MAX_VALUE, now::get);
+        account.setVelocityLimit(limit);
+        account.withdrawCents(1L);
+        now.set(Duration.ofSeconds(30).toNanos());
+        account.withdrawCents(1L);
+
+        // Act & Assert
+        assertEquals(TransactionStatus.LIMIT_EXCEEDED, account.tryWithdrawCents(1L));
+        now.set(Duration.ofSeconds(60).toNanos());
+        assertEquals(TransactionStatus.SUCCESS, account.tryWithdrawCents(1L));
+        assertEquals(TransactionStatus.LIMIT_EXCEEDED, account.tryWithdrawCents(1L));
+        now.set(Duration.ofMinutes(10).toNanos());
+        assertEquals(0, limit.getWindowOperations());
+        assertEquals(0L, limit.getWindowAmountCents());
+    }
+
+    @Test
+    @DisplayName("Should not count declined or invalid withdrawals against the limit")
+    void whenWithdrawalDeclinedForOtherReasonThenNotCounted() {
+        // Arrange
+        VelocityLimit limit = new VelocityLimit(Duration.ofSeconds(60), 6, 1, Long.MAX_VALUE, now::get);
+        account.setVelocityLimit(limit);
+
+        // Act
+        account.tryWithdrawCents(2_000_000L);
+        account.tryWithdrawCents(-5L);
+        account.depositCents(500L);
+
+        // Assert
+        assertEquals(0, limit.getWindowOperations());
+        assertEquals(TransactionStatus.SUCCESS, account.tryWithdrawCents(100L));
+    }
+
+    @Test
+    @DisplayName("Should hold batches to the limit and give back what a rejected batch took")
+    void whenBatchPassesLimitThenRejectedAndReleased() {
+        // Arrange
+        VelocityLimit limit = new VelocityLimit(Duration.ofSeconds(60), 6, 3, Long.MAX_VALUE, now::get);
+        BankAccount target = BankAccount.ofCents("ACC002", 0L);
+        account.setVelocityLimit(limit);
+        account.withdrawCents(100L);
+        TransactionBatch batch = new TransactionBatch()
+                .withdraw(account, 100L)
+                .deposit(target, 100L)
+                .transfer(account, target, 100L)
+                .withdraw(account, 100L);
+
+        // Act
+        TransactionStatus status = batch.commit();
+
+        // Assert
+        assertEquals(TransactionStatus.LIMIT_EXCEEDED, status);
+        assertEquals(3, batch.getFailedOperation());
+        assertEquals(999_900L, account.getBalanceCents());
+        assertEquals(1, limit.getWindowOperations());
+        assertEquals(100L, limit.getWindowAmountCents());
+        assertEquals(TransactionStatus.SUCCESS, new TransactionBatch().transfer(account, target, 100L).withdraw(account, 100L).commit());
+        assertEquals(3, limit.getWindowOperations());
+    }
+
+    @Test
+    @DisplayName("Should hold service requests to the limit")
+    void whenLimitReachedThenServiceWithdrawDeclined() throws Exception {
+        // Arrange
+        AccountRegistry registry = new AccountRegistry();
+        registry.register(account);
+        account.setVelocityLimit(new VelocityLimit(Duration.ofSeconds(60), 6, 100, 5_000L, now::get));
+        assertEquals(TransactionStatus.SUCCESS, account.tryWithdrawCents(5_000L));
+
+        try (TransactionService service = new TransactionService(registry)) {
+            // Act
+            String response = service.execute("WITHDRAW ACC001 5000");
+
+            // Assert
+            assertEquals("ERR LIMIT_EXCEEDED", response);
+            assertEquals(995_000L, account.getBalanceCents());
+        }
+    }
+
+    @Test
+    @DisplayName("Should admit exactly the cap under concurrent withdrawals from accounts sharing a limit")
+    void whenSharedAcrossThreadsThenExactlyTheCapAdmitted() throws Exception {
+        // Arrange
+        VelocityLimit limit = new VelocityLimit(Duration.ofHours(1), 60, 1_000, Long.MAX_VALUE);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // Act
+        try {
+            for (int t = 0; t < 4; t++) {
+                BankAccount own = BankAccount.ofCents("ACC-" + t, 1_000_000L);
+                own.setVelocityLimit(limit);
+                results.add(executor.submit(() -> {
+                    int admitted = 0;
+                    for (int i = 0; i < 1_000; i++) {
+                        if (own.tryWithdrawCents(1L).isSuccess()) {
+                            admitted++;
+                        }
+                    }
+                    return admitted;
+                }));
+            }
+            int admitted = 0;
+            for (Future<Integer> result : results) {
+                admitted += result.get();
+            }
+
+            // Assert
+            assertEquals(1_000, admitted);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject invalid limit settings")
+    void whenSettingsInvalidThenThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new VelocityLimit(null, 6, 1, 1L));
+        assertThrows(IllegalArgumentException.class, () -> new VelocityLimit(Duration.ofSeconds(1), 0, 1, 1L));
+        assertThrows(IllegalArgumentException.class, () -> new VelocityLimit(Duration.ofNanos(3), 6, 1, 1L));
+        assertThrows(IllegalArgumentException.class, () -> new VelocityLimit(Duration.ofSeconds(1), 6, 0, 1L));
+        assertThrows(IllegalArgumentException.class, () -> new VelocityLimit(Duration.ofSeconds(1), 6, 1, 0L));
+    }
+}